@@ -0,0 +1,133 @@
+package com.jisang.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ *
+ * 두 JMH 실행 결과(JSON)를 비교하여 벤치마크 별 점수와 op 당 할당량({@code ·gc.alloc.rate.norm})의 변화율을 출력한다.
+ *
+ * benchmark 프로파일은 gc profiler를 적용하고 결과를 {@code benchmark.result-file}(기본 값
+ * {@code target/jmh-result.json})에 저장한다. 변경 전후를 비교하는 순서는 다음과 같다.
+ *
+ * <ol>
+ * <li>변경 전 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=SecurityFilterChainBenchmark
+ * -Dbenchmark.result-file=target/jmh-base.json}</li>
+ * <li>변경 후 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=SecurityFilterChainBenchmark}</li>
+ * <li>비교 : {@code mvn -P benchmark test-compile exec:java@compare}</li>
+ * </ol>
+ *
+ * 비교 대상 파일은 {@code benchmark.baseline-file}(기본 값 {@code target/jmh-base.json})과
+ * {@code benchmark.result-file} 프로퍼티로 바꿀 수 있다. throughput 모드는 점수가 클수록, 나머지 모드는 점수가 작을수록
+ * 좋으므로 변화율을 해석할 때 {@code Mode} 열을 함께 확인해야 한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class BenchmarkComparison {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+    private static final String ROW_FORMAT = "%-70s %-6s %14s %14s %9s %12s %12s %9s%n";
+
+    // Methods
+    // ==========================================================================================================================
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage : BenchmarkComparison <baseline result json> <result json>");
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+
+        System.out.printf(ROW_FORMAT, "Benchmark", "Mode", "Base", "Current", "Score", "Base B/op", "Current B/op",
+                "Alloc");
+
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode result = entry.getValue();
+            JsonNode base = baseline.remove(entry.getKey());
+
+            double score = result.path("primaryMetric").path("score").asDouble();
+            Double allocation = allocation(result);
+
+            if (base == null) {
+                System.out.printf(ROW_FORMAT, entry.getKey(), result.path("mode").asText(), "-", format(score), "new",
+                        "-", format(allocation), "new");
+                continue;
+            }
+
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            Double baseAllocation = allocation(base);
+
+            System.out.printf(ROW_FORMAT, entry.getKey(), result.path("mode").asText(), format(baseScore),
+                    format(score), change(baseScore, score), format(baseAllocation), format(allocation),
+                    baseAllocation == null || allocation == null ? "-" : change(baseAllocation, allocation));
+        }
+
+        for (Map.Entry<String, JsonNode> entry : baseline.entrySet()) {
+            System.out.printf(ROW_FORMAT, entry.getKey(), entry.getValue().path("mode").asText(),
+                    format(entry.getValue().path("primaryMetric").path("score").asDouble()), "-", "removed", "-", "-",
+                    "removed");
+        }
+    }
+
+    /**
+     * 벤치마크 이름과 파라미터 조합을 key로 실행 결과를 분류한다.
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(shortName(result.path("benchmark").asText()));
+
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            if (!params.isEmpty()) {
+                key.append(params);
+            }
+
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    private static String shortName(String benchmark) {
+        int methodSeparator = benchmark.lastIndexOf('.');
+        int classSeparator = benchmark.lastIndexOf('.', methodSeparator - 1);
+        return benchmark.substring(classSeparator + 1);
+    }
+
+    private static Double allocation(JsonNode result) {
+        JsonNode metric = result.path("secondaryMetrics").path(ALLOCATION_METRIC);
+        return metric.isMissingNode() ? null : metric.path("score").asDouble();
+    }
+
+    private static String change(double base, double current) {
+        if (base == 0) {
+            return current == 0 ? "0.0%" : "-";
+        }
+        return String.format("%+.1f%%", (current - base) * 100 / base);
+    }
+
+    private static String format(Double value) {
+        return value == null ? "-" : String.format("%.3f", value);
+    }
+}
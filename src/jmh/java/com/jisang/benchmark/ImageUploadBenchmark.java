@@ -0,0 +1,181 @@
+package com.jisang.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.jisang.persistence.S3MultipartDAO;
+import com.jisang.persistence.S3UploadExecutor;
+
+/**
+ *
+ * 상품 등록 시 이미지 수에 따른 S3 업로드 시간을 비교한다. S3는 요청마다 {@code latencyMillis} 만큼 지연되는
+ * {@link LocalAmazonS3}로 대체한다.
+ *
+ * <ul>
+ * <li>{@code sequential} : 이전 구현과 같이 이미지를 하나씩 순서대로 업로드한다.</li>
+ * <li>{@code parallel} : {@link S3MultipartDAO#upload(MultipartFile...)}로 {@link S3UploadExecutor}에서 동시에
+ * 업로드한다.</li>
+ * </ul>
+ *
+ * setup 단계에서 업로드 도중 실패할 경우 이미 업로드된 이미지가 모두 삭제되는지 확인한다.
+ *
+ * 실행 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=ImageUploadBenchmark}
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageUploadBenchmark {
+
+    private static final String BUCKET_NAME = "jisang-benchmark";
+    private static final int IMAGE_SIZE = 16 * 1024;
+
+    @Param({ "1", "4", "8" })
+    private int imageCount;
+    @Param({ "30" })
+    private long latencyMillis;
+    @Param({ "8" })
+    private int concurrency;
+
+    private LocalAmazonS3 s3Client;
+    private S3UploadExecutor uploadExecutor;
+    private S3MultipartDAO multipartDAO;
+
+    private MultipartFile[] files;
+
+    @Setup
+    public void setup() throws Exception {
+        uploadExecutor = new S3UploadExecutor();
+        ReflectionTestUtils.setField(uploadExecutor, "concurrency", concurrency);
+        ReflectionTestUtils.setField(uploadExecutor, "queueCapacity", 64);
+        ReflectionTestUtils.setField(uploadExecutor, "timeoutMillis", 10000);
+        uploadExecutor.init();
+
+        s3Client = new LocalAmazonS3(latencyMillis);
+        multipartDAO = multipartDAO(s3Client, Collections.synchronizedList(new ArrayList<>()));
+
+        Random random = new Random(0);
+        files = new MultipartFile[imageCount];
+
+        for (int i = 0; i < imageCount; i++) {
+            byte[] content = new byte[IMAGE_SIZE];
+            random.nextBytes(content);
+            files[i] = new MockMultipartFile("images", "image-" + i + ".jpg", "image/jpeg", content);
+        }
+
+        verifyOrder();
+        verifyCleanUp();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        uploadExecutor.shutdown();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearObjects() {
+        s3Client.clear();
+    }
+
+    private S3MultipartDAO multipartDAO(LocalAmazonS3 s3Client, List<String> imageTrashCan) {
+        S3MultipartDAO multipartDAO = new S3MultipartDAO();
+        ReflectionTestUtils.setField(multipartDAO, "s3Client", s3Client);
+        ReflectionTestUtils.setField(multipartDAO, "uploadExecutor", uploadExecutor);
+        ReflectionTestUtils.setField(multipartDAO, "imageTrashCan", imageTrashCan);
+        ReflectionTestUtils.setField(multipartDAO, "s3BucketName", BUCKET_NAME);
+        return multipartDAO;
+    }
+
+    private void verifyOrder() {
+        List<String> urls = multipartDAO.upload(files);
+
+        for (int i = 0; i < imageCount; i++) {
+            if (!urls.get(i).endsWith(files[i].getOriginalFilename())) {
+                throw new IllegalStateException("Upload result order differs from argument order : " + urls);
+            }
+        }
+        s3Client.clear();
+    }
+
+    /**
+     * 마지막 이미지의 업로드가 실패할 경우 먼저 업로드된 이미지와 진행 중이던 이미지가 모두 삭제되어야 한다.
+     */
+    private void verifyCleanUp() throws InterruptedException {
+        LocalAmazonS3 failingS3Client = new LocalAmazonS3(latencyMillis, imageCount - 1);
+        List<String> imageTrashCan = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            multipartDAO(failingS3Client, imageTrashCan).upload(files);
+            throw new IllegalStateException("Upload expected to fail.");
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalStateException) {
+                throw e;
+            }
+        }
+
+        // 실패 시점에 진행 중이던 업로드는 끝난 후 스스로 삭제한다.
+        TimeUnit.MILLISECONDS.sleep(latencyMillis * 3);
+
+        if (failingS3Client.size() != 0 || !imageTrashCan.isEmpty()) {
+            throw new IllegalStateException(failingS3Client.size() + " images left after failed upload.");
+        }
+    }
+
+    @Benchmark
+    public List<String> sequential() throws IOException {
+        List<String> uploaded = new ArrayList<>(files.length);
+
+        for (MultipartFile file : files) {
+            ObjectMetadata metaData = new ObjectMetadata();
+            metaData.setContentLength(file.getSize());
+            metaData.setContentType(file.getContentType());
+
+            String uploadedFilename = System.nanoTime() + "_" + file.getOriginalFilename();
+
+            try (InputStream ins = file.getInputStream()) {
+                PutObjectRequest putObjectRequest = new PutObjectRequest(BUCKET_NAME, uploadedFilename, ins, metaData);
+                putObjectRequest.setCannedAcl(CannedAccessControlList.PublicRead);
+
+                s3Client.putObject(putObjectRequest);
+            }
+            uploaded.add(s3Client.getUrl(BUCKET_NAME, uploadedFilename).toString());
+        }
+        return uploaded;
+    }
+
+    @Benchmark
+    public List<String> parallel() {
+        return multipartDAO.upload(files);
+    }
+}
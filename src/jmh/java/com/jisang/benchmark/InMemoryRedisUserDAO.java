@@ -0,0 +1,59 @@
+package com.jisang.benchmark;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.authentication.InsufficientAuthenticationException;
+
+import com.jisang.security.domain.TokenComponent;
+import com.jisang.security.persistence.RedisUserDAO;
+
+/**
+ *
+ * redis 대신 메모리 상의 맵에 토큰 정보를 저장하는 {@link RedisUserDAO}이다. 네트워크 비용 없이 필터와 인증 처리 자체의 비용만
+ * 측정하기 위해 사용된다. {@link RedisUserDAO}의 필드 주입이 수행되지 않도록 빈 정의가 아닌 singleton으로 직접 등록된다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class InMemoryRedisUserDAO extends RedisUserDAO {
+
+    private final Map<Integer, TokenComponent> tokens = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(TokenComponent tokenComponent) {
+        tokens.put(tokenComponent.getId(), tokenComponent);
+    }
+
+    @Override
+    public void updateAll(Collection<TokenComponent> tokenComponents) {
+        tokenComponents.forEach(this::update);
+    }
+
+    @Override
+    public TokenComponent find(int uid) {
+        TokenComponent tokenComponent = tokens.get(uid);
+
+        if (tokenComponent == null) {
+            throw new InsufficientAuthenticationException("token info doesn't exist.");
+        }
+        return tokenComponent;
+    }
+
+    @Override
+    public TokenComponent reload(int uid) {
+        return find(uid);
+    }
+
+    @Override
+    public int expireLegacyRecords(int batchSize) {
+        return 0;
+    }
+
+    @Override
+    public void delete(int uid) {
+        tokens.remove(uid);
+    }
+}
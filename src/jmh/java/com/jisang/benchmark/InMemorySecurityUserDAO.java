@@ -0,0 +1,40 @@
+package com.jisang.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jisang.security.domain.Account;
+import com.jisang.security.persistence.SecurityUserDAO;
+
+/**
+ *
+ * 데이터베이스 대신 메모리 상의 맵에 계정 정보를 저장하는 {@link SecurityUserDAO}이다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class InMemorySecurityUserDAO implements SecurityUserDAO {
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<String, String> phoneNumbers = new ConcurrentHashMap<>();
+
+    public void add(String email, Account account, String phoneNumber) {
+        accounts.put(email, account);
+        phoneNumbers.put(email, phoneNumber);
+    }
+
+    @Override
+    public Account find(String email) {
+        return accounts.get(email);
+    }
+
+    @Override
+    public void update(Account account) {
+    }
+
+    @Override
+    public String findPhoneNumber(String email) {
+        return phoneNumbers.get(email);
+    }
+}
@@ -0,0 +1,186 @@
+package com.jisang.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.Validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+
+import com.jisang.security.domain.Account;
+import com.jisang.security.domain.TokenComponent;
+import com.jisang.security.dto.AuthenticationNumberTokenDTO;
+import com.jisang.security.dto.TokenDTO;
+import com.jisang.security.dto.UserAuthTokenDTO;
+import com.jisang.security.service.AbstractJWTService;
+import com.jisang.security.service.AuthenticationNumberJWTService;
+import com.jisang.security.service.UserAuthJWTService;
+import com.jisang.security.validation.SecurityValidationDelegator;
+
+/**
+ *
+ * JWT token 파싱 비용을 비교한다.
+ *
+ * <ul>
+ * <li>{@code legacy} : 이전 구현과 같이 요청마다 {@code secretKey} 문자열로 {@link io.jsonwebtoken.JwtParser}를
+ * 생성하여 파싱한다.</li>
+ * <li>{@code uncached} : 미리 만든 서명 key를 사용하지만 캐시는 사용하지 않는다({@code jwt.verified-cache.max-size=0}).</li>
+ * <li>{@code cached} : 같은 토큰이 반복해서 전달되는 경우로 검증 완료 claims 캐시를 사용한다.</li>
+ * </ul>
+ *
+ * 인증 번호 토큰은 요청 별 요구 사항(클라이언트 IP, 인증 번호)을 캐시 hit 시에도 확인하는 비용을 포함한다.
+ *
+ * {@code forgedToken*}, {@code garbageToken*}은 서명이 변조된 토큰과 JWT 형식이 아닌 토큰을 거부하는 비용을 비교한다.
+ * {@code Rejected}는 사전 검사와 최근 거부된 토큰 캐시에 의해 파싱 없이 거부되는 경우이다.
+ *
+ * 실행 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=JWTParsingBenchmark}
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTParsingBenchmark {
+
+    private static final String SECRET_KEY = "amlzYW5nLWJlbmNobWFyay1zZWNyZXQta2V5LWZvci1obWFjLXNoYTI1Ng==";
+    private static final String ALGORITHM = "HS256";
+    private static final String GARBAGE_TOKEN = "not-a-jwt-token";
+
+    private UserAuthJWTService cachingUserAuthService;
+    private UserAuthJWTService uncachedUserAuthService;
+    private AuthenticationNumberJWTService cachingAuthNumberService;
+    private AuthenticationNumberJWTService uncachedAuthNumberService;
+
+    private String userAuthToken;
+    private String forgedToken;
+    private AuthenticationNumberTokenDTO authNumberTokenDTO;
+
+    @Setup
+    public void setup() {
+        cachingUserAuthService = init(new UserAuthJWTService(), 10000);
+        uncachedUserAuthService = init(new UserAuthJWTService(), 0);
+        cachingAuthNumberService = init(new AuthenticationNumberJWTService(), 10000);
+        uncachedAuthNumberService = init(new AuthenticationNumberJWTService(), 0);
+
+        Account account = new Account();
+        account.setId(1);
+        account.setRole("ROLE_USER");
+
+        userAuthToken = cachingUserAuthService.buildToken(
+                new UserAuthTokenDTO(account, new TokenComponent(1, UUID.randomUUID().toString())));
+
+        // 서명 부분의 문자 하나를 바꾼다. 마지막 문자는 패딩 비트만 바뀔 수 있으므로 중간의 문자를 바꾼다.
+        int index = userAuthToken.lastIndexOf('.') + 5;
+        char replaced = userAuthToken.charAt(index) == 'A' ? 'B' : 'A';
+        forgedToken = userAuthToken.substring(0, index) + replaced + userAuthToken.substring(index + 1);
+
+        authNumberTokenDTO = new AuthenticationNumberTokenDTO();
+        authNumberTokenDTO.setClientIPAddr("127.0.0.1");
+        authNumberTokenDTO.setAuthenticationNumber("123456");
+        authNumberTokenDTO.setUserEmail("user@jisang.com");
+        authNumberTokenDTO.setToken(cachingAuthNumberService.buildToken(authNumberTokenDTO));
+    }
+
+    private <T extends AbstractJWTService> T init(T service, long verifiedCacheMaxSize) {
+        SecurityValidationDelegator validator = new SecurityValidationDelegator();
+        ReflectionTestUtils.setField(validator, "validator",
+                                     Validation.buildDefaultValidatorFactory().getValidator());
+
+        ReflectionTestUtils.setField(service, "validator", validator);
+        ReflectionTestUtils.setField(service, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(service, "algorithm", ALGORITHM);
+        ReflectionTestUtils.setField(service, "compressionCodec", "DEFLATE");
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        ReflectionTestUtils.setField(service, "verifiedCacheTTLSeconds", 60L);
+        ReflectionTestUtils.setField(service, "maxTokenLength", 4096);
+        ReflectionTestUtils.setField(service, "rejectedCacheMaxSize", 10000L);
+        ReflectionTestUtils.setField(service, "rejectedCacheTTLSeconds", 60L);
+
+        if (service instanceof AuthenticationNumberJWTService) {
+            ReflectionTestUtils.setField(service, "authenticationNumberTTL", 3600L);
+        }
+
+        service.init();
+        return service;
+    }
+
+    @Benchmark
+    public Claims userAuthLegacy() {
+        return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(userAuthToken).getBody();
+    }
+
+    @Benchmark
+    public TokenDTO userAuthUncached() {
+        return uncachedUserAuthService.parseToken(userAuthToken);
+    }
+
+    @Benchmark
+    public TokenDTO userAuthCached() {
+        return cachingUserAuthService.parseToken(userAuthToken);
+    }
+
+    @Benchmark
+    public TokenDTO authenticationNumberUncached() {
+        return uncachedAuthNumberService.parseToken(authNumberTokenDTO);
+    }
+
+    @Benchmark
+    public TokenDTO authenticationNumberCached() {
+        return cachingAuthNumberService.parseToken(authNumberTokenDTO);
+    }
+
+    @Benchmark
+    public Object forgedTokenLegacy() {
+        try {
+            return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(forgedToken);
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object forgedTokenRejected() {
+        try {
+            return cachingUserAuthService.parseToken(forgedToken);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object garbageTokenLegacy() {
+        try {
+            return Jwts.parser().setSigningKey(SECRET_KEY).parseClaimsJws(GARBAGE_TOKEN);
+        } catch (JwtException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object garbageTokenRejected() {
+        try {
+            return cachingUserAuthService.parseToken(GARBAGE_TOKEN);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+}
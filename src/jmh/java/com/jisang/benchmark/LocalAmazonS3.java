@@ -0,0 +1,114 @@
+package com.jisang.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.util.StreamUtils;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+
+/**
+ *
+ * 메모리에 객체를 저장하는 S3 대체 구현이다. 요청마다 {@code latencyMillis} 만큼 지연하여 S3 왕복 시간을 흉내내며
+ * {@code failAfter}번째 업로드부터는 실패한다. {@link com.jisang.persistence.S3MultipartDAO}가 사용하는 연산만 구현한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class LocalAmazonS3 extends AbstractAmazonS3 {
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final AtomicInteger putCount = new AtomicInteger();
+
+    private final long latencyMillis;
+    private final int failAfter;
+
+    public LocalAmazonS3(long latencyMillis) {
+        this(latencyMillis, Integer.MAX_VALUE);
+    }
+
+    public LocalAmazonS3(long latencyMillis, int failAfter) {
+        this.latencyMillis = latencyMillis;
+        this.failAfter = failAfter;
+    }
+
+    @Override
+    public PutObjectResult putObject(PutObjectRequest putObjectRequest) {
+        byte[] content;
+
+        try (InputStream ins = putObjectRequest.getInputStream()) {
+            content = StreamUtils.copyToByteArray(ins);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        roundTrip();
+
+        if (putCount.incrementAndGet() > failAfter) {
+            throw new AmazonClientException("Simulated upload failure.");
+        }
+
+        objects.put(putObjectRequest.getKey(), content);
+        return new PutObjectResult();
+    }
+
+    @Override
+    public URL getUrl(String bucketName, String key) {
+        try {
+            return new URL("http://localhost/" + bucketName + "/" + key);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public void deleteObject(String bucketName, String key) {
+        roundTrip();
+        objects.remove(key);
+    }
+
+    @Override
+    public DeleteObjectsResult deleteObjects(DeleteObjectsRequest deleteObjectsRequest) {
+        roundTrip();
+        for (KeyVersion keyVersion : deleteObjectsRequest.getKeys()) {
+            objects.remove(keyVersion.getKey());
+        }
+        return new DeleteObjectsResult(Collections.emptyList());
+    }
+
+    public int size() {
+        return objects.size();
+    }
+
+    public void clear() {
+        objects.clear();
+        putCount.set(0);
+    }
+
+    private void roundTrip() {
+        if (latencyMillis <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted.", e);
+        }
+    }
+}
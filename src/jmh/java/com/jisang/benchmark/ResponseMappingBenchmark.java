@@ -0,0 +1,137 @@
+package com.jisang.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jisang.config.ModelMapperConfig;
+import com.jisang.domain.Comment;
+import com.jisang.domain.Market;
+import com.jisang.domain.Product;
+import com.jisang.domain.User;
+import com.jisang.dto.comment.CommentResponseDTO;
+import com.jisang.dto.product.ProductListViewDTO.ProductListViewEntity;
+import com.jisang.dto.product.ProductShoppingDetailedViewDTO;
+import com.jisang.support.ResponseDTOMapper;
+
+/**
+ *
+ * {@link ModelMapper}와 {@link ResponseDTOMapper}의 응답 DTO 변환 비용을 비교한다. {@link ModelMapper}는
+ * {@link ModelMapperConfig}와 같은 설정으로 생성하며 타입 맵이 이미 만들어진 이후(warmup 이후)의 비용만 측정된다.
+ *
+ * 실행 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=ResponseMappingBenchmark}
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({ "1", "20" })
+    private int listSize;
+
+    private ModelMapper modelMapper;
+
+    private List<Product> products;
+    private Product detailedProduct;
+    private Market market;
+    private Comment comment;
+    private User user;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+
+        products = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Product product = new Product();
+            product.setId(i);
+            product.setMarketId(1);
+            product.setCategory("31");
+            product.setName("product-" + i);
+            product.setPrice("29000");
+            product.setRepresentingImageUrl("https://images.jisang.com/product-" + i + ".jpg");
+            product.setUploadTime(LocalDateTime.now());
+            products.add(product);
+        }
+
+        detailedProduct = products.get(0);
+        detailedProduct.setDetail("detail");
+        detailedProduct.setImageUrls(Arrays.asList("https://images.jisang.com/1.jpg",
+                                                   "https://images.jisang.com/2.jpg"));
+
+        market = new Market();
+        market.setId(1);
+        market.setName("market");
+        market.setLocation("11");
+
+        comment = new Comment();
+        comment.setId(1);
+        comment.setUserId(1);
+        comment.setContent("comment");
+        comment.setUploadTime(LocalDateTime.now());
+
+        user = new User();
+        user.setId(1);
+        user.setName("user");
+    }
+
+    @Benchmark
+    public List<ProductListViewEntity> productListModelMapper() {
+        return products.stream()
+                       .map(product -> modelMapper.map(product, ProductListViewEntity.class))
+                       .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ProductListViewEntity> productListResponseDTOMapper() {
+        return ResponseDTOMapper.toListViewEntities(products);
+    }
+
+    @Benchmark
+    public ProductShoppingDetailedViewDTO productDetailModelMapper() {
+        ProductShoppingDetailedViewDTO productDTO = modelMapper.map(detailedProduct,
+                                                                    ProductShoppingDetailedViewDTO.class);
+        modelMapper.map(market, productDTO);
+        return productDTO;
+    }
+
+    @Benchmark
+    public ProductShoppingDetailedViewDTO productDetailResponseDTOMapper() {
+        return ResponseDTOMapper.toShoppingDetailedView(detailedProduct, market);
+    }
+
+    @Benchmark
+    public CommentResponseDTO commentModelMapper() {
+        CommentResponseDTO commentDTO = modelMapper.map(comment, CommentResponseDTO.class);
+        modelMapper.map(user, commentDTO);
+        return commentDTO;
+    }
+
+    @Benchmark
+    public CommentResponseDTO commentResponseDTOMapper() {
+        return ResponseDTOMapper.toCommentResponse(comment, user);
+    }
+}
@@ -0,0 +1,271 @@
+package com.jisang.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.format.Formatter;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import com.jisang.security.aop.AspectPerAction;
+import com.jisang.security.aop.AspectPerMethod;
+import com.jisang.security.authentication.AuthenticationNumberAuthenticationFilter;
+import com.jisang.security.authentication.AuthenticationNumberEntryPointFilter;
+import com.jisang.security.authentication.JWTLoginAuthenticationFilter;
+import com.jisang.security.authentication.JWTTokenAuthenticationFilter;
+import com.jisang.security.authentication.TemporaryPasswordAuthenticationFilter;
+import com.jisang.security.authentication.handler.RestAuthenticationFailureHandler;
+import com.jisang.security.authentication.provider.JWTLoginAuthenticationProvider;
+import com.jisang.security.authentication.provider.JWTTokenAuthenticationProvider;
+import com.jisang.security.authentication.provider.PhoneNumberAuthenticationProvider;
+import com.jisang.security.core.userdetails.DefaultUserDetailsService;
+import com.jisang.security.exception.handler.AccountStatusExceptionHandler;
+import com.jisang.security.exception.handler.AuthenticationExceptionHandler;
+import com.jisang.security.exception.handler.AuthenticationServiceExceptionHandler;
+import com.jisang.security.exception.handler.BadRequestExceptionHandler;
+import com.jisang.security.exception.handler.ThrottledRequestExceptionHandler;
+import com.jisang.security.persistence.AsyncTokenStoreWriter;
+import com.jisang.security.service.AnonymousUserAuthJWTService;
+import com.jisang.security.service.AuthenticationNumberJWTService;
+import com.jisang.security.service.JWTService;
+import com.jisang.security.service.JWTServiceResolver;
+import com.jisang.security.service.UserAuthJWTService;
+import com.jisang.security.support.JTIRotationPolicy;
+import com.jisang.security.support.LocalStubSMSNotificationProvider;
+import com.jisang.security.support.LoginFailureLimiter;
+import com.jisang.security.support.PasswordVerificationExecutor;
+import com.jisang.security.validation.SecurityValidationDelegator;
+import com.jisang.support.conversion.KoreaPhoneNumberFormatProvider;
+import com.jisang.support.conversion.PhoneNumberFormatter;
+
+/**
+ *
+ * {@link SecurityFilterChainBenchmark}에서 사용하는 security 설정이다. 필터, {@link AuthenticationProvider},
+ * {@link JWTService} 구성은 {@link com.jisang.config.SecurityConfig}와 같으며 {@link com.jisang.security.persistence.RedisUserDAO}와
+ * {@link com.jisang.security.persistence.SecurityUserDAO}는 {@link InMemoryRedisUserDAO},
+ * {@link InMemorySecurityUserDAO}로 대체되어 {@link SecurityFilterChainBenchmark}가 직접 등록한다.
+ *
+ * security 패키지의 애스팩트({@link AspectPerAction}, {@link AspectPerMethod})는 예외 변환을 담당하므로 운영 환경과 같이
+ * 적용된다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class SecurityBenchmarkConfig {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    static final String LOGIN_END_POINT = "/login";
+    static final String AUTHENTICATION_NUMBER_END_POINT = "/authentication-number";
+    static final String TEMPORARY_PASSWORD_END_POINT = "/temporary-password";
+    static final String TOKEN_AUTH_ANT_PATTERN = "/auth/**";
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    @Value("${benchmark.bcrypt-strength}")
+    private int bcryptStrength;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Bean
+    public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+        return new PropertySourcesPlaceholderConfigurer();
+    }
+
+    @Bean
+    public MessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.displayName());
+        return messageSource;
+    }
+
+    @Bean
+    public LocalValidatorFactoryBean validatorFactory() {
+        return new LocalValidatorFactoryBean();
+    }
+
+    @Bean
+    public SecurityValidationDelegator securityValidationDelegator() {
+        return new SecurityValidationDelegator();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    @Bean
+    public Formatter<String> phoneNumberFormatter() {
+        return new PhoneNumberFormatter(Arrays.asList(new KoreaPhoneNumberFormatProvider()));
+    }
+
+    @Bean
+    public PasswordVerificationExecutor passwordVerificationExecutor() {
+        return new PasswordVerificationExecutor();
+    }
+
+    @Bean
+    public LoginFailureLimiter loginFailureLimiter() {
+        return new LoginFailureLimiter();
+    }
+
+    @Bean
+    public JTIRotationPolicy jtiRotationPolicy() {
+        return new JTIRotationPolicy();
+    }
+
+    @Bean
+    public AsyncTokenStoreWriter asyncTokenStoreWriter() {
+        return new AsyncTokenStoreWriter();
+    }
+
+    @Bean
+    public LocalStubSMSNotificationProvider localStubSMSNotificationProvider() {
+        return new LocalStubSMSNotificationProvider();
+    }
+
+    @Bean(name = "default")
+    public DefaultUserDetailsService defaultUserDetailsService() {
+        return new DefaultUserDetailsService();
+    }
+
+    @Bean
+    public AuthenticationProvider loginProvider() {
+        return new JWTLoginAuthenticationProvider();
+    }
+
+    @Bean
+    public AuthenticationProvider phoneNumberProvider() {
+        return new PhoneNumberAuthenticationProvider();
+    }
+
+    @Bean
+    public AuthenticationProvider tokenProvider() {
+        return new JWTTokenAuthenticationProvider();
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager() {
+        return new ProviderManager(Arrays.asList(loginProvider(), phoneNumberProvider(), tokenProvider()));
+    }
+
+    @Bean
+    public JWTService userAuthJWTService() {
+        return new UserAuthJWTService();
+    }
+
+    @Bean
+    public JWTService authenticationNumberJWTService() {
+        return new AuthenticationNumberJWTService();
+    }
+
+    @Bean
+    public JWTService anonymousUserAuthJWTService() {
+        return new AnonymousUserAuthJWTService();
+    }
+
+    @Bean
+    public JWTServiceResolver jwtServiceResolver() {
+        List<JWTService> jwtServices = new ArrayList<>();
+        jwtServices.add(userAuthJWTService());
+        jwtServices.add(authenticationNumberJWTService());
+        jwtServices.add(anonymousUserAuthJWTService());
+
+        return new JWTServiceResolver(jwtServices);
+    }
+
+    @Bean
+    public AuthenticationFailureHandler restAuthenticationFailureHandler() {
+        RestAuthenticationFailureHandler failureHandler = new RestAuthenticationFailureHandler();
+        failureHandler.addExceptionHandler(new AuthenticationExceptionHandler(messageSource()));
+        failureHandler.addExceptionHandler(new AuthenticationServiceExceptionHandler(messageSource()));
+        failureHandler.addExceptionHandler(new AccountStatusExceptionHandler(messageSource()));
+        failureHandler.addExceptionHandler(new BadRequestExceptionHandler(messageSource()));
+        failureHandler.addExceptionHandler(new ThrottledRequestExceptionHandler(messageSource()));
+
+        return failureHandler;
+    }
+
+    @Bean
+    public AuthenticationNumberEntryPointFilter authenticationEntryPointFilter() {
+        AuthenticationNumberEntryPointFilter filter = new AuthenticationNumberEntryPointFilter(
+                new AntPathRequestMatcher(AUTHENTICATION_NUMBER_END_POINT, HttpMethod.GET.toString()));
+
+        filter.setAuthenticationManager(authenticationManager());
+        filter.setAuthenticationFailureHandler(restAuthenticationFailureHandler());
+        return filter;
+    }
+
+    @Bean
+    public AuthenticationNumberAuthenticationFilter authenticationNumberAuthenticationFilter() {
+        AuthenticationNumberAuthenticationFilter filter = new AuthenticationNumberAuthenticationFilter(
+                new AntPathRequestMatcher(AUTHENTICATION_NUMBER_END_POINT, HttpMethod.POST.toString()));
+
+        filter.setAuthenticationManager(authenticationManager());
+        filter.setAuthenticationFailureHandler(restAuthenticationFailureHandler());
+        return filter;
+    }
+
+    @Bean
+    public TemporaryPasswordAuthenticationFilter temporaryPasswordAuthenticationFilter() {
+        TemporaryPasswordAuthenticationFilter filter = new TemporaryPasswordAuthenticationFilter(
+                new AntPathRequestMatcher(TEMPORARY_PASSWORD_END_POINT, HttpMethod.PATCH.toString()));
+
+        filter.setAuthenticationManager(authenticationManager());
+        filter.setAuthenticationFailureHandler(restAuthenticationFailureHandler());
+        return filter;
+    }
+
+    @Bean
+    public JWTLoginAuthenticationFilter loginAuthenticationFilter() {
+        JWTLoginAuthenticationFilter filter = new JWTLoginAuthenticationFilter(
+                new AntPathRequestMatcher(LOGIN_END_POINT, HttpMethod.POST.toString()));
+
+        filter.setAuthenticationManager(authenticationManager());
+        filter.setAuthenticationFailureHandler(restAuthenticationFailureHandler());
+        return filter;
+    }
+
+    @Bean
+    public JWTTokenAuthenticationFilter tokenAuthenticationFilter() {
+        JWTTokenAuthenticationFilter filter = new JWTTokenAuthenticationFilter(
+                new AntPathRequestMatcher(TOKEN_AUTH_ANT_PATTERN));
+
+        filter.setAuthenticationManager(authenticationManager());
+        filter.setAuthenticationFailureHandler(restAuthenticationFailureHandler());
+        return filter;
+    }
+
+    @Bean
+    public AspectPerAction aspectPerAction() {
+        return new AspectPerAction();
+    }
+
+    @Bean
+    public AspectPerMethod aspectPerMethod() {
+        return new AspectPerMethod();
+    }
+}
@@ -0,0 +1,419 @@
+package com.jisang.benchmark;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.Advised;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.format.Formatter;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.jisang.security.authentication.AuthenticationNumberAuthenticationFilter;
+import com.jisang.security.authentication.AuthenticationNumberEntryPointFilter;
+import com.jisang.security.authentication.JWTLoginAuthenticationFilter;
+import com.jisang.security.authentication.JWTTokenAuthenticationFilter;
+import com.jisang.security.authentication.TemporaryPasswordAuthenticationFilter;
+import com.jisang.security.domain.Account;
+import com.jisang.security.domain.TokenComponent;
+import com.jisang.security.dto.AnonymousUserAuthTokenDTO;
+import com.jisang.security.dto.AuthenticationNumberTokenDTO;
+import com.jisang.security.dto.TokenDTO;
+import com.jisang.security.dto.UserAuthTokenDTO;
+import com.jisang.security.service.JWTService;
+import com.jisang.security.service.JWTServiceResolver;
+import com.jisang.security.validation.JWTBasedUserAuthentication;
+import com.jisang.security.validation.SecurityValidationDelegator;
+
+/**
+ *
+ * security 필터 체인의 요청 별 비용을 단계 별로 측정한다. {@link SecurityBenchmarkConfig}로 실제 필터, 인증 provider,
+ * {@link JWTService} 구성을 만들고 redis와 데이터베이스 접근은 메모리 상의 DAO({@link InMemoryRedisUserDAO},
+ * {@link InMemorySecurityUserDAO})로 대체한다.
+ *
+ * <ul>
+ * <li>{@code resolveJWTService}, {@code validate}, {@code buildUserAuthToken}, {@code parseUserAuthToken} : 필터가
+ * 사용하는 구성 요소 각각의 비용.</li>
+ * <li>{@code *Unadvised} : 프록시를 거치지 않고 {@link JWTService} 구현을 직접 호출한 비용. advised 결과와의 차이가
+ * {@link com.jisang.security.aop.AspectPerAction}, {@link com.jisang.security.aop.AspectPerMethod} advice의 비용이다.</li>
+ * <li>{@code *Filter} : 각 필터의 {@code doFilter} 전체 비용. 요청/응답 mock 객체 생성 비용이 포함된다.</li>
+ * <li>{@code tokenFilterRejected} : 변조된 토큰이 거부되고 실패 응답이 작성되는 비용.</li>
+ * <li>{@code unmatchedRequest} : 인증이 필요 없는 요청이 다섯 필터를 모두 통과하는 비용.</li>
+ * </ul>
+ *
+ * 로그 출력 비용을 포함하려면 {@code -p logLevel=INFO}로 실행한다. 로그인 필터는 BCrypt 비용이 대부분을 차지하므로 기본적으로
+ * strength 4로 측정하며 운영 환경과 같은 비용은 {@code -p bcryptStrength=10}으로 측정한다.
+ *
+ * 실행 : {@code mvn -P benchmark test-compile exec:exec -Dbenchmark.include=SecurityFilterChainBenchmark}
+ *
+ * 할당량은 gc profiler의 {@code gc.alloc.rate.norm}(op 당 할당 바이트)으로 확인하며 실행 결과를 비교하는 방법은
+ * {@link BenchmarkComparison}에 설명하였다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final String CLIENT_IP = "127.0.0.1";
+    private static final String TOKEN_USER_EMAIL = "token-user@jisang.com";
+    private static final String LOGIN_USER_EMAIL = "login-user@jisang.com";
+    private static final String LOGIN_PASSWORD = "benchmark-password";
+    private static final String PHONE_NUMBER = "010-1234-5678";
+    private static final String AUTHENTICATION_NUMBER = "1234";
+
+    private static final FilterChain TERMINAL_CHAIN = (request, response) -> {
+    };
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    @Param({ "WARN" })
+    private String logLevel;
+    @Param({ "4" })
+    private int bcryptStrength;
+
+    private AnnotationConfigApplicationContext context;
+
+    private JWTServiceResolver jwtServiceResolver;
+    private SecurityValidationDelegator validator;
+    private JWTService userAuthJWTService;
+    private JWTService unadvisedUserAuthJWTService;
+
+    private JWTTokenAuthenticationFilter tokenFilter;
+    private JWTLoginAuthenticationFilter loginFilter;
+    private AuthenticationNumberEntryPointFilter entryPointFilter;
+    private AuthenticationNumberAuthenticationFilter authNumberFilter;
+    private TemporaryPasswordAuthenticationFilter temporaryPasswordFilter;
+    private Filter[] filterChain;
+
+    private UserAuthTokenDTO userAuthTokenDTO;
+    private String userAuthToken;
+    private String forgedUserAuthToken;
+    private String authNumberToken;
+    private String anonymousToken;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Setup
+    public void setup() throws Exception {
+        LogManager.getRootLogger().setLevel(Level.toLevel(logLevel));
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties()));
+        context.register(SecurityBenchmarkConfig.class);
+
+        InMemoryRedisUserDAO redisUserDAO = new InMemoryRedisUserDAO();
+        InMemorySecurityUserDAO securityUserDAO = new InMemorySecurityUserDAO();
+
+        // 빈 정의가 아닌 singleton으로 등록하여 RedisUserDAO의 필드 주입과 프록시 생성을 피한다.
+        context.getBeanFactory().registerSingleton("redisUserDAO", redisUserDAO);
+        context.getBeanFactory().registerSingleton("securityUserDAO", securityUserDAO);
+        context.refresh();
+
+        jwtServiceResolver = context.getBean(JWTServiceResolver.class);
+        validator = context.getBean(SecurityValidationDelegator.class);
+        userAuthJWTService = jwtServiceResolver.resolveJWTService(UserAuthTokenDTO.class);
+        unadvisedUserAuthJWTService = (JWTService) ((Advised) userAuthJWTService).getTargetSource().getTarget();
+
+        tokenFilter = context.getBean(JWTTokenAuthenticationFilter.class);
+        loginFilter = context.getBean(JWTLoginAuthenticationFilter.class);
+        entryPointFilter = context.getBean(AuthenticationNumberEntryPointFilter.class);
+        authNumberFilter = context.getBean(AuthenticationNumberAuthenticationFilter.class);
+        temporaryPasswordFilter = context.getBean(TemporaryPasswordAuthenticationFilter.class);
+        filterChain = new Filter[] { entryPointFilter, authNumberFilter, temporaryPasswordFilter, loginFilter,
+                tokenFilter };
+
+        setupAccounts(redisUserDAO, securityUserDAO);
+        setupTokens();
+        verifyScenarios();
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    private Map<String, Object> properties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("benchmark.bcrypt-strength", bcryptStrength);
+        properties.put("jwt.signature.algorithm", "HS256");
+        properties.put("jwt.signature.compressioncodec", "DEFLATE");
+        properties.put("jwt.signature.secretkey", "amlzYW5nLWJlbmNobWFyay1zZWNyZXQta2V5LWZvci1obWFjLXNoYTI1Ng==");
+        properties.put("jwt.token.authenticated-token.ttl", 3600);
+        properties.put("jwt.token.authentication-number.ttl", 3600);
+        // 측정 도중 JTI가 교체되어 이전 토큰이 거부되지 않도록 한다.
+        properties.put("security.jti-rotation.interval-seconds", Integer.MAX_VALUE);
+        properties.put("security.jti-rotation.max-requests", Integer.MAX_VALUE);
+        return properties;
+    }
+
+    private void setupAccounts(InMemoryRedisUserDAO redisUserDAO, InMemorySecurityUserDAO securityUserDAO)
+            throws Exception {
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        @SuppressWarnings("unchecked")
+        Formatter<String> phoneNumberFormatter = context.getBean("phoneNumberFormatter", Formatter.class);
+        String storedPhoneNumber = phoneNumberFormatter.parse(PHONE_NUMBER, Locale.KOREA);
+
+        Account tokenUser = account(1, passwordEncoder.encode(LOGIN_PASSWORD));
+        Account loginUser = account(2, passwordEncoder.encode(LOGIN_PASSWORD));
+
+        securityUserDAO.add(TOKEN_USER_EMAIL, tokenUser, storedPhoneNumber);
+        securityUserDAO.add(LOGIN_USER_EMAIL, loginUser, storedPhoneNumber);
+
+        TokenComponent tokenComponent = new TokenComponent(tokenUser.getId(),
+                UUID.randomUUID().toString().replace("-", ""), null, System.currentTimeMillis());
+        redisUserDAO.update(tokenComponent);
+
+        Account tokenAccount = account(tokenUser.getId(), null);
+        userAuthTokenDTO = new UserAuthTokenDTO(tokenAccount, tokenComponent);
+    }
+
+    private Account account(int id, String password) {
+        Account account = new Account();
+        account.setId(id);
+        account.setRole("ROLE_USER");
+        account.setPassword(password);
+        return account;
+    }
+
+    private void setupTokens() {
+        userAuthToken = userAuthJWTService.buildToken(userAuthTokenDTO);
+        userAuthTokenDTO.setToken(userAuthToken);
+
+        // 서명 부분의 문자 하나를 바꾼다. 마지막 문자는 패딩 비트만 바뀔 수 있으므로 중간의 문자를 바꾼다.
+        int index = userAuthToken.lastIndexOf('.') + 5;
+        char replaced = userAuthToken.charAt(index) == 'A' ? 'B' : 'A';
+        forgedUserAuthToken = userAuthToken.substring(0, index) + replaced + userAuthToken.substring(index + 1);
+
+        AuthenticationNumberTokenDTO authNumberTokenDTO = new AuthenticationNumberTokenDTO();
+        authNumberTokenDTO.setAuthenticationNumber(AUTHENTICATION_NUMBER);
+        authNumberTokenDTO.setClientIPAddr(CLIENT_IP);
+        authNumberTokenDTO.setUserEmail(TOKEN_USER_EMAIL);
+        authNumberToken = jwtServiceResolver.resolveJWTService(AuthenticationNumberTokenDTO.class)
+                                            .buildToken(authNumberTokenDTO);
+
+        AnonymousUserAuthTokenDTO anonymousTokenDTO = new AnonymousUserAuthTokenDTO();
+        anonymousTokenDTO.setClientIPAddr(CLIENT_IP);
+        anonymousTokenDTO.setUserEmail(TOKEN_USER_EMAIL);
+        anonymousToken = jwtServiceResolver.resolveJWTService(AnonymousUserAuthTokenDTO.class)
+                                           .buildToken(anonymousTokenDTO);
+    }
+
+    /**
+     * 각 시나리오가 의도한 경로(성공 또는 거부)로 처리되는지 확인한다. 설정 오류로 모든 요청이 실패 응답만 측정되는 일을 막는다.
+     */
+    private void verifyScenarios() throws Exception {
+        expectStatus("tokenFilter", tokenFilter(), 200);
+        expectStatus("loginFilter", loginFilter(), 201);
+        expectStatus("authenticationNumberEntryPointFilter", authenticationNumberEntryPointFilter(), 200);
+        expectStatus("authenticationNumberFilter", authenticationNumberFilter(), 200);
+        expectStatus("temporaryPasswordFilter", temporaryPasswordFilter(), 200);
+        expectStatus("unmatchedRequest", unmatchedRequest(), 200);
+
+        if (tokenFilterRejected().getStatus() != 401) {
+            throw new IllegalStateException("Forged token was not rejected with 401.");
+        }
+    }
+
+    private void expectStatus(String scenario, MockHttpServletResponse response, int status) {
+        if (response.getStatus() != status) {
+            throw new IllegalStateException(scenario + " responded " + response.getStatus() + " but expected "
+                    + status + ". body : " + response.getContentAsByteArray().length + " bytes");
+        }
+    }
+
+    private static MockHttpServletRequest request(HttpMethod method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method.toString(), path);
+        request.setServletPath(path);
+        request.setRemoteAddr(CLIENT_IP);
+        request.addPreferredLocale(Locale.KOREA);
+        return request;
+    }
+
+    private static MockHttpServletResponse doFilter(Filter filter, MockHttpServletRequest request)
+            throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            filter.doFilter(request, response, TERMINAL_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    @Benchmark
+    public JWTService resolveJWTService() {
+        return jwtServiceResolver.resolveJWTService(UserAuthTokenDTO.class);
+    }
+
+    @Benchmark
+    public UserAuthTokenDTO validate() {
+        validator.validate(userAuthTokenDTO, JWTBasedUserAuthentication.class);
+        return userAuthTokenDTO;
+    }
+
+    @Benchmark
+    public String buildUserAuthToken() {
+        return userAuthJWTService.buildToken(userAuthTokenDTO);
+    }
+
+    @Benchmark
+    public String buildUserAuthTokenUnadvised() {
+        return unadvisedUserAuthJWTService.buildToken(userAuthTokenDTO);
+    }
+
+    @Benchmark
+    public TokenDTO parseUserAuthToken() {
+        return userAuthJWTService.parseToken(userAuthToken);
+    }
+
+    @Benchmark
+    public TokenDTO parseUserAuthTokenUnadvised() {
+        return unadvisedUserAuthJWTService.parseToken(userAuthToken);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse tokenFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.GET, "/auth/market");
+        request.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + userAuthToken);
+
+        return doFilter(tokenFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse tokenFilterRejected() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.GET, "/auth/market");
+        request.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + forgedUserAuthToken);
+
+        return doFilter(tokenFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse loginFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.POST, SecurityBenchmarkConfig.LOGIN_END_POINT);
+        request.addParameter("email", LOGIN_USER_EMAIL);
+        request.addParameter("password", LOGIN_PASSWORD);
+
+        return doFilter(loginFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticationNumberEntryPointFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.GET,
+                SecurityBenchmarkConfig.AUTHENTICATION_NUMBER_END_POINT);
+        request.addParameter("email", TOKEN_USER_EMAIL);
+        request.addParameter("destination", PHONE_NUMBER);
+
+        return doFilter(entryPointFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticationNumberFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.POST,
+                SecurityBenchmarkConfig.AUTHENTICATION_NUMBER_END_POINT);
+        request.addParameter("authentication-number", AUTHENTICATION_NUMBER);
+        request.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + authNumberToken);
+
+        return doFilter(authNumberFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse temporaryPasswordFilter() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.PATCH,
+                SecurityBenchmarkConfig.TEMPORARY_PASSWORD_END_POINT);
+        request.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + anonymousToken);
+
+        return doFilter(temporaryPasswordFilter, request);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse unmatchedRequest() throws IOException, ServletException {
+        MockHttpServletRequest request = request(HttpMethod.GET, "/products");
+
+        return doFilter(new PassThroughFilter(filterChain), request);
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    /**
+     * 전달 받은 필터를 {@link com.jisang.config.SecurityConfig}에 등록된 순서대로 수행한다.
+     */
+    private static class PassThroughFilter implements Filter {
+
+        private final Filter[] filters;
+
+        PassThroughFilter(Filter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain terminal)
+                throws IOException, ServletException {
+            new FilterChain() {
+
+                private int position;
+
+                @Override
+                public void doFilter(ServletRequest request, ServletResponse response)
+                        throws IOException, ServletException {
+                    if (position == filters.length) {
+                        terminal.doFilter(request, response);
+                        return;
+                    }
+                    filters[position++].doFilter(request, response, this);
+                }
+            }.doFilter(request, response);
+        }
+
+        @Override
+        public void init(FilterConfig filterConfig) {
+        }
+
+        @Override
+        public void destroy() {
+        }
+    }
+}
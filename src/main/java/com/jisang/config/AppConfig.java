@@ -23,14 +23,18 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.EnableMBeanExport;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.ImportResource;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.context.support.ResourceBundleMessageSource;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.format.Formatter;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jmx.support.RegistrationPolicy;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
@@ -45,7 +49,10 @@ import org.springframework.web.multipart.support.StandardServletMultipartResolve
 
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.regions.Regions;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.sns.AmazonSNS;
 import com.amazonaws.services.sns.AmazonSNSClientBuilder;
 import com.amazonaws.services.sns.model.SetSMSAttributesRequest;
@@ -68,6 +75,7 @@ import com.jisang.support.validation.LocaleBasedValidationGroups;
 @PropertySource("classpath:application.properties")
 @EnableRetry
 @EnableScheduling
+@EnableMBeanExport(registration = RegistrationPolicy.IGNORE_EXISTING)
 public class AppConfig {
 
     /*
@@ -164,6 +172,24 @@ public class AppConfig {
         return snsClient;
     }
 
+    /**
+     * 
+     * MinIO, localstack 등 S3 호환 스토리지를 이용해 로컬에서 이미지 업로드 슬롯과 상품 등록을 확인할 때 사용한다.
+     * {@code local-s3} 프로파일이 활성화되면 awsConfig.xml이 등록하는 {@link AmazonS3} 대신 이 빈이 주입된다. 업로드 슬롯의
+     * url이 {@code aws.s3.endpoint}를 가리키도록 path-style 접근을 사용한다.
+     * 
+     */
+    @Bean
+    @Primary
+    @Profile("local-s3")
+    public AmazonS3 localAmazonS3(@Value("${aws.s3.endpoint:http://localhost:9000}") String endpoint,
+            @Value("${aws.global.region}") String region) {
+        BasicAWSCredentials awsCreds = new BasicAWSCredentials(awsAccessKeyId, awsSecretAccessKey);
+
+        return AmazonS3ClientBuilder.standard().withEndpointConfiguration(new EndpointConfiguration(endpoint, region))
+                .withPathStyleAccessEnabled(true).withCredentials(new AWSStaticCredentialsProvider(awsCreds)).build();
+    }
+
     @Bean
     public MultipartResolver multipartResolver() {
         return new StandardServletMultipartResolver();
@@ -19,17 +19,10 @@ import org.springframework.data.redis.connection.RedisPassword;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.hash.Jackson2HashMapper;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import redis.clients.jedis.JedisPoolConfig;
 
-import org.springframework.data.redis.serializer.StringRedisSerializer;
-
-import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 @Configuration
 @EnableElasticsearchRepositories(basePackages = "com.jisang.persistence")
 public class DataSourceConfig {
@@ -115,40 +108,26 @@ public class DataSourceConfig {
 
     }
 
+    /**
+     * 토큰 정보 저장소({@code RedisUserDAO})가 사용하는 템플릿이다. 토큰 정보 연산은 모두 단일 명령 또는 파이프라인으로 수행되며
+     * 트랜잭션이 필요하지 않다. 트랜잭션 지원을 켜두면 스프링 트랜잭션 안에서 커넥션이 스레드에 묶이고 명령이 MULTI/EXEC로 감싸지므로
+     * 트랜잭션 지원을 사용하지 않는다.
+     */
     @Bean
-    public RedisTemplate<String, String> redisTemplate() {
-
-        RedisTemplate<String, String> template = new RedisTemplate<>();
-        template.setConnectionFactory(jedisConnectionFactory());
-        template.setEnableTransactionSupport(true);
-
-        template.setValueSerializer(stringRedisSerializer());
-        template.setKeySerializer(stringRedisSerializer());
-        template.setHashKeySerializer(stringRedisSerializer());
-        template.setHashValueSerializer(stringRedisSerializer());
-
-        return template;
-    }
-
-    @Bean
-    public StringRedisSerializer stringRedisSerializer() {
-        return new StringRedisSerializer();
-    }
-
-    @Bean
-    public StringRedisTemplate stringRedisTemplate() {
-        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(jedisConnectionFactory());
-        stringRedisTemplate.setEnableTransactionSupport(true);
-        return stringRedisTemplate;
+    public StringRedisTemplate tokenRedisTemplate() {
+        StringRedisTemplate tokenRedisTemplate = new StringRedisTemplate(jedisConnectionFactory());
+        tokenRedisTemplate.setEnableTransactionSupport(false);
+        return tokenRedisTemplate;
     }
 
+    /**
+     * redis pub/sub 메시지 수신에 사용된다. 구독할 채널과 리스너는 리스너를 구현한 빈이 직접 등록한다.
+     */
     @Bean
-    Jackson2HashMapper jackson2HashMapper() {
-        ObjectMapper objMapper = new ObjectMapper();
-        objMapper.disableDefaultTyping();
-        objMapper.setSerializationInclusion(Include.NON_NULL);
-        objMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        return new Jackson2HashMapper(objMapper, true);
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(jedisConnectionFactory());
+        return container;
     }
 
     // Elasticsearch config
@@ -36,6 +36,7 @@ import com.jisang.security.exception.handler.AccountStatusExceptionHandler;
 import com.jisang.security.exception.handler.AuthenticationExceptionHandler;
 import com.jisang.security.exception.handler.AuthenticationServiceExceptionHandler;
 import com.jisang.security.exception.handler.BadRequestExceptionHandler;
+import com.jisang.security.exception.handler.ThrottledRequestExceptionHandler;
 import com.jisang.security.persistence.SecurityMybatisMapper;
 import com.jisang.security.service.AnonymousUserAuthJWTService;
 import com.jisang.security.service.AuthenticationNumberJWTService;
@@ -208,6 +209,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         failureHandler.addExceptionHandler(new AuthenticationServiceExceptionHandler(messageSource));
         failureHandler.addExceptionHandler(new AccountStatusExceptionHandler(messageSource));
         failureHandler.addExceptionHandler(new BadRequestExceptionHandler(messageSource));
+        failureHandler.addExceptionHandler(new ThrottledRequestExceptionHandler(messageSource));
 
         return failureHandler;
     }
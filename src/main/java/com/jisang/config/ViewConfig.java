@@ -35,6 +35,9 @@ public class ViewConfig {
     private String thSuffix;
     @Value("${thymeleaf.template-order}")
     private int thymeleafOrder;
+    /** 로컬 개발 환경에서 템플릿 수정을 바로 확인하려면 false로 지정한다. */
+    @Value("${thymeleaf.cacheable:true}")
+    private boolean thCacheable;
 
     @Bean
     public ServletContextTemplateResolver templateResolver() {
@@ -44,7 +47,7 @@ public class ViewConfig {
         templateResolver.setSuffix(thSuffix);
         templateResolver.setTemplateMode(thTemplateMode);
         templateResolver.setCharacterEncoding(thCharEncoding);
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(thCacheable);
 
         return templateResolver;
     }
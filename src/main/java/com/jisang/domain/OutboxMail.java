@@ -0,0 +1,91 @@
+package com.jisang.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * 
+ * 메일 outbox({@link com.jisang.support.MailOutbox})에 저장된 전송 대기 메일을 나타낸다. 메일 본문은 저장하지 않으며
+ * {@code mailType}에 해당하는 {@link com.jisang.support.MailComposer}가 {@code payload}로부터 전송 시점에 본문을
+ * 구성한다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class OutboxMail {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENDING = "SENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private long id;
+    private String mailType;
+    private String recipient;
+    private String payload;
+    private String status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getMailType() {
+        return mailType;
+    }
+
+    public void setMailType(String mailType) {
+        this.mailType = mailType;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /** 임시 비밀번호 등이 담길 수 있으므로 {@code payload}는 출력하지 않는다. */
+    @Override
+    public String toString() {
+        return getClass().getName() + "[id=" + id + ", mailType=" + mailType + ", status=" + status + ", attempts="
+                + attempts + ", nextAttemptAt=" + nextAttemptAt + "]";
+    }
+}
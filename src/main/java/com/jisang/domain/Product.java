@@ -24,6 +24,13 @@ public class Product {
 
     private String representingImageUrl;
 
+    /**
+     * 대표 이미지로부터 {@link com.jisang.support.ImageDerivativePipeline}이 생성한 목록 화면용, 상세 화면용 이미지의
+     * url이다. 아직 생성되지 않았을 경우 null이며 이 때는 대표 이미지 원본이 사용된다.
+     */
+    private String listImageUrl;
+    private String detailImageUrl;
+
     /**
      * 
      * 지상 어플리케이션의 데이터 베이스에는 tbl_hashtags, tbl_images라는 테이블이 존재한다. 각각 상품의 해시태그 목록,
@@ -39,6 +46,12 @@ public class Product {
 
     private boolean recommended;
 
+    /**
+     * 베스트 상품 랭킹({@link com.jisang.support.ProductBestRanking}) 구성 시에만 채워지는 조회수 정보이다.
+     */
+    private long hitCurrent;
+    private long hitPast;
+
     public int getId() {
         return id;
     }
@@ -119,6 +132,22 @@ public class Product {
         this.representingImageUrl = repreentingImageUrl;
     }
 
+    public String getListImageUrl() {
+        return listImageUrl;
+    }
+
+    public void setListImageUrl(String listImageUrl) {
+        this.listImageUrl = listImageUrl;
+    }
+
+    public String getDetailImageUrl() {
+        return detailImageUrl;
+    }
+
+    public void setDetailImageUrl(String detailImageUrl) {
+        this.detailImageUrl = detailImageUrl;
+    }
+
     public boolean isRecommended() {
         return recommended;
     }
@@ -127,11 +156,28 @@ public class Product {
         this.recommended = recommended;
     }
 
+    public long getHitCurrent() {
+        return hitCurrent;
+    }
+
+    public void setHitCurrent(long hitCurrent) {
+        this.hitCurrent = hitCurrent;
+    }
+
+    public long getHitPast() {
+        return hitPast;
+    }
+
+    public void setHitPast(long hitPast) {
+        this.hitPast = hitPast;
+    }
+
     @Override
     public String toString() {
         return getClass().getName() + "[id= " + id + ", category=" + category + ", name=" + name + ", price=" + price
                                     + ", detail=" + detail + ", marketId=" + marketId + ", uploadTime=" + uploadTime
-                                    + ", representingImage=" + representingImageUrl + ", image=" + imageUrls 
+                                    + ", representingImage=" + representingImageUrl + ", listImage=" + listImageUrl
+                                    + ", detailImage=" + detailImageUrl + ", image=" + imageUrls 
                                     + ", hashTags=" + hashTags + ", recommended=" + recommended + "]";
     }
 
@@ -0,0 +1,122 @@
+package com.jisang.dto.product;
+
+import java.util.Date;
+import java.util.List;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * 
+ * 상품 이미지 업로드 슬롯 발급 요청/응답에 사용되는 DTO 클래스들이 내부적으로 정의되어 있다. 클라이언트는 슬롯의 url로 이미지를 직접
+ * 스토리지에 업로드한 후 슬롯의 key를 상품 등록 및 수정 요청에 포함시킨다.
+ * 
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class ImageUploadSlotDTO {
+
+    /**
+     * 
+     * 업로드 슬롯 발급 요청에 사용된다. 업로드할 이미지 파일 이름(확장자 확인 및 Content-Type 결정에 사용)을 전달 받는다.
+     * 
+     * 
+     * @author leeseunghyun
+     *
+     */
+    public static class ImageUploadSlotRequestDTO {
+
+        @ApiModelProperty(notes = "업로드할 이미지 파일 이름.", name = "filenames", required = true, value = "jpg | png | tif 등의 올바른 이미지 파일 확장자를 가져야 하며 한 번에 최대 10개까지 요청할 수 있다.")
+        @NotEmpty(message = "업로드할 이미지를 선택해 주세요.")
+        @Size(max = 10, message = "한 번에 최대 10개의 이미지만 업로드할 수 있습니다.")
+        private List<@NotBlank(message = "이미지 파일 이름이 올바르지 않습니다.") String> filenames;
+
+        public List<String> getFilenames() {
+            return filenames;
+        }
+
+        public void setFilenames(List<String> filenames) {
+            this.filenames = filenames;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getName() + "[filenames=" + filenames + "]";
+        }
+    }
+
+    /**
+     * 
+     * 발급된 업로드 슬롯 하나에 대한 응답이다.
+     * 
+     * 
+     * @author leeseunghyun
+     *
+     */
+    public static class ImageUploadSlotResponseDTO {
+
+        @ApiModelProperty(notes = "업로드 슬롯의 key.", name = "key", value = "업로드가 끝난 후 상품 등록 및 수정 요청의 imageKeys 또는 representingImageKey로 전달해야 한다.")
+        private String key;
+
+        @ApiModelProperty(notes = "이미지를 업로드할 url.", name = "uploadUrl", value = "이 url로 PUT 요청을 보내야 하며 Content-Type 헤더는 contentType과 같아야 한다.")
+        private String uploadUrl;
+
+        @ApiModelProperty(notes = "업로드 요청의 Content-Type 헤더 값.", name = "contentType")
+        private String contentType;
+
+        @ApiModelProperty(notes = "업로드 url의 만료 시간.", name = "expiresAt")
+        private Date expiresAt;
+
+        public ImageUploadSlotResponseDTO() {
+        }
+
+        public ImageUploadSlotResponseDTO(String key, String uploadUrl, String contentType, Date expiresAt) {
+            this.key = key;
+            this.uploadUrl = uploadUrl;
+            this.contentType = contentType;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getUploadUrl() {
+            return uploadUrl;
+        }
+
+        public void setUploadUrl(String uploadUrl) {
+            this.uploadUrl = uploadUrl;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public Date getExpiresAt() {
+            return expiresAt;
+        }
+
+        public void setExpiresAt(Date expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getName() + "[key=" + key + ", uploadUrl=" + uploadUrl + ", contentType=" + contentType
+                    + ", expiresAt=" + expiresAt + "]";
+        }
+    }
+}
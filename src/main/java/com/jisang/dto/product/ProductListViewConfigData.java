@@ -44,7 +44,7 @@ import io.swagger.annotations.ApiModelProperty;
  * 
  */
 @ProductListViewConstraint(viewType = "viewType", viewTypeArguments = { "bestViewCnt", "pageIndex", "perPageCnt",
-        "recommendedViewCnt" }, groups = {
+        "recommendedViewCnt", "cursor" }, groups = {
                 ProductListViewPropertyAssociation.class }, message = "뷰 타입 파라미터의 연관 관계가 올바르지 않습니다.")
 public class ProductListViewConfigData {
 
@@ -72,6 +72,11 @@ public class ProductListViewConfigData {
     private Integer perPageCnt;
     public static final String PER_PAGE_CNT_PROPERTY_NAME = "perPageCnt";
 
+    @ApiModelProperty(notes = "커서 방식 페이지 뷰의 continuation token.", name = "cursor", value = "viewType 을 productViewTeype.PAGE로 하였을 경우에만 사용된다. 이 파라미터가 전달되면 pageIndex 대신 "
+            + "커서 방식으로 페이지를 조회하며 perPageCnt를 꼭 지정해야 한다. 첫 페이지는 빈 값으로 요청하고 이후에는 이전 응답의 nextCursor 값을 그대로 전달한다.")
+    private String cursor;
+    public static final String CURSOR_PROPERTY_NAME = "cursor";
+
     @ApiModelProperty(notes = "화면에 표시할 추천 상품 수.", name = "recommendedViewCnt", value = "viewType 을 productViewTeype.RECOMMENDED로 하였을 경우 해당 프로퍼티를 꼭 지정(양수)해야 한다. 지정하지 않을 경우 400 - Bad Request 응답 반환.")
     private Integer recommendedViewCnt;
     public static final String RECOMMENDED_VIEW_CNT_PROPERTY_NAME = "recommendedViewCnt";
@@ -121,6 +126,14 @@ public class ProductListViewConfigData {
         this.perPageCnt = perPageCnt;
     }
 
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     public Integer getRecommendedViewCnt() {
         return recommendedViewCnt;
     }
@@ -166,7 +179,8 @@ public class ProductListViewConfigData {
     public String toString() {
         return "ProductListViewConfigData [viewType=" + viewType + ", category=" + category + ", bestViewCnt="
                 + bestViewCnt + ", pageIndex=" + pageIndex + ", perPageCnt=" + perPageCnt + ", recommendedViewCnt="
-                + recommendedViewCnt + ", marketId=" + marketId + ", mallLocation=" + mallLocation + ", searchCriteria="
+                + recommendedViewCnt + ", cursor=" + cursor + ", marketId=" + marketId + ", mallLocation="
+                + mallLocation + ", searchCriteria="
                 + searchCriteria + "]";
     }
 
@@ -33,7 +33,7 @@ public class ProductListViewDTO {
 
         @ApiModelProperty(notes = "상품 id.", name = "id")
         private int id;
-        @ApiModelProperty(notes = "상품 대표 이미지 url.", name = "representingImage")
+        @ApiModelProperty(notes = "상품 대표 이미지 url.", name = "representingImage", value = "목록 화면 크기로 축소된 이미지의 url이며 아직 생성되지 않았을 경우 원본 이미지의 url이다.")
         private String representingImage;
         @ApiModelProperty(notes = "상품 이름.", name = "name")
         private String name;
@@ -123,7 +123,8 @@ public class ProductListViewDTO {
     /**
      * 
      * 페이지 타입 화면의 경우 상품 목록 정보와 함께 페이지 정보가 같이 전달되어야 한다. 이 DTO 클래스는 이를 목적으로 정의되었다. 현재
-     * 구현은 현재 페이지 번호와 마지막 페이지 번호만 프로퍼티로 담고 있는데 모바일 화면 특징상 이 정도면 충분할 것 같다.
+     * 구현은 현재 페이지 번호와 마지막 페이지 번호만 프로퍼티로 담고 있는데 모바일 화면 특징상 이 정도면 충분할 것 같다. 커서 방식 페이지
+     * 뷰의 경우에는 페이지 번호 대신 다음 페이지 요청에 사용될 {@code nextCursor}가 전달된다.
      * 
      * @author leeseunghyun
      *
@@ -133,6 +134,8 @@ public class ProductListViewDTO {
         private int currentPageIdx;
         @ApiModelProperty(notes = "마지막 페이지의 번호.", name = "endPageIdx")
         private int endPageIdx;
+        @ApiModelProperty(notes = "커서 방식 페이지 뷰의 다음 페이지 요청에 사용할 continuation token. 커서 방식이 아니거나 마지막 페이지일 경우 null.", name = "nextCursor")
+        private String nextCursor;
 
         public int getCurrentPageIdx() {
             return currentPageIdx;
@@ -150,9 +153,18 @@ public class ProductListViewDTO {
             this.endPageIdx = endPageIdx;
         }
 
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
+
         @Override
         public String toString() {
-            return super.toString() + "[currentPageIdx=" + currentPageIdx + ", endPageIdx=" + endPageIdx + "]";
+            return super.toString() + "[currentPageIdx=" + currentPageIdx + ", endPageIdx=" + endPageIdx
+                    + ", nextCursor=" + nextCursor + "]";
         }
 
     }
@@ -6,10 +6,6 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 
-import org.springframework.web.multipart.MultipartFile;
-
-import com.jisang.support.validation.ImageExtension;
-
 import io.swagger.annotations.ApiModelProperty;
 
 /**
@@ -114,33 +110,34 @@ public class ProductManagementViewDTO {
      */
     public abstract static class ProductMutationDTO extends ProductManagementViewDTO {
 
-        @ApiModelProperty(notes = "상품 대표 이미지.", name = "representingImage", required = true, value = "jpg | png | tif 등의 올바른 이미지 파일 포맷이어야 한다. 해당 프로퍼티는 상품 수정 화면에 대한 응답시에는 포함되지 않는다.")
-        @ImageExtension(message = "올바른 이미지 파일 형식이 아닙니다.")
-        private MultipartFile representingImage;
+        @ApiModelProperty(notes = "상품 대표 이미지의 임시 객체 key.", name = "representingImageKey", required = true, value = "POST /auth/product/image-upload-slots 요청으로 발급 받은 업로드 슬롯의 key이며 해당 슬롯의 url에 이미지를 업로드한 후 전달해야 한다. 상품 수정 시 바뀌지 않은 이미지는 기존 이미지의 url을 그대로 전달한다.")
+        @NotBlank(message = "상품 대표 이미지를 등록해 주세요.")
+        private String representingImageKey;
 
-        @ApiModelProperty(notes = "상품 이미지.", name = "images", required = true, value = "jpg | png | tif 등의 올바른 이미지 파일 포맷이어야 한다. 해당 프로퍼티는 상품 수정 화면에 대한 응답시에는 포함되지 않는다.")
+        @ApiModelProperty(notes = "상품 이미지의 임시 객체 key.", name = "imageKeys", required = true, value = "POST /auth/product/image-upload-slots 요청으로 발급 받은 업로드 슬롯의 key이며 해당 슬롯의 url에 이미지를 업로드한 후 전달해야 한다. 상품 수정 시 바뀌지 않은 이미지는 기존 이미지의 url을 그대로 전달한다.")
         @NotEmpty(message = "최소한 1개 이상의 상품 이미지를 등록해 주세요.")
-        private List<@ImageExtension(message = "올바른 이미지 파일 형식이 아닙니다.") MultipartFile> images;
+        private List<@NotBlank(message = "상품 이미지 정보가 올바르지 않습니다.") String> imageKeys;
 
-        public MultipartFile getRepresentingImage() {
-            return representingImage;
+        public String getRepresentingImageKey() {
+            return representingImageKey;
         }
 
-        public void setRepresentingImage(MultipartFile representingImage) {
-            this.representingImage = representingImage;
+        public void setRepresentingImageKey(String representingImageKey) {
+            this.representingImageKey = representingImageKey;
         }
 
-        public List<MultipartFile> getImages() {
-            return images;
+        public List<String> getImageKeys() {
+            return imageKeys;
         }
 
-        public void setImages(List<MultipartFile> images) {
-            this.images = images;
+        public void setImageKeys(List<String> imageKeys) {
+            this.imageKeys = imageKeys;
         }
 
         @Override
         public String toString() {
-            return super.toString() + ", representingImage=" + representingImage + ", images=" + images + "]";
+            return super.toString() + ", representingImageKey=" + representingImageKey + ", imageKeys=" + imageKeys
+                    + "]";
         }
 
     }
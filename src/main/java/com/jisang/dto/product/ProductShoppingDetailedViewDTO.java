@@ -27,8 +27,10 @@ public class ProductShoppingDetailedViewDTO {
     @ApiModelProperty(notes = "해당 상품에 대한 설명.", name = "detail")
     private String detail;
 
-    @ApiModelProperty(notes = "상품 대표 이미지 url.", name = "representingImageUrl")
+    @ApiModelProperty(notes = "상품 대표 이미지 url.", name = "representingImageUrl", value = "상세 화면 크기로 축소된 이미지의 url이며 아직 생성되지 않았을 경우 원본 이미지의 url이다.")
     private String representingImageUrl;
+    @ApiModelProperty(notes = "상품 대표 이미지 원본 url.", name = "originalRepresentingImageUrl", value = "이미지 확대 보기 등 원본 이미지가 필요한 경우에만 사용한다.")
+    private String originalRepresentingImageUrl;
     @ApiModelProperty(notes = "상품 이미지 url.", name = "imageUrls")
     private List<String> imageUrls;
 
@@ -88,6 +90,14 @@ public class ProductShoppingDetailedViewDTO {
         this.representingImageUrl = representingImageUrl;
     }
 
+    public String getOriginalRepresentingImageUrl() {
+        return originalRepresentingImageUrl;
+    }
+
+    public void setOriginalRepresentingImageUrl(String originalRepresentingImageUrl) {
+        this.originalRepresentingImageUrl = originalRepresentingImageUrl;
+    }
+
     public List<String> getImageUrls() {
         return imageUrls;
     }
@@ -102,6 +112,7 @@ public class ProductShoppingDetailedViewDTO {
                                     + ", productId=" + productId + ", productName=" + productName 
                                     + ", price=" + price + ", detail=" + detail
                                     + ", representingImageUrl=" + representingImageUrl 
+                                    + ", originalRepresentingImageUrl=" + originalRepresentingImageUrl 
                                     + ", imageUrls=" + imageUrls + "]";
     }
 
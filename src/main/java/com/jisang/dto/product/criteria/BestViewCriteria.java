@@ -1,5 +1,7 @@
 package com.jisang.dto.product.criteria;
 
+import java.util.Collection;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +86,12 @@ public class BestViewCriteria extends ProductListViewCriteria {
             return this;
         }
 
+        @Override
+        public BestViewCriteriaBuilder searchProductIds(Collection<Integer> searchProductIds) {
+            this.searchProductIds = searchProductIds;
+            return this;
+        }
+
         /**
          * {@link BestViewCriteria} 오브젝트를 생성하여 반환한다.
          */
@@ -0,0 +1,84 @@
+package com.jisang.dto.product.criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ *
+ * 커서 방식 페이지 뷰에서 클라이언트에 전달되는 continuation token 이다. 마지막으로 전달된 상품의 (등록 시간, 상품 id)를
+ * 담고 있으며 다음 페이지 요청시 이 값보다 뒤에 정렬되는 상품부터 조회한다.
+ *
+ * 기존의 {@code LIMIT x, y} 방식은 페이지가 뒤로 갈수록 MySQL이 앞의 x개의 row를 읽고 버려야 하기 때문에 느려진다. 커서
+ * 방식은 항상 (product_upload_time, product_id) 인덱스 상의 특정 위치부터 y개만 읽으므로 몇 번째 페이지이든 첫 페이지와
+ * 비용이 같다. 모바일 클라이언트의 무한 스크롤 화면을 위한 방식이다.
+ *
+ * 클라이언트는 토큰의 내용을 해석하지 않고 그대로 돌려보내기만 하면 되므로 URL-safe Base64로 인코딩하여 전달한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class PageCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime uploadTime;
+    private final int productId;
+
+    public PageCursor(LocalDateTime uploadTime, int productId) {
+        this.uploadTime = Objects.requireNonNull(uploadTime, "Null value argument uploadTime detected.");
+        this.productId = productId;
+    }
+
+    /**
+     * 클라이언트로부터 전달 받은 토큰을 해석한다.
+     *
+     * @throws IllegalArgumentException
+     *             서버가 발행한 형식의 토큰이 아닐 경우
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int delimiterIdx = decoded.indexOf(DELIMITER);
+
+            if (delimiterIdx == -1) {
+                throw new IllegalArgumentException("Invalid page cursor : " + token);
+            }
+
+            return new PageCursor(LocalDateTime.parse(decoded.substring(0, delimiterIdx)),
+                    Integer.parseInt(decoded.substring(delimiterIdx + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page cursor : " + token, e);
+        }
+    }
+
+    public static boolean isDecodable(String token) {
+        try {
+            decode(token);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                     .encodeToString((uploadTime + DELIMITER + productId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime getUploadTime() {
+        return uploadTime;
+    }
+
+    public int getProductId() {
+        return productId;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[uploadTime=" + uploadTime + ", productId=" + productId + "]";
+    }
+}
@@ -1,5 +1,7 @@
 package com.jisang.dto.product.criteria;
 
+import java.util.Collection;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,6 +38,13 @@ public class PageViewCriteria extends ProductListViewCriteria {
 
     private final Integer totalProductCnt;
 
+    /**
+     * 커서 방식 페이지 뷰일 경우에만 값을 갖는다. 커서 방식의 첫 페이지 요청일 경우 {@code cursorMode}는 true이나
+     * {@code cursor}는 null이다.
+     */
+    private final boolean cursorMode;
+    private final PageCursor cursor;
+
     /** 현재 구현에서는 사용되지 않음. */
     // private final int displayPageCnt;
 
@@ -44,6 +53,8 @@ public class PageViewCriteria extends ProductListViewCriteria {
         this.pageIndex = builder.pageIndex;
         this.perPageCnt = builder.perPageCnt;
         this.totalProductCnt = builder.totalProductCnt;
+        this.cursorMode = builder.cursorMode;
+        this.cursor = builder.cursor;
         // this.displayPageCnt = builder.displayPageCnt;
     }
 
@@ -59,6 +70,22 @@ public class PageViewCriteria extends ProductListViewCriteria {
         return totalProductCnt;
     }
 
+    public boolean isCursorMode() {
+        return cursorMode;
+    }
+
+    public PageCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * 커서 방식 페이지 뷰에서 다음 페이지의 존재 여부를 알기 위해 {@code perPageCnt}보다 하나 더 많은 상품을 조회한다. 이 값은
+     * 커서 방식일 경우 SQL의 LIMIT y 에서의 y 값으로 사용된다.
+     */
+    public int getCursorFetchCnt() {
+        return perPageCnt + 1;
+    }
+
     /*
      * public int getDisplayPageCnt() { return displayPageCnt; }
      */
@@ -127,6 +154,9 @@ public class PageViewCriteria extends ProductListViewCriteria {
         private Integer perPageCnt;
         // private int displayPageCnt = DEFAULT_DISPLAY_PAGE_COUNT;
 
+        private boolean cursorMode;
+        private PageCursor cursor;
+
         public PageViewCriteriaBuilder(Integer marketId, String mallLocation, String category,
                 Integer totalProductCnt) {
             super(marketId, mallLocation, category);
@@ -142,6 +172,16 @@ public class PageViewCriteria extends ProductListViewCriteria {
             }
         }
 
+        /**
+         * 커서 방식 페이지 뷰에 대한 빌더 생성자이다. 커서 방식은 마지막 페이지 번호를 계산하지 않으므로 전체 상품 수가 필요 없다.
+         * {@code cursor}가 null일 경우 첫 페이지를 의미한다.
+         */
+        public PageViewCriteriaBuilder(Integer marketId, String mallLocation, String category, PageCursor cursor) {
+            super(marketId, mallLocation, category);
+            this.cursorMode = true;
+            this.cursor = cursor;
+        }
+
         public PageViewCriteriaBuilder pageIndex(Integer pageIndex) {
 
             this.pageIndex = pageIndex;
@@ -160,6 +200,12 @@ public class PageViewCriteria extends ProductListViewCriteria {
             return this;
         }
 
+        @Override
+        public PageViewCriteriaBuilder searchProductIds(Collection<Integer> searchProductIds) {
+            this.searchProductIds = searchProductIds;
+            return this;
+        }
+
         /*
          * public PageViewCriteriaBuilder displayPageCnt(Integer displayPageCnt) {
          * 
@@ -173,7 +219,13 @@ public class PageViewCriteria extends ProductListViewCriteria {
         public PageViewCriteria build() {
             PageViewCriteria criteria = new PageViewCriteria(this);
 
-            if (criteria.pageIndex <= 0) {
+            if (criteria.cursorMode && criteria.perPageCnt == null) {
+                logger.error("perPageCnt is required for cursor mode page view.");
+                logger.error(
+                        "Because arguent perPageCnt passed to bean validation, It must be caused by illegal code. "
+                      + "Checking illegal code required.");
+                throw new IllegalStateException("Invalid argument perPageCnt detected.");
+            } else if (criteria.pageIndex <= 0) {
                 logger.error("Invalid argument pageIndex detected : {}. pageIndex must not be zero or negative value."
                            , pageIndex);
                 logger.error(
@@ -206,6 +258,6 @@ public class PageViewCriteria extends ProductListViewCriteria {
     public String toString() {
         return super.toString() + "[pageIndex=" + pageIndex + ", perPageCnt=" + perPageCnt 
                                 + ", totalProductCnt=" + totalProductCnt // + ", displayPageCnt=" + displayPageCnt 
-                                + "]";
+                                + ", cursorMode=" + cursorMode + ", cursor=" + cursor + "]";
     }
 }
@@ -1,5 +1,7 @@
 package com.jisang.dto.product.criteria;
 
+import java.util.Collection;
+
 /**
  * 
  * 지상 어플리케이션 와이어 프레임의 대부분을 차지하는 상품 목록 보기 화면에 대한 처리를 위해 필요한 DTO 클래스이다. 지상
@@ -31,11 +33,18 @@ public class ProductListViewCriteria {
     private final String category;
     private final String searchKeyword;
 
+    /**
+     * {@link com.jisang.support.HashTagSearchIndex}로부터 얻은 검색어에 해당하는 상품 id 목록이다. 검색어가 있으나 이
+     * 값이 null일 경우(색인이 아직 구성되지 않은 경우)는 SQL의 LIKE 조건으로 검색한다.
+     */
+    private final Collection<Integer> searchProductIds;
+
     protected ProductListViewCriteria(ProductListViewCriteriaBuilder builder) {
         this.marketId = builder.marketId;
         this.mallLocation = builder.mallLocation;
         this.category = builder.category;
         this.searchKeyword = builder.searchKeyword;
+        this.searchProductIds = builder.searchProductIds;
     }
 
     public Integer getMarketId() {
@@ -54,12 +63,17 @@ public class ProductListViewCriteria {
         return searchKeyword;
     }
 
+    public Collection<Integer> getSearchProductIds() {
+        return searchProductIds;
+    }
+
     public abstract static class ProductListViewCriteriaBuilder {
 
         private final Integer marketId;
         private final String mallLocation;
         private final String category;
         protected String searchKeyword;
+        protected Collection<Integer> searchProductIds;
 
         ProductListViewCriteriaBuilder(Integer marketId, String mallLocation, String category) {
             this.marketId = marketId;
@@ -70,12 +84,15 @@ public class ProductListViewCriteria {
         public abstract ProductListViewCriteria build();
 
         public abstract ProductListViewCriteriaBuilder searchKeyword(String searchKeyword);
+
+        public abstract ProductListViewCriteriaBuilder searchProductIds(Collection<Integer> searchProductIds);
     }
 
     @Override
     public String toString() {
         return getClass().getName() + "[marketId=" + marketId + ", mallLocation=" + mallLocation 
-                                    + ", category=" + category + ", searchKeyword=" + searchKeyword + "]";
+                                    + ", category=" + category + ", searchKeyword=" + searchKeyword + ", searchProductIdCnt=" 
+                                    + (searchProductIds == null ? null : searchProductIds.size()) + "]";
     }
 
 }
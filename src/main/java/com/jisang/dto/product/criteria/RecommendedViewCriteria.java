@@ -1,5 +1,7 @@
 package com.jisang.dto.product.criteria;
 
+import java.util.Collection;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,12 @@ public class RecommendedViewCriteria extends ProductListViewCriteria {
             return this;
         }
 
+        @Override
+        public RecommendedViewCriteriaBuilder searchProductIds(Collection<Integer> searchProductIds) {
+            this.searchProductIds = searchProductIds;
+            return this;
+        }
+
         /**
          * {@link RecommendedViewCriteria} 오브젝트를 생성하여 반환한다.
          */
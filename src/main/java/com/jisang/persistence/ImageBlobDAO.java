@@ -0,0 +1,76 @@
+package com.jisang.persistence;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+
+/**
+ *
+ * 내용의 해시를 key로 저장된 상품 이미지(이하 blob)의 참조 수 테이블({@code tbl_image_blobs})에 대한 DAO 인터페이스.
+ * {@link com.jisang.support.ImageBlobStore}에서만 사용된다.
+ *
+ * 같은 내용의 이미지는 여러 상품에서 하나의 blob을 공유하므로 상품이 수정되거나 삭제되어도 blob을 바로 삭제할 수 없다. 상품이
+ * 참조할 때마다 참조 수가 증가하고 참조하지 않게 되면 감소하며, 참조 수가 0이 된 blob은 스케줄러에 의해 일괄 삭제된다.
+ * 스토리지에서 삭제 중인 blob은 {@code blob_collecting_at}에 삭제를 시작한 시각이 기록된다.
+ *
+ * <pre>
+ * CREATE TABLE tbl_image_blobs (
+ *     blob_key           VARCHAR(100) NOT NULL PRIMARY KEY,
+ *     blob_ref_count     INT          NOT NULL DEFAULT 0,
+ *     blob_updated_at    DATETIME     NOT NULL,
+ *     blob_collecting_at DATETIME     NULL,
+ *     INDEX idx_image_blobs_orphan (blob_ref_count, blob_updated_at)
+ * );
+ * </pre>
+ *
+ * @author leeseunghyun
+ *
+ */
+public interface ImageBlobDAO extends MybatisMapper {
+
+    /**
+     * {@code counts}의 각 blob의 참조 수를 값만큼 증가시킨다. 행이 없는 blob은 새로 추가된다. 여러 요청이 같은 blob들을
+     * 동시에 참조할 때 교착 상태가 생기지 않도록 {@code counts}는 key 순서로 정렬된 {@link Map}이어야 한다.
+     */
+    public void acquire(@Param("counts") Map<String, Integer> counts);
+
+    /**
+     * {@code counts}의 각 blob의 참조 수를 값만큼 감소시킨다. 정렬 조건은 {@link #acquire(Map)}과 같다.
+     */
+    public void release(@Param("counts") Map<String, Integer> counts);
+
+    /**
+     * {@code updatedBefore} 이전에 참조 수가 0이 된 blob 중 삭제 중이 아니거나 {@code collectingBefore} 이전에 삭제를
+     * 시작한 blob을 최대 {@code limit}개 조회하고 행에 잠금을 건다. 잠금은 {@link #markCollecting(List, LocalDateTime)}이
+     * 커밋될 때까지만 유지된다.
+     */
+    public List<String> readOrphansForUpdate(@Param("updatedBefore") LocalDateTime updatedBefore,
+            @Param("collectingBefore") LocalDateTime collectingBefore, @Param("limit") int limit);
+
+    /**
+     * {@code keys}의 blob을 {@code collectingAt}에 삭제를 시작한 것으로 표시한다.
+     */
+    public void markCollecting(@Param("keys") List<String> keys, @Param("collectingAt") LocalDateTime collectingAt);
+
+    /**
+     * {@code keys} 중 {@code collectingAfter} 이후에 스토리지 삭제가 시작되어 아직 끝나지 않은 blob을 조회한다.
+     */
+    public List<String> readCollecting(@Param("keys") Collection<String> keys,
+            @Param("collectingAfter") LocalDateTime collectingAfter);
+
+    /**
+     * {@code collectingAt}에 삭제를 시작한 표시가 남아 있고 참조 수가 여전히 0인 blob의 행만 삭제한다.
+     *
+     * @return 삭제된 행 수.
+     */
+    public int deleteOrphans(@Param("keys") List<String> keys, @Param("collectingAt") LocalDateTime collectingAt);
+
+    /**
+     * {@code collectingAt}에 삭제를 시작한 표시를 지운다. 삭제 도중 다시 참조되어 삭제되지 않은 행이나 스토리지 삭제에 실패한 행에
+     * 사용된다.
+     */
+    public void unmarkCollecting(@Param("keys") List<String> keys, @Param("collectingAt") LocalDateTime collectingAt);
+}
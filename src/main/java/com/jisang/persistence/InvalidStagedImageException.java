@@ -0,0 +1,25 @@
+package com.jisang.persistence;
+
+/**
+ * 
+ * 클라이언트가 업로드 슬롯을 통해 직접 업로드하였다고 전달한 임시 이미지 객체를 사용할 수 없을 때 던져지는 예외이다. 객체가 존재하지
+ * 않거나(업로드 전이거나 만료되어 삭제됨), 허용된 크기보다 크거나, 이미지가 아니거나, 다른 관리자에게 발급된 슬롯의 객체일 경우이다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class InvalidStagedImageException extends RuntimeException {
+
+    private static final long serialVersionUID = 4510857240373922185L;
+
+    private final String stagingKey;
+
+    public InvalidStagedImageException(String message, String stagingKey) {
+        super(message);
+        this.stagingKey = stagingKey;
+    }
+
+    public String getStagingKey() {
+        return stagingKey;
+    }
+}
@@ -0,0 +1,73 @@
+package com.jisang.persistence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.ibatis.annotations.Param;
+
+import com.jisang.domain.OutboxMail;
+
+/**
+ * 
+ * 메일 outbox 테이블({@code tbl_mail_outbox})에 대한 DAO 인터페이스. {@link com.jisang.support.MailOutbox}에서만
+ * 사용된다.
+ * 
+ * 여러 서버 인스턴스의 전송 스레드가 같은 메일을 가져가지 않도록 전송할 메일은 {@link #claim}의 단일 UPDATE 쿼리로 선점한 후
+ * 선점 토큰으로 조회한다. 이후의 상태 변경 쿼리 역시 선점 토큰이 일치하는 경우에만 반영된다.
+ * 
+ * <pre>
+ * CREATE TABLE tbl_mail_outbox (
+ *     mail_id              BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+ *     mail_type            VARCHAR(50)  NOT NULL,
+ *     mail_recipient       VARCHAR(255) NOT NULL,
+ *     mail_payload         VARCHAR(1000),
+ *     mail_status          VARCHAR(10)  NOT NULL,
+ *     mail_attempts        INT          NOT NULL DEFAULT 0,
+ *     mail_claim_token     CHAR(36),
+ *     mail_claimed_at      DATETIME,
+ *     mail_next_attempt_at DATETIME     NOT NULL,
+ *     mail_created_at      DATETIME     NOT NULL,
+ *     INDEX idx_mail_outbox_status (mail_status, mail_next_attempt_at)
+ * );
+ * </pre>
+ * 
+ * @author leeseunghyun
+ *
+ */
+public interface MailOutboxDAO extends MybatisMapper {
+
+    public void create(OutboxMail mail);
+
+    /**
+     * 전송 시각이 된 PENDING 상태의 메일을 최대 {@code batchSize}개 SENDING 상태로 바꾸고 {@code claimToken}을
+     * 기록한다. 시도 횟수는 이 때 증가한다.
+     * 
+     * @return 선점한 메일 수.
+     */
+    public int claim(@Param("claimToken") String claimToken, @Param("batchSize") int batchSize);
+
+    public List<OutboxMail> readClaimed(String claimToken);
+
+    /**
+     * 전송이 끝난 메일은 더 이상 필요 없는 {@code payload}를 지운다.
+     */
+    public void markSent(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken);
+
+    public void markRetry(@Param("id") long id, @Param("claimToken") String claimToken,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    public void markFailed(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken);
+
+    /**
+     * {@code claimedBefore} 이전에 선점된 후 결과가 기록되지 않은 메일(전송 도중 서버가 종료된 경우 등)을 FAILED 상태로
+     * 바꾼다. 이미 전송되었을 수 있으므로 다시 전송하지 않는다.
+     * 
+     * @return FAILED 상태로 바뀐 메일 수.
+     */
+    public int failStaleClaims(LocalDateTime claimedBefore);
+
+    /**
+     * {@code createdBefore} 이전에 생성된 SENT, FAILED 상태의 메일을 삭제한다.
+     */
+    public int deleteFinished(LocalDateTime createdBefore);
+}
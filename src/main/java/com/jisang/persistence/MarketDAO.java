@@ -1,5 +1,7 @@
 package com.jisang.persistence;
 
+import java.util.List;
+
 import com.jisang.domain.Market;
 
 /**/
@@ -16,6 +18,17 @@ public interface MarketDAO extends MybatisMapper {
 
     public Market read(int marketId);
 
+    /**
+     * 마켓의 정보만을 조회한다. {@link #read(int)}와 달리 마켓의 상품 목록에 대한 lazy loading 프록시를 만들지 않으므로 상품
+     * 상세 화면과 같이 마켓의 이름, 지역 정보 등만 필요한 경우에 사용한다.
+     */
+    public Market readSummary(int marketId);
+
+    /**
+     * 모든 마켓의 정보를 조회한다. 마켓의 상품 목록은 조회하지 않는다.
+     */
+    public List<Market> readList();
+
     public void update(Market market);
 
 }
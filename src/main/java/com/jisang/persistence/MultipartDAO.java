@@ -1,5 +1,7 @@
 package com.jisang.persistence;
 
+import java.net.URL;
+import java.util.Date;
 import java.util.List;
 
 import org.springframework.retry.annotation.Backoff;
@@ -23,6 +25,43 @@ public interface MultipartDAO {
 
     public List<String> upload(MultipartFile... files);
 
+    /**
+     * 클라이언트가 {@link #generateUploadUrl(String, String, Date)}로 발급 받은 url에 직접 업로드한 임시 객체를 확인하고
+     * 내용의 해시로 만든 key를 반환한다. 임시 객체는 {@code maxSize} 이하의 이미지여야 한다. 같은 내용의 이미지는 같은 key를
+     * 갖는다.
+     */
+    public List<String> resolveStaged(long maxSize, String... stagingKeys);
+
+    /**
+     * 임시 객체를 {@link #resolveStaged(long, String...)}로 얻은 key의 공개 이미지로 옮기고 url을 반환한다. 같은 key의
+     * 이미지가 이미 있으면 옮기지 않는다.
+     */
+    public List<String> uploadStaged(String[] stagingKeys, String[] keys);
+
+    /**
+     * 어플리케이션에서 생성한 이미지(원본 이미지로부터 만든 작은 크기의 이미지 등)를 {@code key}로 업로드하고 url을 반환한다.
+     */
+    public String upload(String key, byte[] content, String contentType);
+
+    /**
+     * {@link #upload}로 업로드된 파일의 url을 전달 받아 파일의 내용을 읽는다.
+     */
+    public byte[] read(String url);
+
+    public boolean exists(String key);
+
+    /**
+     * 이 인터페이스가 반환한 url로부터 파일의 key를 얻는다.
+     */
+    public String keyOf(String url);
+
+    public String urlOf(String key);
+
+    /**
+     * 클라이언트가 {@code key}에 직접 업로드할 수 있는 url을 생성한다. url은 {@code expiration}까지 유효하다.
+     */
+    public URL generateUploadUrl(String key, String contentType, Date expiration);
+
     /**
      * 이 메서드(삭제 연산) 실행 중 예외가 발생하였을 경우 최대 두번의 재시도를 수행한다.
      */
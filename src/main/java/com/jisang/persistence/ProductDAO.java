@@ -2,9 +2,11 @@ package com.jisang.persistence;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.annotations.Param;
 
+import com.jisang.domain.HashTag;
 import com.jisang.domain.Product;
 import com.jisang.dto.product.ProductListViewConfigData;
 import com.jisang.dto.product.criteria.BestViewCriteria;
@@ -25,8 +27,17 @@ public interface ProductDAO extends MybatisMapper {
 
     public Product read(int productId);
 
+    /**
+     * 상품 상세 화면을 위해 상품 정보와 이미지 목록을 하나의 쿼리로 조회한다. 해시태그 목록은 조회하지 않는다.
+     */
+    public Product readForShopping(int productId);
+
     public int readProductTotalCount(ProductListViewConfigData listViewConfig);
 
+    /**
+     * 아래의 상품 목록 조회 메서드들은 목록 화면에 필요한 정보만 채워진 {@link Product}를 반환한다. 상품 설명, 이미지 목록,
+     * 해시태그 목록은 null이다.
+     */
     public List<Product> readListBest(BestViewCriteria bestViewCriteria);
 
     public List<Product> readListPage(PageViewCriteria pageViewCriteria);
@@ -39,12 +50,51 @@ public interface ProductDAO extends MybatisMapper {
 
     public List<Product> readByHashTag(String keyword);
 
+    /**
+     * 베스트 상품 랭킹({@link com.jisang.support.ProductBestRanking}) 구성을 위해 모든 상품의 목록 화면 정보와 조회수를
+     * 조회한다.
+     */
+    public List<Product> readListForBestRanking();
+
+    /**
+     * 해시태그 검색 색인({@link com.jisang.support.HashTagSearchIndex}) 구성을 위해 모든 상품의 해시태그를 조회한다.
+     */
+    public List<HashTag> readHashTagList();
+
     public void update(Product product);
 
-    public void addHit(int productId);
+    /**
+     * 상품 id를 key로, 증가시킬 조회수를 value로 갖는 맵을 전달 받아 하나의 UPDATE 쿼리로 여러 상품의 조회수를 증가시킨다.
+     * {@link com.jisang.support.ProductHitCounter}에서만 호출된다.
+     */
+    public void addHits(@Param("hits") Map<Integer, Long> hits);
 
     public void refreshHit();
 
+    /**
+     * 
+     * {@link com.jisang.support.ImageDerivativePipeline}이 생성한 대표 이미지의 목록 화면용, 상세 화면용 이미지 url을
+     * 저장한다. 이미지 생성 도중 상품이 수정되어 대표 이미지가 바뀌었을 수 있으므로 대표 이미지가 {@code representingImageUrl}과
+     * 같을 경우에만 반영된다.
+     * 
+     * <pre>
+     * ALTER TABLE tbl_products
+     *     ADD COLUMN product_representing_image_list   VARCHAR(255) AFTER product_representing_image,
+     *     ADD COLUMN product_representing_image_detail VARCHAR(255) AFTER product_representing_image_list;
+     * </pre>
+     * 
+     * @return 반영된 row 수. 대표 이미지가 바뀌었거나 상품이 삭제되었을 경우 0이다.
+     */
+    public int updateImageDerivatives(@Param("productId") int productId,
+            @Param("representingImageUrl") String representingImageUrl, @Param("listImageUrl") String listImageUrl,
+            @Param("detailImageUrl") String detailImageUrl);
+
+    /**
+     * 대표 이미지의 목록 화면용, 상세 화면용 이미지가 아직 생성되지 않은 상품을 최근 등록된 순으로 최대 {@code limit}개 조회한다.
+     * 반환되는 {@link Product}는 목록 화면 정보만 채워져 있다.
+     */
+    public List<Product> readListWithoutImageDerivatives(int limit);
+
     /**
      * 해시태그와 상품 이미지는 PRODUCT 도메인을 구성하는 정보이다. 하나의 PRODUCT에 대하여 여러 개의 해시태그와 이미지가 존재하므로
      * 이들 정보에 대한 테이블을 따로 빼두었다. 아직까지는 해시태그와 이미지(이미지가 저장된 storage상의 url)가 PRODUCT를
@@ -1,27 +1,48 @@
 package com.jisang.persistence;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.Md5Utils;
+import com.amazonaws.util.SdkHttpUtils;
 
 /**/
 /**
@@ -36,6 +57,14 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 @Repository
 public class S3MultipartDAO implements MultipartDAO {
 
+    // Static Fields
+    // ==========================================================================================================================
+
+    /** 내용의 해시로 만든 key의 접두사. {@link com.jisang.support.ImageBlobStore}가 참조 수를 관리하는 이미지를 구분한다. */
+    public static final String CONTENT_KEY_PREFIX = "img_";
+
+    private static final Pattern MD5_ETAG = Pattern.compile("[0-9a-f]{32}");
+
     // Instance Fields
     // ==========================================================================================================================
 
@@ -44,6 +73,8 @@ public class S3MultipartDAO implements MultipartDAO {
     @Autowired
     private AmazonS3 s3Client;
     @Autowired
+    private S3UploadExecutor uploadExecutor;
+    @Autowired
     @Qualifier("imageTrashCan")
     private List<String> imageTrashCan;
 
@@ -55,20 +86,22 @@ public class S3MultipartDAO implements MultipartDAO {
 
     /**
      * 
-     * 파일을 aws S3에 업로드한다.
+     * 파일을 aws S3에 업로드한다. 반환되는 url의 순서는 인자 {@code files}의 순서와 같다.
+     * 
+     * 이전 구현은 파일을 하나씩 순서대로 업로드하였으므로 이미지가 여덟 개인 상품을 등록하면 S3 왕복 시간을 여덟 번 기다려야 했다. 이제
+     * 각 파일은 {@link S3UploadExecutor}에서 동시에 업로드되며 요청 스레드는 업로드 하나 당 최대
+     * {@link S3UploadExecutor#getTimeoutMillis()} 동안 결과를 기다린다.
      * 
-     * 메서드가 많이 길고 try-catch 절이 중첩되어 복잡해 보이나 업로드 수행 중 예외가 발생할 경우에 대한 처리를 위해 꼭 필요한
-     * 부분이라 복잡해 보이게 만들게 되었다. 만약 업로드 중 예외가 발생한다면 이미 S3에 업로드된 일부 이미지는 삭제되어야만 한다. 아래
-     * 메서드를 이런 동작을 처리하나 만약 삭제 연산 중 에외가 발생할 경우 후에 스케줄러에 의해 일괄 삭제될 수 있기 위해
-     * {@code imageTrashCan}에 삭제되어야 할 이미지의 url을 {@code add} 한다.
+     * 업로드 중 예외가 발생하거나 시간이 초과된다면 이미 S3에 업로드된 일부 이미지는 삭제되어야만 한다. 아직 시작되지 않은 업로드는
+     * 취소되고 이미 끝난 업로드는 아래 메서드가 삭제한다. 실패 시점에 진행 중이던 업로드는 끝난 후 스스로 삭제한다. 만약 삭제 연산 중
+     * 예외가 발생할 경우 후에 스케줄러에 의해 일괄 삭제될 수 있기 위해 {@code imageTrashCan}에 삭제되어야 할 이미지의 url을
+     * {@code add} 한다.
      * 
      * 
      * @throws IllegalArgumentException
      *             인자 {@code files}가 empty 배열일 때 발생
-     * @throws DataAccessException
-     *             {@code InputStream ins = file.getInputStream()}
      * @throws AmazonClientException
-     *             {@link TransferManager#upload(String, String, InputStream, ObjectMetadata)
+     *             S3 업로드 중 오류가 발생하였거나 업로드가 제한 시간 내에 끝나지 않았을 경우 발생
      * 
      */
     public List<String> upload(MultipartFile... files) {
@@ -77,61 +110,394 @@ public class S3MultipartDAO implements MultipartDAO {
             throw new IllegalArgumentException("Argumet files is empty.");
         }
 
-        List<String> uploaded = new ArrayList<>();
+        String[] uploadedFilenames = new String[files.length];
+        for (int i = 0; i < files.length; i++) {
+            uploadedFilenames[i] = System.nanoTime() + "_" + files[i].getOriginalFilename();
+        }
 
-        try {
-            Arrays.stream(files)
-                  .forEach(file -> {
-                      ObjectMetadata metaData = new ObjectMetadata();
-                      metaData.setContentLength(file.getSize());
-                      metaData.setContentType(file.getContentType());
+        return storeAll(uploadedFilenames, (index, uploadedFilename) -> putObject(files[index], uploadedFilename));
+    }
+
+    /**
+     * 
+     * 클라이언트가 {@link #generateUploadUrl(String, String, Date)}의 url로 직접 업로드한 임시 객체를 확인하고 내용의
+     * 해시로 만든 key({@code img_<MD5><확장자>})를 반환한다. 반환되는 key의 순서는 인자 {@code stagingKeys}의 순서와
+     * 같다. 각 임시 객체는 {@link S3UploadExecutor}에서 동시에 확인된다.
+     * 
+     * pre-signed url로 한 번에 업로드된 객체의 ETag는 내용의 MD5이므로 대부분의 경우 HEAD 요청만으로 key를 얻는다. ETag가
+     * MD5가 아닌 경우(multipart 업로드, SSE-KMS 암호화)에만 객체를 읽어 직접 해시를 계산한다.
+     * 
+     * 
+     * @throws InvalidStagedImageException
+     *             임시 객체가 존재하지 않거나, {@code maxSize}보다 크거나, 이미지가 아닐 경우 발생
+     * @throws AmazonClientException
+     *             S3 연산 중 오류가 발생하였거나 제한 시간 내에 끝나지 않았을 경우 발생
+     * 
+     */
+    public List<String> resolveStaged(long maxSize, String... stagingKeys) {
+
+        if (Objects.isNull(stagingKeys) || stagingKeys.length == 0) {
+            throw new IllegalArgumentException("Argumet stagingKeys is empty.");
+        }
+
+        return runAll(stagingKeys.length, index -> resolveStagedObject(stagingKeys[index], maxSize));
+    }
+
+    /**
+     * 
+     * 임시 객체를 {@code keys}의 공개 객체로 복사한다. 복사는 S3 내부에서 수행되므로 이미지 데이터가 어플리케이션 서버를 거치지
+     * 않으며 같은 key의 객체가 이미 있으면 복사하지 않는다. 반환되는 url의 순서는 인자 {@code stagingKeys}의 순서와 같다.
+     * 
+     * 공개 객체는 여러 상품이 공유할 수 있으므로 일부 복사가 실패하더라도 이미 복사된 객체를 삭제하지 않는다. 참조되지 않는 객체는
+     * 호출한 쪽에서 참조 수를 통해 정리해야 한다. 복사가 모두 끝나면 임시 객체는 별도의 스레드에서 삭제된다. 삭제되지 않은 임시 객체는
+     * 버켓의 lifecycle 규칙으로 정리되어야 한다.
+     * 
+     * 
+     * @throws AmazonClientException
+     *             S3 연산 중 오류가 발생하였거나 제한 시간 내에 끝나지 않았을 경우 발생
+     * 
+     */
+    public List<String> uploadStaged(String[] stagingKeys, String[] keys) {
+
+        if (Objects.isNull(stagingKeys) || stagingKeys.length == 0 || stagingKeys.length != keys.length) {
+            throw new IllegalArgumentException("Argumet stagingKeys is empty or does not match keys.");
+        }
+
+        List<String> uploaded = runAll(stagingKeys.length, index -> copyStagedObject(stagingKeys[index], keys[index]));
+
+        uploadExecutor.execute(() -> deleteAll(stagingKeys));
+
+        return uploaded;
+    }
+
+    /**
+     * 
+     * 어플리케이션에서 생성한 이미지를 {@code key}로 aws S3에 업로드한다. 같은 key의 객체가 있다면 덮어쓴다. 요청 스레드가 아닌
+     * 스레드에서 호출되는 것을 전제로 하므로 {@link S3UploadExecutor}를 거치지 않고 호출한 스레드에서 바로 업로드한다.
+     * 
+     * @throws AmazonClientException
+     *             S3 업로드 중 오류가 발생하였을 경우 발생
+     */
+    public String upload(String key, byte[] content, String contentType) {
+        Objects.requireNonNull(content, "Null value argument content detected.");
+
+        ObjectMetadata metaData = new ObjectMetadata();
+        metaData.setContentLength(content.length);
+        metaData.setContentType(contentType);
+
+        PutObjectRequest putObjectRequest = new PutObjectRequest(s3BucketName, key, new ByteArrayInputStream(content),
+                metaData);
+        putObjectRequest.setCannedAcl(CannedAccessControlList.PublicRead);
+        putObjectRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
+
+        s3Client.putObject(putObjectRequest);
+
+        return urlOf(key);
+    }
+
+    /**
+     * 
+     * 업로드된 파일의 url로부터 key를 얻어 파일을 읽는다.
+     * 
+     * @throws AmazonClientException
+     *             S3 연산 중 오류가 발생하였을 경우 발생
+     */
+    public byte[] read(String url) {
+        String key = keyOf(url);
 
-                      String uploadedFilename = System.nanoTime() + "_" + file.getOriginalFilename();
+        GetObjectRequest getObjectRequest = new GetObjectRequest(s3BucketName, key);
+        getObjectRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
 
-                      PutObjectRequest putObjectRequest = null;
+        try (S3Object object = s3Client.getObject(getObjectRequest);
+                InputStream ins = object.getObjectContent()) {
 
-                      try (InputStream ins = file.getInputStream()) {
+            return IOUtils.toByteArray(ins);
+        } catch (IOException e) {
+            throw new AmazonClientException("Reading file " + key + " from S3 failed.", e);
+        }
+    }
 
-                          putObjectRequest = 
-                                  new PutObjectRequest(s3BucketName, uploadedFilename, ins, metaData);
-                          putObjectRequest.setCannedAcl(CannedAccessControlList.PublicRead);
+    public boolean exists(String key) {
+        return s3Client.doesObjectExist(s3BucketName, key);
+    }
+
+    /**
+     * 
+     * 이 클래스가 업로드하는 파일의 key는 '/'를 포함하지 않으므로 url의 마지막 경로가 key이다.
+     * 
+     */
+    public String keyOf(String url) {
+        return SdkHttpUtils.urlDecode(url.substring(url.lastIndexOf('/') + 1));
+    }
+
+    public String urlOf(String key) {
+        return s3Client.getUrl(s3BucketName, key).toString();
+    }
+
+    /**
+     * 
+     * 클라이언트가 {@code key}에 직접 업로드할 수 있는 pre-signed PUT url을 생성한다. 클라이언트는 같은
+     * {@code Content-Type} 헤더로 업로드해야 한다. url 생성은 서명 계산만 수행하며 S3에 요청을 보내지 않는다.
+     * 
+     */
+    public URL generateUploadUrl(String key, String contentType, Date expiration) {
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(s3BucketName, key, HttpMethod.PUT)
+                .withExpiration(expiration)
+                .withContentType(contentType);
+
+        return s3Client.generatePresignedUrl(request);
+    }
+
+    /**
+     * 
+     * {@code uploadedFilenames}의 각 객체를 {@link S3UploadExecutor}에서 동시에 저장한다.
+     * 
+     * 저장 중 예외가 발생하거나 시간이 초과된다면 이미 S3에 저장된 일부 이미지는 삭제되어야만 한다. 아직 시작되지 않은 저장은 취소되고
+     * 이미 끝난 저장은 아래 메서드가 삭제한다. 실패 시점에 진행 중이던 저장은 끝난 후 스스로 삭제한다. 만약 삭제 연산 중 예외가 발생할
+     * 경우 후에 스케줄러에 의해 일괄 삭제될 수 있기 위해 {@code imageTrashCan}에 삭제되어야 할 이미지의 url을 {@code add}
+     * 한다.
+     * 
+     */
+    private List<String> storeAll(String[] uploadedFilenames, ObjectWriter writer) {
+        UploadBatch batch = new UploadBatch(uploadedFilenames.length);
+        List<Future<String>> futures = new ArrayList<>(uploadedFilenames.length);
 
-                          s3Client.putObject(putObjectRequest);
+        try {
+            for (int i = 0; i < uploadedFilenames.length; i++) {
+                String uploadedFilename = uploadedFilenames[i];
+                int index = i;
 
-                          uploaded.add(s3Client.getUrl(s3BucketName, uploadedFilename).toString());
+                futures.add(uploadExecutor.submit(() -> storeOne(batch, index, uploadedFilename, writer)));
+            }
 
-                      } catch (IOException e) {
-                          logger.info("Converting {} to RuntimeExceptoin.", e.toString());
+            List<String> uploaded = new ArrayList<>(uploadedFilenames.length);
 
-                          throw new RuntimeException(e);
-                      }
-                  });
-         } catch (RuntimeException e) {
+            for (Future<String> future : futures) {
+                uploaded.add(await(future));
+            }
+            return uploaded;
+        } catch (RuntimeException e) {
 
-             if (logger.isInfoEnabled()) {
+            if (logger.isInfoEnabled()) {
                 logger.info("Uploading images failed due to occurrence of {}", e.toString());
-             }
+            }
+
+            futures.forEach(future -> future.cancel(false));
+
+            List<String> uploaded = batch.abort();
 
-             if (!uploaded.isEmpty()) {
+            if (!uploaded.isEmpty()) {
                 logger.info("Starting to delete aleady uploaded images.");
 
                 try {
-                    deleteAll(uploaded.toArray(new String[uploaded.size()]));
+                    deleteUploaded(uploaded);
                 } catch (AmazonClientException ex) {
-                    logger.error("Deleting files from amazon S3 failed due to", ex);
- 
-                    logger.info(
-                           "Putting image urls into image trash can. Images in amazon S3 will be deleted by scheduler.");
-
-                    imageTrashCan.addAll(uploaded);
-
                     e.addSuppressed(ex);
                 }
             }
             throw e;
         }
+    }
 
-        return uploaded;
+    /**
+     * 
+     * 객체 하나를 저장한다. {@link S3UploadExecutor}의 스레드에서 수행된다. 저장 도중 같은 요청의 다른 저장이 실패하였다면
+     * 방금 저장한 객체를 삭제한다.
+     * 
+     */
+    private String storeOne(UploadBatch batch, int index, String uploadedFilename, ObjectWriter writer) {
+        if (batch.isAborted()) {
+            return null;
+        }
+
+        writer.write(index, uploadedFilename);
+
+        if (!batch.complete(index, uploadedFilename)) {
+            logger.info("Deleting image uploaded after the other upload failed. file name : {}", uploadedFilename);
+
+            try {
+                deleteUploaded(Collections.singletonList(uploadedFilename));
+            } catch (AmazonClientException e) {
+                // 요청 스레드는 이미 반환되었으므로 imageTrashCan에 담긴 것으로 충분하다.
+            }
+            return null;
+        }
+
+        return s3Client.getUrl(s3BucketName, uploadedFilename).toString();
+    }
+
+    private void putObject(MultipartFile file, String uploadedFilename) {
+        ObjectMetadata metaData = new ObjectMetadata();
+        metaData.setContentLength(file.getSize());
+        metaData.setContentType(file.getContentType());
+
+        try (InputStream ins = file.getInputStream()) {
+
+            PutObjectRequest putObjectRequest = new PutObjectRequest(s3BucketName, uploadedFilename, ins, metaData);
+            putObjectRequest.setCannedAcl(CannedAccessControlList.PublicRead);
+            putObjectRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
+
+            s3Client.putObject(putObjectRequest);
+
+        } catch (IOException e) {
+            logger.info("Converting {} to RuntimeExceptoin.", e.toString());
+
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * 
+     * 작업 {@code count}개를 {@link S3UploadExecutor}에서 동시에 수행하고 결과를 순서대로 반환한다. 하나라도 실패하면 아직
+     * 시작되지 않은 작업은 취소된다.
+     * 
+     */
+    private List<String> runAll(int count, IntFunction<String> task) {
+        List<Future<String>> futures = new ArrayList<>(count);
+
+        try {
+            for (int i = 0; i < count; i++) {
+                int index = i;
+
+                futures.add(uploadExecutor.submit(() -> task.apply(index)));
+            }
+
+            List<String> results = new ArrayList<>(count);
+
+            for (Future<String> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(false));
+            throw e;
+        }
+    }
+
+    /**
+     * 
+     * pre-signed url의 서명은 {@code Content-Type}만 고정하며 크기는 제한하지 못하므로 임시 객체의 크기와 형식을 확인한 후
+     * key를 만든다. 확장자는 업로드 슬롯 발급 시 확인된 임시 객체 key의 확장자를 사용한다.
+     * 
+     */
+    private String resolveStagedObject(String stagingKey, long maxSize) {
+        ObjectMetadata metadata;
+
+        try {
+            GetObjectMetadataRequest metadataRequest = new GetObjectMetadataRequest(s3BucketName, stagingKey);
+            metadataRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
+
+            metadata = s3Client.getObjectMetadata(metadataRequest);
+        } catch (AmazonServiceException e) {
+            if (e.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                throw new InvalidStagedImageException("Staged image does not exist.", stagingKey);
+            }
+            throw e;
+        }
+
+        if (metadata.getContentLength() > maxSize) {
+            throw new InvalidStagedImageException(
+                    "Staged image is larger than " + maxSize + " bytes. size : " + metadata.getContentLength(),
+                    stagingKey);
+        }
+        if (Objects.isNull(metadata.getContentType()) || !metadata.getContentType().startsWith("image/")) {
+            throw new InvalidStagedImageException(
+                    "Staged object is not an image. content type : " + metadata.getContentType(), stagingKey);
+        }
+
+        String md5 = metadata.getETag();
+
+        if (Objects.isNull(md5) || !MD5_ETAG.matcher(md5).matches() || Objects.nonNull(metadata.getSSEAwsKmsKeyId())) {
+            logger.debug("ETag of {} is not MD5 of its content. Computing hash by reading the object.", stagingKey);
+
+            md5 = computeMd5(stagingKey);
+        }
+
+        int extensionIndex = stagingKey.lastIndexOf('.');
+        String extension = extensionIndex > stagingKey.lastIndexOf('/') ? stagingKey.substring(extensionIndex) : "";
+
+        return CONTENT_KEY_PREFIX + md5 + extension.toLowerCase();
+    }
+
+    private String computeMd5(String stagingKey) {
+        GetObjectRequest getObjectRequest = new GetObjectRequest(s3BucketName, stagingKey);
+        getObjectRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
+
+        try (S3Object object = s3Client.getObject(getObjectRequest);
+                InputStream ins = object.getObjectContent()) {
+
+            return BinaryUtils.toHex(Md5Utils.computeMD5Hash(ins));
+        } catch (IOException e) {
+            throw new AmazonClientException("Reading file " + stagingKey + " from S3 failed.", e);
+        }
+    }
+
+    /**
+     * 
+     * 내용이 같으면 key가 같으므로 이미 존재하는 객체는 다시 복사하지 않는다. 존재 여부 확인과 복사 사이에 객체가 삭제되지 않는 것은
+     * 호출한 쪽이 복사 전에 참조 수를 증가시켜 보장한다.
+     * 
+     */
+    private String copyStagedObject(String stagingKey, String key) {
+        if (exists(key)) {
+            logger.debug("Image with same content already exists. Skipping copy of {} to {}.", stagingKey, key);
+
+            return urlOf(key);
+        }
+
+        CopyObjectRequest copyObjectRequest = new CopyObjectRequest(s3BucketName, stagingKey, s3BucketName, key)
+                .withCannedAccessControlList(CannedAccessControlList.PublicRead);
+        copyObjectRequest.setSdkRequestTimeout(uploadExecutor.getTimeoutMillis());
+
+        s3Client.copyObject(copyObjectRequest);
+
+        return urlOf(key);
+    }
+
+    private String await(Future<String> future) {
+        try {
+            return future.get(uploadExecutor.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            uploadExecutor.recordTimeout();
+            throw new AmazonClientException(
+                    "Uploading image did not finish in " + uploadExecutor.getTimeoutMillis() + " ms.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while waiting for image upload.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AmazonClientException("Uploading image failed.", cause);
+        }
+    }
+
+    /**
+     * 
+     * 업로드된 파일을 삭제한다. 삭제에 실패할 경우 스케줄러가 후에 삭제할 수 있도록 {@code imageTrashCan}에 url을 담는다.
+     * 
+     * @throws AmazonClientException
+     *             S3 삭제 연산 중 오류가 발생할 경우 {@code imageTrashCan}에 url을 담은 후 다시 던져진다.
+     * 
+     */
+    private void deleteUploaded(List<String> uploadedFilenames) {
+        try {
+            delete(uploadedFilenames.toArray(new String[uploadedFilenames.size()]));
+        } catch (AmazonClientException ex) {
+            logger.error("Deleting files from amazon S3 failed due to", ex);
+
+            logger.info("Putting image urls into image trash can. Images in amazon S3 will be deleted by scheduler.");
+
+            uploadedFilenames.forEach(
+                    uploadedFilename -> imageTrashCan.add(s3Client.getUrl(s3BucketName, uploadedFilename).toString()));
+
+            throw ex;
+        }
     }
 
     /**
@@ -185,4 +551,56 @@ public class S3MultipartDAO implements MultipartDAO {
         s3Client.deleteObjects(dor);
     }
 
+    // Nested Classes
+    // ==========================================================================================================================
+
+    @FunctionalInterface
+    private interface ObjectWriter {
+
+        void write(int index, String uploadedFilename);
+    }
+
+    /**
+     * 한 번의 {@link S3MultipartDAO#storeAll(String[], ObjectWriter)} 호출에서 업로드가 끝난 파일 이름을 기록한다. 실패한 요청의
+     * 정리 작업과 진행 중이던 업로드의 완료가 동시에 일어나더라도 업로드된 파일은 둘 중 정확히 한 쪽에서 삭제된다.
+     */
+    private static class UploadBatch {
+
+        private final String[] uploadedFilenames;
+        private boolean aborted;
+
+        UploadBatch(int size) {
+            this.uploadedFilenames = new String[size];
+        }
+
+        synchronized boolean isAborted() {
+            return aborted;
+        }
+
+        /**
+         * @return 이미 실패 처리된 요청일 경우 {@code false}. 업로드한 파일은 호출한 쪽에서 삭제해야 한다.
+         */
+        synchronized boolean complete(int index, String uploadedFilename) {
+            if (aborted) {
+                return false;
+            }
+            uploadedFilenames[index] = uploadedFilename;
+            return true;
+        }
+
+        /**
+         * @return 실패 처리 시점까지 업로드가 끝난 파일 이름.
+         */
+        synchronized List<String> abort() {
+            aborted = true;
+
+            List<String> uploaded = new ArrayList<>();
+            for (String uploadedFilename : uploadedFilenames) {
+                if (uploadedFilename != null) {
+                    uploaded.add(uploadedFilename);
+                }
+            }
+            return uploaded;
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.jisang.persistence;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ *
+ * {@link S3MultipartDAO}가 이미지 업로드에 사용하는 크기가 제한된 스레드 풀이다. 모든 요청이 하나의 스레드 풀을 공유하므로 동시에
+ * 수행되는 S3 업로드 수는 요청 수와 관계 없이 {@code concurrency}로 제한된다.
+ *
+ * 대기열({@code queue-capacity})이 가득 찼을 경우 업로드는 거부되지 않고 요청 스레드에서 직접 수행된다. 즉 S3가 느려지면
+ * 업로드는 순차 업로드와 같은 속도로 자연스럽게 느려질 뿐 실패하지 않는다.
+ *
+ * 업로드 횟수와 실패, 시간 초과 횟수, 평균 업로드 시간은 JMX를 통해 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=S3UploadExecutor", description = "S3 image upload executor")
+public class S3UploadExecutor {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(S3UploadExecutor.class);
+
+    @Value("${aws.s3.upload.concurrency:8}")
+    private int concurrency;
+    @Value("${aws.s3.upload.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${aws.s3.upload.timeout-millis:30000}")
+    private int timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder uploaded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalUploadNanos = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "s3-uploader-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 진행 중인 업로드는 최대 {@code timeout-millis} 동안 끝나기를 기다린다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> Future<T> submit(Callable<T> upload) {
+        return executor.submit(() -> {
+            long startedAt = System.nanoTime();
+
+            try {
+                T result = upload.call();
+
+                uploaded.increment();
+                totalUploadNanos.add(System.nanoTime() - startedAt);
+                return result;
+            } catch (Exception e) {
+                failed.increment();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * 업로드가 아닌 부수 작업(임시 객체 삭제 등)을 결과를 기다리지 않고 수행한다. 작업의 예외는 무시되며 통계에 포함되지 않는다.
+     */
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Background storage task failed. cause : {}", e.toString());
+            }
+        });
+    }
+
+    /**
+     * 업로드 하나에 허용되는 시간이다. S3 요청 자체의 제한 시간과 업로드 결과를 기다리는 시간에 모두 사용된다.
+     */
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    void recordTimeout() {
+        timedOut.increment();
+    }
+
+    @ManagedAttribute(description = "Number of upload threads")
+    public int getConcurrency() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @ManagedAttribute(description = "Number of uploads currently running")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of uploads waiting in the queue")
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Number of finished uploads")
+    public long getUploadedCount() {
+        return uploaded.sum();
+    }
+
+    @ManagedAttribute(description = "Number of failed uploads")
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @ManagedAttribute(description = "Number of uploads the caller stopped waiting for")
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    @ManagedAttribute(description = "Average time spent uploading an image in milliseconds")
+    public double getAverageUploadMillis() {
+        long count = uploaded.sum();
+        return count == 0 ? 0 : totalUploadNanos.sum() / (count * 1_000_000.0);
+    }
+}
@@ -156,6 +156,14 @@ public class AspectPerAction {
             }
             logger.warn("Invalid JWT token detected. Required claim doesn't exist.");
             throw new JWTAuthenticationException("Invalid JWT token detected", e);
+        } catch (SignatureException e) {
+            if (logger.isInfoEnabled()) {
+                logger.info("Parsing JWT token failed.");
+                logger.info("{}#{} throws SignatureException.", jp.getTarget(), jp.getSignature().toShortString());
+                logger.info("Converting {} to JWTAuthenticationException...", e.toString());
+            }
+            logger.warn("Invalid JWT token detected. Signature does not match.");
+            throw new JWTAuthenticationException("Invalid JWT token detected", e);
         } catch (JwtException e) {
             if (logger.isInfoEnabled()) {
                 logger.info("Parsing JWT token failed.");
@@ -165,6 +173,10 @@ public class AspectPerAction {
             throw new InternalAuthenticationServiceException(e.toString(), e);
         } catch (AuthenticationNumberExpiredException e) {
             throw e;
+        } catch (JWTAuthenticationException e) {
+            // 파싱 이전의 사전 검사에서 거부된 토큰이다. AbstractJWTService 참고.
+            logger.info("Parsing JWT token failed. {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             logger.info("Parsing JWT token failed.");
             throw new InternalAuthenticationServiceException("An System exception occurred while trying to parse JWT.",
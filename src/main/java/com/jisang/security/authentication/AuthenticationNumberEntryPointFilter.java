@@ -144,7 +144,9 @@ public class AuthenticationNumberEntryPointFilter extends AbstractAuthentication
      * 
      * 유효성 검사 후의 메서드 진행 과정 중 {@link JwtException} 등의 예외가 발생할 경우 이는 인증 관련 예외가 아닌 인증
      * 성공 후 처리 도중에 발생한 예외이기 때문에 이를 {@link InternalAuthenticationServiceException}으로
-     * 변환하여 {@link #unsuccessfulAuthentication} 메서드에 전달한다.
+     * 변환하여 {@link #unsuccessfulAuthentication} 메서드에 전달한다. 인증 번호 전송 대기열이 가득 찼을 경우의
+     * {@link com.jisang.security.exception.AuthenticationOverloadedException} 역시
+     * {@link #unsuccessfulAuthentication} 메서드에 전달된다.
      * 
      * 
      * @param authentication
@@ -169,8 +171,6 @@ public class AuthenticationNumberEntryPointFilter extends AbstractAuthentication
             String notificationEndPoint = (String) authentication.getCredentials();
             String authenticationNumber = String.valueOf(new Random().nextInt(9999));
 
-            authNumberNotificationProvider.sendAuthenticationNumber(notificationEndPoint, authenticationNumber);
-
             AuthenticationNumberTokenDTO tokenDTO = new AuthenticationNumberTokenDTO();
 
             tokenDTO.setAuthenticationNumber(authenticationNumber);
@@ -178,12 +178,16 @@ public class AuthenticationNumberEntryPointFilter extends AbstractAuthentication
             tokenDTO.setUserEmail(userEmail);
 
             JWTService jwtService = jwtServiceResolver.resolveJWTService(tokenDTO.getClass());
+            String token = jwtService.buildToken(tokenDTO);
+
+            // 전송은 대기열에 넣기만 하고 바로 반환된다. 토큰 생성에 실패한 경우 SMS가 전송되지 않도록 토큰 생성 후에 호출한다.
+            authNumberNotificationProvider.sendAuthenticationNumber(notificationEndPoint, authenticationNumber);
 
             response.setStatus(HttpStatus.OK.value());
-            response.setHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + jwtService.buildToken(tokenDTO));
+            response.setHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + token);
 
-        } catch (InternalAuthenticationServiceException e) {
-            logger.warn("InternalAuthenticationServiceException catched in successfulAuthentication()");
+        } catch (AuthenticationException e) {
+            logger.warn("{} catched in successfulAuthentication()", e.getClass().getSimpleName());
             unsuccessfulAuthentication(request, response, e);
         }
     }
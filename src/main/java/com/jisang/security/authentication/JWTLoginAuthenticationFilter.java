@@ -35,10 +35,13 @@ import com.jisang.security.domain.TokenComponent;
 import com.jisang.security.dto.UserAuthTokenDTO;
 import com.jisang.security.exception.BadRequestParameterDetectedException;
 import com.jisang.security.exception.IllegalAuthenticationProviderUsedException;
+import com.jisang.security.exception.LoginAttemptsExceededException;
 import com.jisang.security.exception.handler.SecurityExceptionHandler;
+import com.jisang.security.persistence.AsyncTokenStoreWriter;
 import com.jisang.security.persistence.RedisUserDAO;
 import com.jisang.security.service.JWTService;
 import com.jisang.security.service.JWTServiceResolver;
+import com.jisang.security.support.LoginFailureLimiter;
 import com.jisang.security.validation.SecurityValidationDelegator;
 import com.jisang.security.validation.UserAuthentication;
 
@@ -74,6 +77,10 @@ public class JWTLoginAuthenticationFilter extends AbstractAuthenticationProcessi
     private SecurityValidationDelegator validator;
     @Autowired
     private RedisUserDAO redisUserDAO;
+    @Autowired
+    private AsyncTokenStoreWriter tokenStoreWriter;
+    @Autowired
+    private LoginFailureLimiter loginFailureLimiter;
 
     // Constructors
     // ==========================================================================================================================
@@ -102,6 +109,9 @@ public class JWTLoginAuthenticationFilter extends AbstractAuthenticationProcessi
      *             {@link SecurityExceptionhandler#handle(RuntimeException)} 메서드의 의해
      *             HTTP 401 응답으로 처리되어지는 UsernameNotFoundException,
      *             BadCredentialsException을 던지도록 하였다.
+     * @throws LoginAttemptsExceededException
+     *             {@link LoginFailureLimiter}가 활성화되어 있고 클라이언트 IP 또는 계정의 로그인 실패 횟수가 제한을
+     *             넘었을 경우 유저 정보 조회 없이 바로 던져진다.
      * @throws AuthenticationException
      *             이 메서드가 인증 작업을 위임하는 {@link AuthenticationProvider#authenticate()}
      *             메서드에서 발생하는 {@link AuthenticationException} 타입 예외들이 던져진다.
@@ -126,7 +136,18 @@ public class JWTLoginAuthenticationFilter extends AbstractAuthenticationProcessi
             throw new BadRequestParameterDetectedException("User email is not provided", PASSWORD_PARAMETER, password);
         }
 
-        return getAuthenticationManager().authenticate(new JWTUsernamePasswordAuthentication(userEmail, password));
+        loginFailureLimiter.checkAllowed(request.getRemoteAddr(), userEmail);
+
+        try {
+            Authentication authentication = getAuthenticationManager()
+                    .authenticate(new JWTUsernamePasswordAuthentication(userEmail, password));
+
+            loginFailureLimiter.recordSuccess(userEmail);
+            return authentication;
+        } catch (BadCredentialsException | UsernameNotFoundException e) {
+            loginFailureLimiter.recordFailure(request.getRemoteAddr(), userEmail);
+            throw e;
+        }
     }
 
     /**
@@ -180,7 +201,8 @@ public class JWTLoginAuthenticationFilter extends AbstractAuthenticationProcessi
             validator.validate(account, UserAuthentication.class);
 
             TokenComponent tokenComponent = new TokenComponent(account.getId(),
-                    UUID.randomUUID().toString().replace("-", ""));
+                    UUID.randomUUID().toString().replace("-", ""), null, System.currentTimeMillis());
+            tokenStoreWriter.discard(account.getId());
             redisUserDAO.update(tokenComponent);
 
             UserAuthTokenDTO tokenDTO = new UserAuthTokenDTO(account, tokenComponent);
@@ -130,7 +130,8 @@ public class JWTTokenAuthenticationFilter extends AbstractAuthenticationProcessi
      * {@link AuthenticationProvider#authenticate} 메서드가 반환한
      * {@code authentication}으로부터 token 정보를 담고 있는 {@link UserAuthTokenDTO}를 받아온다.
      * {@link #attemptAuthentication} 메서드에서 한 차례 JWT token에 대한 parsing이 이루어졌음에도 또 다시
-     * token 정보를 받는 이유는 JTI, IAT 등의 claim 정보가 갱신되었을 수 있기 때문이다. 이 클래스에서 발생한 예외는 이
+     * token 정보를 받는 이유는 JTI, IAT 등의 claim 정보가 갱신되었을 수 있기 때문이다. 새 JWT token은 JTI가 교체되었을
+     * 경우에만 서명되어 응답 헤더에 담기며, 응답 헤더에 토큰이 없을 경우 클라이언트는 기존 토큰을 계속 사용한다. 이 클래스에서 발생한 예외는 이
      * 메서드를 호출한 {@link AbstractAuthenticationProcessingFilter#doFilter}에 전달되지 않게
      * 하기위해 {@link #unsuccessfulAuthentication}메서드로 전달된다. 이 후의 {@link Filter}에서 알 수
      * 있도록 {@link SecurityContextHolder}에 인증 정보를 담은
@@ -155,9 +156,6 @@ public class JWTTokenAuthenticationFilter extends AbstractAuthenticationProcessi
 
             validator.validate(tokenDTO, JWTBasedUserAuthentication.class);
 
-            String jwt = jwtServiceResolver.resolveJWTService(tokenDTO.getClass())
-                                           .buildToken(tokenDTO);
-
             DefaultUserDetailsAuthentication userAuth = new DefaultUserDetailsAuthentication(
                                                 new DefaultUserDetails(tokenDTO.getAccount()), true);
 
@@ -165,9 +163,14 @@ public class JWTTokenAuthenticationFilter extends AbstractAuthenticationProcessi
             sc.setAuthentication(userAuth);
             SecurityContextHolder.setContext(sc);
 
-            logger.debug("Setting jwt token to response object...");
+            if (tokenDTO.isRotated()) {
+                String jwt = jwtServiceResolver.resolveJWTService(tokenDTO.getClass())
+                                               .buildToken(tokenDTO);
+
+                logger.debug("Setting jwt token to response object...");
 
-            response.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + jwt);
+                response.addHeader(JWTService.JWT_HEADER_NAME, JWTService.JWT_PREFIX + jwt);
+            }
 
             chain.doFilter(request, response);
 
@@ -2,9 +2,11 @@ package com.jisang.security.authentication.handler;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.servlet.ServletException;
@@ -13,10 +15,12 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jisang.security.dto.SecurityErrorDTO;
 import com.jisang.security.exception.handler.AbstractSecurityExceptionHandler;
@@ -28,6 +32,10 @@ import com.jisang.security.exception.handler.SecurityExceptionHandler;
  * 인증이 실패했을 때 이용 될 수 있는 클래스로 예외를 처리하고 해당 예외에 알맞은 HTTP 응답을 설정한다. {@link Set} 타입
  * {@code exceptionHandlers} 필드를 통해 예외 타입에 따라 적절한 응답 설정을 할 수 있도록 작업을 위임한다.
  * 
+ * 잘못된 토큰을 담은 공격 트래픽에서는 인증 실패마다 이 클래스가 호출되므로 예외 타입 별로 선택된
+ * {@link SecurityExceptionHandler}를 기억해 두고, 상세 정보(details)가 없는 오류 응답은 직렬화된 문자열을 기억해 두어
+ * 재사용한다. 상세 정보가 없는 응답은 status와 메세지만으로 결정되며 메세지는 {@link MessageSource}로부터 얻는 유한한 값들이다.
+ * 
  * 
  * @author leeseunghyun
  *
@@ -47,12 +55,20 @@ public class RestAuthenticationFailureHandler implements AuthenticationFailureHa
      */
     private final List<SecurityExceptionHandler<AuthenticationException>> exceptionHandlers = new CopyOnWriteArrayList<>();
 
+    /** 직렬화된 오류 응답을 기억해 둘 최대 개수. */
+    private static final int MAX_SERIALIZED_BODIES = 256;
+
     // Instance Fields
     // ==========================================================================================================================
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private final ObjectMapper objMapper = new ObjectMapper();
 
+    /** 예외 타입 -> 선택된 {@link SecurityExceptionHandler}. {@link #addExceptionHandler} 호출 시 비워진다. */
+    private final Map<Class<? extends AuthenticationException>, SecurityExceptionHandler<AuthenticationException>> resolvedHandlers = new ConcurrentHashMap<>();
+    /** "status:message" -> 직렬화된 오류 응답 */
+    private final Map<String, String> serializedBodies = new ConcurrentHashMap<>();
+
     // Constructors
     // ==========================================================================================================================
 
@@ -128,7 +144,32 @@ public class RestAuthenticationFailureHandler implements AuthenticationFailureHa
             logger.debug("Searching exception handler for {}", exception.toString());
         }
 
-        SecurityErrorDTO errDTO = exceptionHandlers.stream().filter(handler -> handler.supports(exception.getClass()))
+        SecurityExceptionHandler<AuthenticationException> handler = Optional
+                .ofNullable(resolvedHandlers.computeIfAbsent(exception.getClass(), this::selectExceptionHandler))
+                .orElseThrow(() -> new IllegalArgumentException("Cannot resolve an exception argument"));
+
+        logger.debug("Selected exception handler : {}", handler);
+
+        SecurityErrorDTO errDTO = handler.handle(exception, request.getLocale());
+
+        logger.debug("Handling exception succeeded. Processing to build response...");
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(errDTO.getStatus());
+        response.getWriter().write(serialize(errDTO));
+
+    }
+
+    /**
+     * @return 전달 받은 예외 타입을 처리할 수 있는 {@link SecurityExceptionHandler}가 없을 경우 null.
+     */
+    private SecurityExceptionHandler<AuthenticationException> selectExceptionHandler(
+            Class<? extends AuthenticationException> exceptionType) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Resolving exception handler for {}", exceptionType);
+        }
+
+        return exceptionHandlers.stream().filter(handler -> handler.supports(exceptionType))
                 .min((handler1, handler2) -> {
                     if (handler1.supportedException().isAssignableFrom(handler2.supportedException())) {
                         return 1;
@@ -137,17 +178,25 @@ public class RestAuthenticationFailureHandler implements AuthenticationFailureHa
                     } else {
                         return 0;
                     }
-                }).map(handler -> {
-                    logger.debug("Selected exception handler : {}", handler);
-                    return handler.handle(exception, request.getLocale());
-                }).orElseThrow(() -> new IllegalArgumentException("Cannot resolve an exception argument"));
+                }).orElse(null);
+    }
 
-        logger.debug("Handling exception succeeded. Processing to build response...");
+    private String serialize(SecurityErrorDTO errDTO) throws JsonProcessingException {
+        if (!errDTO.getDetails().isEmpty()) {
+            return objMapper.writeValueAsString(errDTO);
+        }
 
-        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        response.setStatus(errDTO.getStatus());
-        response.getWriter().write(objMapper.writeValueAsString(errDTO));
+        String key = errDTO.getStatus() + ":" + errDTO.getMessage();
+        String body = serializedBodies.get(key);
 
+        if (body == null) {
+            body = objMapper.writeValueAsString(errDTO);
+
+            if (serializedBodies.size() < MAX_SERIALIZED_BODIES) {
+                serializedBodies.put(key, body);
+            }
+        }
+        return body;
     }
 
     /**
@@ -182,6 +231,7 @@ public class RestAuthenticationFailureHandler implements AuthenticationFailureHa
             @SuppressWarnings("unchecked")
             SecurityExceptionHandler<AuthenticationException> castedExHandler = (SecurityExceptionHandler<AuthenticationException>) exHandler;
             exceptionHandlers.add(castedExHandler);
+            resolvedHandlers.clear();
 
             if (logger.isDebugEnabled()) {
                 logger.debug("Adding SecurityExceptionHandler succeeded.");
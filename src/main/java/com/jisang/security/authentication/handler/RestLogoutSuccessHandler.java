@@ -15,6 +15,7 @@ import org.springframework.util.StringUtils;
 
 import com.jisang.security.dto.UserAuthTokenDTO;
 import com.jisang.security.exception.JWTAuthenticationException;
+import com.jisang.security.persistence.AsyncTokenStoreWriter;
 import com.jisang.security.persistence.RedisUserDAO;
 import com.jisang.security.service.JWTService;
 import com.jisang.security.service.JWTServiceResolver;
@@ -39,6 +40,8 @@ public class RestLogoutSuccessHandler extends SimpleUrlLogoutSuccessHandler {
     @Autowired
     private RedisUserDAO userDAO;
     @Autowired
+    private AsyncTokenStoreWriter tokenStoreWriter;
+    @Autowired
     private JWTServiceResolver jwtServiceResolver;
 
     // Constructors
@@ -68,6 +71,7 @@ public class RestLogoutSuccessHandler extends SimpleUrlLogoutSuccessHandler {
         UserAuthTokenDTO userTokenDTO = (UserAuthTokenDTO) jwtServiceResolver.resolveJWTService(UserAuthTokenDTO.class)
                 .parseToken(tokenHeader.substring(JWTService.JWT_PREFIX.length(), tokenHeader.length()));
 
+        tokenStoreWriter.discard(userTokenDTO.getAccount().getId());
         userDAO.delete(userTokenDTO.getAccount().getId());
 
         response.setStatus(HttpStatus.CREATED.value());
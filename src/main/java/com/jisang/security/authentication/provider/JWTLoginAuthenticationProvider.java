@@ -11,7 +11,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -21,12 +20,16 @@ import com.jisang.security.core.JWTAuthentication;
 import com.jisang.security.core.JWTUsernamePasswordAuthentication;
 import com.jisang.security.core.userdetails.DefaultUserDetails;
 import com.jisang.security.dto.UserAuthTokenDTO;
+import com.jisang.security.exception.AuthenticationOverloadedException;
+import com.jisang.security.support.PasswordVerificationExecutor;
 
 /**/
 /**
  * 
  * jisang 어플리케이션의 로그인 인증을 담당하는 AuthenticationProvider 구현 클래스.
  * 
+ * 비밀번호 검증은 요청 스레드가 아닌 {@link PasswordVerificationExecutor}에서 수행된다.
+ * 
  * 
  * @author leeseunghyun
  * 
@@ -42,7 +45,7 @@ public class JWTLoginAuthenticationProvider implements AuthenticationProvider {
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerificationExecutor passwordVerifier;
     @Autowired
     @Qualifier("default")
     private UserDetailsService service;
@@ -71,6 +74,8 @@ public class JWTLoginAuthenticationProvider implements AuthenticationProvider {
      *             요청된 계정 정보의 비밀번호가 올바르지 않을 경우 던져진다.
      * @throws UsernameNotFoundException
      *             요청 파라미터(유저 아이디)에 해당하는 유저 정보가 없을 경우 던져진다.
+     * @throws AuthenticationOverloadedException
+     *             비밀번호 검증 스레드 풀이 포화 상태일 경우 던져진다.
      * 
      */
     @Override
@@ -79,11 +84,7 @@ public class JWTLoginAuthenticationProvider implements AuthenticationProvider {
 
         UserDetails userDetails = service.loadUserByUsername((String) authentication.getPrincipal());
 
-        if (!passwordEncoder.matches((String) authentication.getCredentials(), userDetails.getPassword())) {
-            if (logger.isDebugEnabled()) {
-                logger.debug("Expected phone number to be : {}, but was {}.", userDetails.getPassword(),
-                        passwordEncoder.encode((String) authentication.getCredentials()));
-            }
+        if (!passwordVerifier.matches((String) authentication.getCredentials(), userDetails.getPassword())) {
             logger.info("Throwing BadCredentialsException...");
 
             throw new BadCredentialsException("Invalid password.");
@@ -3,8 +3,7 @@ package com.jisang.security.authentication.provider;
 import java.util.Optional;
 import java.util.Random;
 import java.util.UUID;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +20,9 @@ import com.jisang.security.core.UserAuthTokenDTOAuthentication;
 import com.jisang.security.domain.TokenComponent;
 import com.jisang.security.dto.UserAuthTokenDTO;
 import com.jisang.security.exception.JWTAuthenticationException;
+import com.jisang.security.persistence.AsyncTokenStoreWriter;
 import com.jisang.security.persistence.RedisUserDAO;
+import com.jisang.security.support.JTIRotationPolicy;
 import com.jisang.security.validation.JWTBasedUserAuthentication;
 import com.jisang.security.validation.SecurityValidationDelegator;
 
@@ -47,6 +48,10 @@ public class JWTTokenAuthenticationProvider implements AuthenticationProvider {
     @Autowired
     private RedisUserDAO userDAO;
     @Autowired
+    private AsyncTokenStoreWriter tokenStoreWriter;
+    @Autowired
+    private JTIRotationPolicy rotationPolicy;
+    @Autowired
     private SecurityValidationDelegator validator;
 
     // Constructors
@@ -65,6 +70,12 @@ public class JWTTokenAuthenticationProvider implements AuthenticationProvider {
      * 일단은 갱신 기간 마다 JTI를 검사하겠다는 정책은 유지하기로 하였다. 갱신 기간을 기존 30분에서 10분 정도로 더 줄이면 보다 더
      * 안전할 수 있겠다.
      * 
+     * 새 JTI는 {@link JTIRotationPolicy}에 따라 교체 시점이 된 경우에만 발급된다. 교체되지 않은 경우
+     * {@link UserAuthTokenDTO#isRotated()}는 false이며 필터는 새 토큰을 서명하지 않는다.
+     * 
+     * 새로 발급한 JTI의 저장은 {@link AsyncTokenStoreWriter}에 맡긴다. 인증 요청마다 스레드 풀을 생성하던 이전 구현과 달리
+     * 하나의 writer 스레드가 갱신 요청을 모아 redis에 반영한다.
+     * 
      * 이 메서드를 보면 random byte 배열을 생성하고 있음을 알 수 있다. {@link Random#nextBytes}메서드는 내부적으로
      * {@link Random#nextInt} 메서드를 호출하는데
      * 
@@ -90,19 +101,65 @@ public class JWTTokenAuthenticationProvider implements AuthenticationProvider {
                     return new InternalAuthenticationServiceException("Illegal Authentication argument detected.");
                 });
 
-        authenticateInternal(tokenDTO);
+        long now = System.currentTimeMillis();
 
-        tokenDTO.getTokenComponent().setJti(UUID.randomUUID().toString().replace("-", ""));
+        TokenComponent stored = authenticateInternal(tokenDTO, now);
 
-        Executor executor = Executors.newCachedThreadPool();
-        executor.execute(() -> userDAO.update(tokenDTO.getTokenComponent()));
+        if (tokenDTO.getTokenComponent().getJti().equals(stored.getJti())
+                && rotationPolicy.shouldRotate(stored, now)) {
+            rotateJti(tokenDTO, now);
+        }
 
         return new UserAuthTokenDTOAuthentication(tokenDTO);
     }
 
     /**
      * 
-     * 토큰의 갱신 기간이 지났을 경우에만 호출되는 메서드로 JTI 비교를 통한 인증을 수행한다. 인증에 실패할 경우 예외를 던진다.
+     * 새 JTI를 발급하여 {@code tokenDTO}에 담고 {@link UserAuthTokenDTO#isRotated()}를 true로 설정한다. 같은 서버
+     * 인스턴스에서 같은 유저의 JTI가 동시에 교체되지 않도록 lock을 얻은 뒤 저장된 JTI를 다시 확인한다. 그 사이 다른 요청이 이미
+     * JTI를 교체하였다면 이 요청의 JTI는 유예 기간 내의 이전 JTI가 되었으므로 교체하지 않는다.
+     * 
+     */
+    private void rotateJti(UserAuthTokenDTO tokenDTO, long now) {
+        int uid = tokenDTO.getAccount().getId();
+
+        Lock lock = rotationPolicy.rotationLock(uid);
+        lock.lock();
+        try {
+            TokenComponent stored = findStored(uid);
+
+            if (!tokenDTO.getTokenComponent().getJti().equals(stored.getJti())) {
+                logger.debug("JTI of user {} was rotated by another request.", uid);
+                return;
+            }
+
+            TokenComponent rotated = rotationPolicy.rotate(stored, UUID.randomUUID().toString().replace("-", ""),
+                    now);
+
+            tokenStoreWriter.submit(rotated);
+
+            tokenDTO.setTokenComponent(rotated);
+            tokenDTO.setRotated(true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 아직 redis에 반영되지 않은 토큰 정보가 있다면 그것이 마지막으로 발급된 토큰 정보이다.
+     */
+    private TokenComponent findStored(int uid) {
+        TokenComponent pending = tokenStoreWriter.findPending(uid);
+
+        return pending != null ? pending : userDAO.find(uid);
+    }
+
+    /**
+     * 
+     * JTI 비교를 통한 인증을 수행한다. 토큰의 JTI가 저장된 현재 JTI이거나 유예 기간 내의 이전 JTI일 경우 인증에 성공한다.
+     * ({@link JTIRotationPolicy} 참고) 인증에 실패할 경우 예외를 던진다.
+     * 
+     * @return 인증에 사용된 저장된 토큰 정보
      * 
      * @throws BadCredentialsException
      *             JWT token이 담고 있는 JTI 데이터가 데이터베이스로부터 가져온 유저의 JTI와 다를 경우 던져진다. 또한
@@ -113,17 +170,25 @@ public class JWTTokenAuthenticationProvider implements AuthenticationProvider {
      *             시도했을 때 발생할 수 있다.
      * 
      */
-    private void authenticateInternal(UserAuthTokenDTO tokenDTO) {
+    private TokenComponent authenticateInternal(UserAuthTokenDTO tokenDTO, long now) {
         if (logger.isDebugEnabled()) {
             logger.debug("Starting JTI validation...");
         }
 
         validator.validate(tokenDTO, JWTBasedUserAuthentication.class);
 
+        TokenComponent stored;
+
         try {
-            TokenComponent tokenComponent = userDAO.find(tokenDTO.getAccount().getId());
+            stored = findStored(tokenDTO.getAccount().getId());
 
-            if (!tokenDTO.getTokenComponent().getJti().equals(tokenComponent.getJti())) {
+            // 캐싱된 토큰 정보가 다른 서버 인스턴스의 JTI 교체를 아직 모르고 있을 수 있으므로 거부하기 전에 한 번 다시 읽는다.
+            if (!rotationPolicy.isAcceptable(stored, tokenDTO.getTokenComponent().getJti(), now)
+                    && tokenStoreWriter.findPending(tokenDTO.getAccount().getId()) == null) {
+                stored = userDAO.reload(tokenDTO.getAccount().getId());
+            }
+
+            if (!rotationPolicy.isAcceptable(stored, tokenDTO.getTokenComponent().getJti(), now)) {
                 logger.warn("Illegal JWT token detected! : JTI is invalid. JTI : {}",
                         tokenDTO.getTokenComponent().getJti());
                 throw new JWTAuthenticationException("Invalid JTI detected");
@@ -136,6 +201,8 @@ public class JWTTokenAuthenticationProvider implements AuthenticationProvider {
         if (logger.isDebugEnabled()) {
             logger.debug("JTI validation succeeded...");
         }
+
+        return stored;
     }
 
     /**
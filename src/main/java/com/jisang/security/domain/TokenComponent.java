@@ -31,6 +31,11 @@ import com.jisang.security.validation.UserAuthentication;
  * 파트(의 Use hashes when possible 이하)에 따르면 작은 field를 갖는 Hash가 위의 전자의 방법(예 :
  * user:1:jti)보다 더 메모리 효율적이라고 한다. 이런 점으로부터 redis Hash를 사용하기로 하였다.
  * 
+ * 이후 JTI 교체 정보가 추가되고 토큰 정보에 만료 기한이 필요해지면서 토큰 정보는 {@code token:1} key에
+ * {@code jti:previousJti:rotatedAt} 형식의 문자열 하나로 저장하도록 변경되었다. 세 값을 항상 함께 읽고 쓰므로 Hash의
+ * field 별 접근이 필요 없으며, 문자열 하나는 {@code SET ... EX} 한 번으로 값과 만료 기한을 함께 쓸 수 있다.
+ * ({@link RedisUserDAO} 참고)
+ * 
  * 
  * @author leeseunghyun
  * @see https://redis.io/topics/memory-optimization
@@ -46,6 +51,14 @@ public class TokenComponent implements Serializable {
     @NotBlank(groups = { UserAuthentication.class, JWTBuilding.class })
     private String jti;
 
+    /**
+     * JTI 교체 직전의 JTI. 교체 직후 잠시 동안은 이전 JTI를 담은 토큰도 유효한 토큰으로 인정된다.
+     * {@code JTIRotationPolicy}를 참고.
+     */
+    private String previousJti;
+    /** 현재 JTI가 발급된 시각(epoch millis). */
+    private Long rotatedAt;
+
     public TokenComponent() {
     }
 
@@ -54,6 +67,12 @@ public class TokenComponent implements Serializable {
         this.jti = jti;
     }
 
+    public TokenComponent(int id, String jti, String previousJti, long rotatedAt) {
+        this(id, jti);
+        this.previousJti = previousJti;
+        this.rotatedAt = rotatedAt;
+    }
+
     public int getId() {
         return id;
     }
@@ -70,9 +89,26 @@ public class TokenComponent implements Serializable {
         this.jti = jti;
     }
 
+    public String getPreviousJti() {
+        return previousJti;
+    }
+
+    public void setPreviousJti(String previousJti) {
+        this.previousJti = previousJti;
+    }
+
+    public Long getRotatedAt() {
+        return rotatedAt;
+    }
+
+    public void setRotatedAt(Long rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+
     @Override
     public String toString() {
-        return getClass().getName() + "[id=" + id + ", jti=" + jti + "]";
+        return getClass().getName() + "[id=" + id + ", jti=" + jti + ", previousJti=" + previousJti + ", rotatedAt="
+                + rotatedAt + "]";
     }
 
 }
@@ -91,6 +91,15 @@ public class UserAuthTokenDTO implements TokenDTO {
     @NotBlank(groups = { JWTParsing.class })
     private String token;
 
+    // Instance Fields from authentication
+    // ==========================================================================================================================
+
+    /**
+     * 인증 과정에서 JTI가 교체되었을 경우 true. true일 경우에만 새 JWT token이 서명되어 응답에 담긴다.
+     * {@code JTIRotationPolicy} 참고.
+     */
+    private boolean rotated;
+
     // Constructors
     // ==========================================================================================================================
 
@@ -130,10 +139,18 @@ public class UserAuthTokenDTO implements TokenDTO {
         this.tokenComponent = tokenComponent;
     }
 
+    public boolean isRotated() {
+        return rotated;
+    }
+
+    public void setRotated(boolean rotated) {
+        this.rotated = rotated;
+    }
+
     @Override
     public String toString() {
         return getClass().getName() + "[account=" + account + ", tokenComponent=" + tokenComponent + ", token=" + token
-                + "]";
+                + ", rotated=" + rotated + "]";
     }
 
     /*
@@ -0,0 +1,27 @@
+package com.jisang.security.exception;
+
+/**
+ * 
+ * 비밀번호 검증 스레드 풀이 포화 상태여서 비밀번호 검증을 수행하지 않고 거부할 때 사용되는 예외 클래스이다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class AuthenticationOverloadedException extends SecurityThrottledException {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long serialVersionUID = 7705283124930614528L;
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public AuthenticationOverloadedException(String msg) {
+        super(msg);
+    }
+
+    public AuthenticationOverloadedException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
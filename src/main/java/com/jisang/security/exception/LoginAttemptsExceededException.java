@@ -0,0 +1,23 @@
+package com.jisang.security.exception;
+
+/**
+ * 
+ * 같은 IP 또는 같은 계정으로 짧은 시간 동안 너무 많은 로그인 실패가 발생하여 로그인 시도를 거부할 때 사용되는 예외 클래스이다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class LoginAttemptsExceededException extends SecurityThrottledException {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long serialVersionUID = -6021419539470321574L;
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public LoginAttemptsExceededException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,34 @@
+package com.jisang.security.exception;
+
+/**
+ * 
+ * 파싱 이전의 사전 검사에 실패하였거나 최근에 거부된 적이 있는 JWT token을 파싱 없이 거부할 때 사용되는 예외 클래스이다.
+ * 
+ * 공격 트래픽에서는 이 예외가 초당 수천 번 생성될 수 있는데, 거부 사유는 메세지만으로 충분하며 stack trace는 항상 같은 위치를
+ * 가리키므로 stack trace를 수집하지 않는다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class RejectedJWTException extends JWTAuthenticationException {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long serialVersionUID = 4150839246715539120L;
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public RejectedJWTException(String message) {
+        super(message);
+    }
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,31 @@
+package com.jisang.security.exception;
+
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * 
+ * 서버의 인증 처리 용량을 보호하기 위해 인증을 시도하지 않고 거부할 때 사용되는 예외 클래스이다. 인증 정보가 잘못되어 실패한 것이
+ * 아니므로 HTTP 401이 아닌 429 또는 503 응답으로 처리된다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class SecurityThrottledException extends AuthenticationException {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long serialVersionUID = 2913374810472265306L;
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public SecurityThrottledException(String msg) {
+        super(msg);
+    }
+
+    public SecurityThrottledException(String msg, Throwable cause) {
+        super(msg);
+        initCause(cause);
+    }
+}
@@ -0,0 +1,63 @@
+package com.jisang.security.exception.handler;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import org.springframework.context.MessageSource;
+import org.springframework.http.HttpStatus;
+
+import com.jisang.security.dto.SecurityErrorDTO;
+import com.jisang.security.exception.AuthenticationOverloadedException;
+import com.jisang.security.exception.LoginAttemptsExceededException;
+import com.jisang.security.exception.SecurityThrottledException;
+
+/**
+ * 
+ * {@link SecurityThrottledException} 타입 예외에 대한 {@link SecurityExceptionHandler} 구현이다.
+ * 
+ * 로그인 실패 횟수 제한에 의한 거부는 HTTP status 429 - Too Many Requests로, 비밀번호 검증 스레드 풀 포화에 의한 거부는
+ * HTTP status 503 - Service Unavailable로 응답한다. 두 경우 모두 인증 정보를 검사하지 않았으므로 401 응답은 적절하지
+ * 않다. 또한 부하 상황에서 발생하는 예외이므로 stack trace는 남기지 않는다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public class ThrottledRequestExceptionHandler extends AbstractSecurityExceptionHandler<SecurityThrottledException> {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final int HTTP_STATUS_TOO_MANY_REQUESTS = HttpStatus.TOO_MANY_REQUESTS.value();
+    private static final int HTTP_STATUS_SERVICE_UNAVAILABLE = HttpStatus.SERVICE_UNAVAILABLE.value();
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public ThrottledRequestExceptionHandler(MessageSource msgSource) {
+        super(SecurityThrottledException.class, msgSource);
+    }
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Override
+    public SecurityErrorDTO handle(SecurityThrottledException e, Locale locale) {
+        Objects.requireNonNull(e);
+
+        logger.warn("Request throttled : {}", e.toString());
+
+        if (e instanceof LoginAttemptsExceededException) {
+            return new SecurityErrorDTO(HTTP_STATUS_TOO_MANY_REQUESTS,
+                    msgSource.getMessage("security.exception.LoginAttemptsExceededException", null,
+                            "Too many failed login attempts. Try again later.", locale));
+        } else if (e instanceof AuthenticationOverloadedException) {
+            return new SecurityErrorDTO(HTTP_STATUS_SERVICE_UNAVAILABLE,
+                    msgSource.getMessage("security.exception.AuthenticationOverloadedException", null,
+                            "Server is busy. Try again later.", locale));
+        } else {
+            logger.warn("Argument e must be subtype of SecurityThrottledException. But argument e : {}."
+                      , e.toString());
+            throw new IllegalArgumentException("Unknown exception argument detected.");
+        }
+    }
+}
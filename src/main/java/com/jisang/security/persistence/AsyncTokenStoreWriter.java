@@ -0,0 +1,340 @@
+package com.jisang.security.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.jisang.security.domain.TokenComponent;
+
+/**
+ *
+ * {@link RedisUserDAO#update(TokenComponent)}를 대신 수행하는 비동기 writer이다.
+ *
+ * 이전 구현은 JWT token 인증마다 {@code Executors.newCachedThreadPool()}로 새 스레드 풀을 만들어 JTI 갱신을 수행하였다.
+ * 생성된 스레드 풀은 종료되지 않았으므로 부하가 높아질수록 스레드가 계속 생성되었으며 모든 인증 요청이 스레드 생성 비용을 부담하였다.
+ *
+ * 이 클래스는 어플리케이션 시작 시 하나의 writer 스레드를 생성하며 갱신 요청은 유저 id를 key로 하는 크기가 제한된 대기열에 쌓인다. 아직
+ * 반영되지 않은 같은 유저의 갱신 요청이 있을 경우 마지막 JTI만 남기므로(coalescing) 짧은 시간 동안 같은 유저의 요청이 몰리더라도
+ * redis 쓰기는 한 번만 일어난다. writer 스레드는 대기열의 요청을 최대 {@code batchSize}개씩 꺼내
+ * {@link RedisUserDAO#updateAll}을 통해 하나의 파이프라인으로 반영한다.
+ *
+ * 대기열이 가득 찬 상태에서 대기열에 없는 유저의 갱신 요청이 들어올 경우 요청 스레드가 직접 {@link RedisUserDAO#update}를
+ * 수행한다. JTI 갱신을 버리면 클라이언트가 받은 새 토큰이 다음 인증에서 거부되므로 버리는 대신 요청 스레드를 느리게 만드는 쪽을
+ * 선택하였다. 이 경우 redis 연산 중 발생한 예외는 요청 스레드로 전달된다.
+ *
+ * 반영에 실패한 요청은 그 사이 같은 유저의 더 새로운 요청이 없을 경우에만 대기열로 되돌려지며 잠시 후 다시 시도된다. 또한 아직 반영되지
+ * 않은 JTI는 {@link #findPending(int)}로 조회할 수 있으므로 JTI 검사는 redis 반영 여부와 관계 없이 마지막으로 발급한 JTI를
+ * 기준으로 수행될 수 있다.
+ *
+ * 대기열 크기, 반영/병합/직접 수행/실패 횟수는 JMX를 통해 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=AsyncTokenStoreWriter", description = "Asynchronous JTI writer")
+public class AsyncTokenStoreWriter {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(AsyncTokenStoreWriter.class);
+
+    @Autowired
+    private RedisUserDAO userDAO;
+
+    @Value("${security.token-writer.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${security.token-writer.batch-size:100}")
+    private int batchSize;
+    @Value("${security.token-writer.retry-backoff-millis:1000}")
+    private long retryBackoffMillis;
+
+    /** 아래 두 맵은 {@code lock}에 의해 보호된다. 유저 id 별로 아직 반영되지 않은 마지막 토큰 정보를 담는다. */
+    private final Map<Integer, TokenComponent> pending = new LinkedHashMap<>();
+    /** 대기열에서 꺼내져 현재 redis에 반영 중인 토큰 정보를 담는다. */
+    private final Map<Integer, TokenComponent> inFlight = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void start() {
+        running = true;
+
+        worker = new Thread(this::run, "token-store-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 어플리케이션 종료 시 writer 스레드를 멈추고 대기열에 남은 요청을 반영한다.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<TokenComponent> remaining;
+
+        while (!(remaining = drain()).isEmpty()) {
+            try {
+                write(remaining);
+            } catch (DataAccessException e) {
+                logger.error("Writing {} remaining user token information on shutdown failed.", remaining.size());
+                logger.error("Exception : ", e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 유저의 토큰 정보 갱신을 대기열에 추가한다. 대기열이 가득 찼을 경우 호출 스레드에서 바로 반영한다.
+     */
+    public void submit(TokenComponent tokenComponent) {
+        Objects.requireNonNull(tokenComponent, "Null value argument tokenComponent detected.");
+
+        submitted.increment();
+
+        lock.lock();
+        try {
+            if (pending.containsKey(tokenComponent.getId())) {
+                pending.put(tokenComponent.getId(), tokenComponent);
+                coalesced.increment();
+                return;
+            }
+
+            // 반영 중인 같은 유저의 요청이 있을 경우 직접 반영하면 이전 JTI가 나중에 쓰여질 수 있으므로 용량을 넘더라도 대기열에 넣는다.
+            if (pending.size() < queueCapacity || inFlight.containsKey(tokenComponent.getId())) {
+                pending.put(tokenComponent.getId(), tokenComponent);
+                notEmpty.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        logger.warn("Token store write queue is full. Updating user token information on the caller thread.");
+
+        callerRuns.increment();
+        userDAO.update(tokenComponent);
+        written.increment();
+    }
+
+    /**
+     * 아직 redis에 반영되지 않은 유저의 토큰 정보를 반환한다.
+     *
+     * @return 반영 대기 중인 갱신 요청이 없을 경우 null
+     */
+    public TokenComponent findPending(int uid) {
+        lock.lock();
+        try {
+            TokenComponent tokenComponent = pending.get(uid);
+            return tokenComponent != null ? tokenComponent : inFlight.get(uid);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 유저의 반영 대기 중인 갱신 요청을 버린다. 반영 중인 요청이 있을 경우 반영이 끝날 때까지 기다린다.
+     *
+     * 로그인 시의 JTI 저장이나 로그아웃 시의 토큰 정보 삭제는 요청 스레드에서 바로 수행되는데, 그 이전에 이 메서드를 호출하지 않으면
+     * 이전 세션의 JTI가 나중에 쓰여져 새 JTI를 덮어쓰거나 삭제된 토큰 정보가 되살아날 수 있다.
+     */
+    public void discard(int uid) {
+        lock.lock();
+        try {
+            while (true) {
+                pending.remove(uid);
+
+                if (!inFlight.containsKey(uid)) {
+                    return;
+                }
+
+                if (!flushed.await(retryBackoffMillis, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Waiting for in-flight token write of user {} timed out.", uid);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            List<TokenComponent> batch;
+
+            try {
+                batch = awaitBatch();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                failures.increment();
+
+                logger.error("Writing {} user token information failed. Retrying after {} ms.", batch.size(),
+                        retryBackoffMillis);
+                logger.error("Exception : ", e);
+
+                requeue(batch);
+
+                try {
+                    Thread.sleep(retryBackoffMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<TokenComponent> awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                notEmpty.await();
+            }
+            return drainInternal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<TokenComponent> drain() {
+        lock.lock();
+        try {
+            return drainInternal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<TokenComponent> drainInternal() {
+        List<TokenComponent> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+
+        Iterator<TokenComponent> iterator = pending.values().iterator();
+
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            TokenComponent tokenComponent = iterator.next();
+            batch.add(tokenComponent);
+            inFlight.put(tokenComponent.getId(), tokenComponent);
+            iterator.remove();
+        }
+
+        return batch;
+    }
+
+    private void write(List<TokenComponent> batch) {
+        userDAO.updateAll(batch);
+
+        written.add(batch.size());
+        batches.increment();
+
+        lock.lock();
+        try {
+            batch.forEach(tokenComponent -> inFlight.remove(tokenComponent.getId(), tokenComponent));
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 반영에 실패한 요청을 대기열로 되돌린다. 그 사이 같은 유저의 더 새로운 요청이 들어왔을 경우 실패한 요청은 버린다.
+     */
+    private void requeue(List<TokenComponent> batch) {
+        lock.lock();
+        try {
+            batch.forEach(tokenComponent -> {
+                inFlight.remove(tokenComponent.getId(), tokenComponent);
+                pending.putIfAbsent(tokenComponent.getId(), tokenComponent);
+            });
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of users waiting to be written")
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of submitted token updates")
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    @ManagedAttribute(description = "Number of token updates merged into a pending update of the same user")
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    @ManagedAttribute(description = "Number of token updates written on the caller thread because the queue was full")
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    @ManagedAttribute(description = "Number of token updates written to Redis")
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    @ManagedAttribute(description = "Number of pipelined batches written to Redis")
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    @ManagedAttribute(description = "Number of failed batch writes")
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
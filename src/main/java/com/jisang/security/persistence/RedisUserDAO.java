@@ -1,13 +1,27 @@
 package com.jisang.security.persistence;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.hash.Jackson2HashMapper;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.stereotype.Repository;
 
@@ -84,6 +98,11 @@ public class RedisUserDAO {
     // ==========================================================================================================================
 
     private static final String jtiField = HashKeyUtils.jtiField();
+    private static final String previousJtiField = HashKeyUtils.previousJtiField();
+    private static final String rotatedAtField = HashKeyUtils.rotatedAtField();
+
+    /** 토큰 정보 문자열의 구분자. JTI는 하이픈을 제거한 UUID이므로 구분자와 겹치지 않는다. */
+    private static final String RECORD_DELIMITER = ":";
 
     // Instance Fields
     // ==========================================================================================================================
@@ -91,9 +110,17 @@ public class RedisUserDAO {
     private final Logger logger = LoggerFactory.getLogger(RedisUserDAO.class);
 
     @Autowired
-    private StringRedisTemplate stringRedisTemplate;
+    @Qualifier("tokenRedisTemplate")
+    private StringRedisTemplate tokenRedisTemplate;
     @Autowired
-    private Jackson2HashMapper hashMapper;
+    private TokenNearCache nearCache;
+
+    /** 마지막 갱신 이후 이 기간 동안 토큰 정보가 갱신되지 않으면 redis가 토큰 정보를 삭제한다. */
+    @Value("${security.token-store.ttl-seconds:1209600}")
+    private long ttlSeconds;
+    /** 기존 Hash 형식의 토큰 정보를 조회할지 여부. 모든 기존 토큰 정보가 변환되거나 만료된 이후에는 false로 둔다. */
+    @Value("${security.token-store.legacy-fallback:true}")
+    private boolean legacyFallback;
 
     // Methods 
     // ==========================================================================================================================
@@ -114,14 +141,70 @@ public class RedisUserDAO {
         Objects.requireNonNull(tokenComponent,
                 "Null value argument tokenComponent detected while trying to update user token info in " + this);
 
-        stringRedisTemplate.opsForHash()
-                           .putAll(RedisKeyUtils.userKey(tokenComponent.getId()),
-                                   hashMapper.toHash(tokenComponent));
+        updateAll(Collections.singletonList(tokenComponent));
 
         logger.info("Updating user token information succeeded.");
 
     }
 
+    /**
+     * 
+     * {@link #update(TokenComponent)}와 같으나 전달 받은 모든 유저의 토큰 정보를 하나의 파이프라인으로 redis에 전송한다. 유저
+     * 수만큼의 왕복 지연 시간 대신 한 번의 왕복 지연 시간만 발생한다. {@link AsyncTokenStoreWriter}가 모아둔 갱신 요청을 한꺼번에
+     * 반영할 때 사용된다.
+     * 
+     * 토큰 정보는 {@code token:{uid}} key에 하나의 문자열로 저장되며 저장할 때마다 만료 기한이 {@code ttl-seconds}로 다시
+     * 설정된다. 활동 중인 유저의 JTI는 {@code JTIRotationPolicy}에 따라 주기적으로 교체되므로 만료 기한도 함께 연장되며, 장기간
+     * 이용하지 않은 유저의 토큰 정보는 redis가 삭제한다.
+     * 
+     */
+    public void updateAll(Collection<TokenComponent> tokenComponents) {
+
+        Objects.requireNonNull(tokenComponents,
+                "Null value argument tokenComponents detected while trying to update user token info in " + this);
+
+        if (tokenComponents.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Starting to update {} user token information with pipelining.", tokenComponents.size());
+
+        tokenRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = stringOperationsOf(operations);
+
+                tokenComponents.forEach(tokenComponent -> {
+                    stringOperations.opsForValue()
+                                    .set(RedisKeyUtils.tokenKey(tokenComponent.getId()), encode(tokenComponent),
+                                            ttlSeconds, TimeUnit.SECONDS);
+                    publishChange(stringOperations, tokenComponent.getId());
+                });
+                return null;
+            }
+        });
+
+        tokenComponents.forEach(tokenComponent -> nearCache.invalidate(tokenComponent.getId()));
+
+        logger.debug("Updating user token information with pipelining succeeded.");
+    }
+
+    /**
+     * 다른 서버 인스턴스의 {@link TokenNearCache}가 유저의 항목을 제거하도록 토큰 정보 변경을 알린다.
+     */
+    private void publishChange(RedisOperations<String, String> operations, int uid) {
+        operations.convertAndSend(RedisKeyUtils.userTokenChannel(), String.valueOf(uid));
+    }
+
+    /**
+     * {@link SessionCallback}에는 콜백을 실행한 {@code tokenRedisTemplate}이 전달되므로 문자열 key, value를 사용하는
+     * 연산으로 변환한다. 파이프라인 명령은 스레드에 묶인 커넥션에 의존하지 않도록 전달된 연산을 통해 보내야 한다.
+     */
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> stringOperationsOf(RedisOperations<?, ?> operations) {
+        return (RedisOperations<String, String>) operations;
+    }
+
     /**
      * 
      * 인증에 사용 될 user의 토큰 정보(JTI)를 반환한다. 현재 구현은 JTI 반환 밖에 없으나 후에 인증에 사용될 또 다른 정보가 추가될
@@ -131,32 +214,161 @@ public class RedisUserDAO {
      * {@link AuthenticationServiceException}으로 변환될 것이다.
      * 
      * 
+     * 조회 결과는 {@link TokenNearCache}에 캐싱되며 토큰 정보가 변경될 경우 모든 서버 인스턴스의 캐시에서 제거된다.
+     * 
      * @param uid
      * @return 전달 된 key에 해당하는 데이터가 없을 경우 null을 반환한다.
      * 
      */
     public TokenComponent find(int uid) {
+        return nearCache.get(uid, this::findInternal);
+    }
+
+    /**
+     * {@link TokenNearCache}를 거치지 않고 redis로부터 토큰 정보를 다시 읽는다. 다른 서버 인스턴스에서 교체된 JTI의 변경 메시지가
+     * 아직 도착하지 않았을 수 있으므로 캐싱된 JTI와 토큰의 JTI가 다를 경우 인증을 거부하기 전에 사용된다.
+     */
+    public TokenComponent reload(int uid) {
+        nearCache.invalidate(uid);
+        return find(uid);
+    }
+
+    private TokenComponent findInternal(int uid) {
 
         logger.info("Starting to find user token information.");
 
-        Map<Object, Object> userMap = stringRedisTemplate.opsForHash().entries(RedisKeyUtils.userKey(uid));
+        String record = tokenRedisTemplate.opsForValue().get(RedisKeyUtils.tokenKey(uid));
 
-        if (userMap.isEmpty()) {
+        TokenComponent dto = record != null ? decode(uid, record) : findLegacy(uid);
+
+        if (dto == null) {
             logger.warn("Token info associated with {} doesn't exist in Redis.", uid);
 
             throw new InsufficientAuthenticationException("token info doesn't exist in Redis.");
         }
 
+        logger.info("Finding user token information succeeded.");
+
+        return dto;
+    }
+
+    /**
+     * 
+     * 기존 {@code user:{uid}} Hash 형식으로 저장된 토큰 정보를 읽는다. 토큰 정보가 존재할 경우 새 형식으로 옮겨 저장한 뒤 기존
+     * Hash를 삭제한다. 저장과 삭제는 하나의 파이프라인으로 전송된다.
+     * 
+     * @return 기존 형식의 토큰 정보도 없을 경우 null
+     * 
+     */
+    private TokenComponent findLegacy(int uid) {
+        if (!legacyFallback) {
+            return null;
+        }
+
+        Map<Object, Object> userMap = tokenRedisTemplate.opsForHash().entries(RedisKeyUtils.userKey(uid));
+
+        if (userMap.isEmpty()) {
+            return null;
+        }
+
         TokenComponent dto = new TokenComponent();
+        dto.setId(uid);
         dto.setJti((String) userMap.get(jtiField));
+        dto.setPreviousJti((String) userMap.get(previousJtiField));
 
-        logger.info("Finding user token information succeeded.");
+        String rotatedAt = (String) userMap.get(rotatedAtField);
+        // JTI 교체 정책 적용 이전에 저장된 토큰 정보에는 발급 시각이 없다.
+        dto.setRotatedAt(rotatedAt == null ? null : Long.valueOf(rotatedAt));
+
+        logger.info("Migrating legacy token info of user {}.", uid);
+
+        tokenRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> stringOperations = stringOperationsOf(operations);
+
+                stringOperations.opsForValue()
+                                .set(RedisKeyUtils.tokenKey(uid), encode(dto), ttlSeconds, TimeUnit.SECONDS);
+                stringOperations.delete(RedisKeyUtils.userKey(uid));
+                return null;
+            }
+        });
 
         return dto;
     }
 
     /**
-     * 파라미터 {@code uid}에 해당하는 유저의 토큰 정보를 삭제한다. 위에서 설명하였듯 redis 연산 중 발생한 예외는
+     * 
+     * 만료 기한이 없는 기존 {@code user:{uid}} Hash에 {@code ttl-seconds}의 만료 기한을 설정한다. 기존 Hash는 유저가
+     * 다시 인증할 때 새 형식으로 옮겨지므로, 이 메서드는 다시 인증하지 않는 유저의 기존 토큰 정보가 redis에 영원히 남지 않도록 하기 위해
+     * 스케줄러에 의해 주기적으로 호출된다. key 공간은 {@code SCAN}으로 나누어 순회하며 TTL 조회와 만료 기한 설정은
+     * {@code batchSize}개씩 파이프라인으로 전송된다.
+     * 
+     * @return 만료 기한이 설정된 key의 수
+     * 
+     */
+    public int expireLegacyRecords(int batchSize) {
+        ScanOptions options = ScanOptions.scanOptions().match(RedisKeyUtils.userKeyPattern()).count(batchSize).build();
+
+        // SCAN cursor는 커넥션에 묶여 있으므로 커넥션이 반납되기 전에 모두 순회한다.
+        return tokenRedisTemplate.execute((RedisCallback<Integer>) connection -> {
+            int expired = 0;
+
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                List<String> keys = new ArrayList<>(batchSize);
+
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+
+                    if (keys.size() == batchSize || !cursor.hasNext()) {
+                        expired += expireIfPersistent(keys);
+                        keys.clear();
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Closing redis scan cursor failed.", e);
+            }
+
+            return expired;
+        });
+    }
+
+    private int expireIfPersistent(List<String> keys) {
+        List<Object> ttls = tokenRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                keys.forEach(stringOperationsOf(operations)::getExpire);
+                return null;
+            }
+        });
+
+        List<String> persistentKeys = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            // 만료 기한이 없는 key의 TTL은 -1이다.
+            if (Long.valueOf(-1).equals(ttls.get(i))) {
+                persistentKeys.add(keys.get(i));
+            }
+        }
+
+        if (!persistentKeys.isEmpty()) {
+            tokenRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> stringOperations = stringOperationsOf(operations);
+
+                    persistentKeys.forEach(key -> stringOperations.expire(key, ttlSeconds, TimeUnit.SECONDS));
+                    return null;
+                }
+            });
+        }
+
+        return persistentKeys.size();
+    }
+
+    /**
+     * 파라미터 {@code uid}에 해당하는 유저의 토큰 정보를 삭제한다. 삭제는 pub/sub을 통해 모든 서버 인스턴스의
+     * {@link TokenNearCache}에 전달된다. 위에서 설명하였듯 redis 연산 중 발생한 예외는
      * {@link DataAccessException}으로 변환되며 이 예외는 다시
      * {@link com.jisang.security.aop.AspectPerAction} 클래스의 메서드로에 의해
      * {@link AuthenticationServiceException}으로 변환될 것이다.
@@ -164,6 +376,32 @@ public class RedisUserDAO {
     public void delete(int uid) {
         logger.info("Starting to delete user token information.");
 
-        stringRedisTemplate.delete(RedisKeyUtils.userKey(uid));
+        tokenRedisTemplate.delete(Arrays.asList(RedisKeyUtils.tokenKey(uid), RedisKeyUtils.userKey(uid)));
+        publishChange(tokenRedisTemplate, uid);
+
+        nearCache.invalidate(uid);
+    }
+
+    /**
+     * 토큰 정보를 {@code jti:previousJti:rotatedAt} 형식의 문자열로 변환한다. 이전 JTI가 없을 경우 빈 문자열로 둔다.
+     */
+    private static String encode(TokenComponent tokenComponent) {
+        return tokenComponent.getJti() + RECORD_DELIMITER
+                + (tokenComponent.getPreviousJti() == null ? "" : tokenComponent.getPreviousJti()) + RECORD_DELIMITER
+                + (tokenComponent.getRotatedAt() == null ? "" : tokenComponent.getRotatedAt());
+    }
+
+    private static TokenComponent decode(int uid, String record) {
+        String[] parts = record.split(RECORD_DELIMITER, -1);
+
+        if (parts.length != 3) {
+            throw new IllegalStateException("Illegal token record of user " + uid + " detected : " + record);
+        }
+
+        TokenComponent tokenComponent = new TokenComponent(uid, parts[0]);
+        tokenComponent.setPreviousJti(parts[1].isEmpty() ? null : parts[1]);
+        tokenComponent.setRotatedAt(parts[2].isEmpty() ? null : Long.valueOf(parts[2]));
+
+        return tokenComponent;
     }
 }
@@ -0,0 +1,152 @@
+package com.jisang.security.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jisang.security.domain.TokenComponent;
+import com.jisang.security.support.RedisKeyUtils;
+
+/**
+ *
+ * {@link RedisUserDAO#find(int)}의 결과(유저 id -> 토큰 정보)를 담는 서버 인스턴스 로컬 캐시이다.
+ *
+ * 이전 구현은 JWT token 인증 요청마다 redis에 {@code HGETALL user:{uid}}를 수행하였다. 토큰 정보는 로그인, JTI 교체,
+ * 로그아웃 시에만 변경되므로 대부분의 인증 요청은 같은 값을 반복해서 읽고 있었다.
+ *
+ * 토큰 정보를 변경하는 {@link RedisUserDAO}의 메서드는 변경 이후 redis 채널
+ * {@link RedisKeyUtils#userTokenChannel()}에 유저 id를 발행하며, 모든 서버 인스턴스의 이 클래스는 해당 채널을 구독하여
+ * 유저의 항목을 제거한다. 변경을 수행한 인스턴스는 메시지를 기다리지 않고 바로 자신의 항목을 제거한다. 따라서 로그아웃은 메시지 전달
+ * 지연 시간 이내에 모든 인스턴스에 반영된다.
+ *
+ * redis pub/sub은 메시지 전달을 보장하지 않으므로(구독 연결이 끊겼다 다시 연결되는 동안의 메시지는 유실된다) 각 항목은
+ * {@code ttl-seconds}가 지나면 만료된다. 즉 메시지가 유실되더라도 로그아웃은 최대 {@code ttl-seconds} 이내에 반영된다.
+ *
+ * redis로부터 읽는 도중에 제거가 일어나면 읽은 정보는 이미 이전 정보일 수 있으므로 캐시에 저장하지 않는다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=TokenNearCache", description = "Local cache of user token info")
+public class TokenNearCache implements MessageListener {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(TokenNearCache.class);
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Value("${security.token-near-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+    @Value("${security.token-near-cache.max-size:100000}")
+    private long maxSize;
+
+    private Cache<Integer, TokenComponent> cache;
+
+    /** 제거가 일어날 때마다 증가한다. 읽기 도중 제거가 일어났는지 확인하기 위해 사용한다. */
+    private final AtomicLong generation = new AtomicLong();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                            .maximumSize(maxSize)
+                            .recordStats()
+                            .build();
+
+        listenerContainer.addMessageListener(this, new ChannelTopic(RedisKeyUtils.userTokenChannel()));
+    }
+
+    /**
+     * 캐싱된 토큰 정보를 반환한다. 캐싱된 정보가 없을 경우 {@code loader}로부터 정보를 얻어 캐싱한다. {@code loader}가 던진
+     * 예외는 그대로 호출자에게 전달되며 아무것도 캐싱되지 않는다.
+     */
+    public TokenComponent get(int uid, IntFunction<TokenComponent> loader) {
+        TokenComponent cached = cache.getIfPresent(uid);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadingGeneration = generation.get();
+
+        TokenComponent loaded = loader.apply(uid);
+
+        if (loadingGeneration == generation.get()) {
+            cache.put(uid, loaded);
+        }
+
+        return loaded;
+    }
+
+    public void invalidate(int uid) {
+        generation.incrementAndGet();
+        cache.invalidate(uid);
+    }
+
+    /**
+     * 다른 서버 인스턴스(또는 이 인스턴스)가 발행한 토큰 정보 변경 메시지를 받아 해당 유저의 항목을 제거한다.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            invalidate(Integer.parseInt(body));
+        } catch (NumberFormatException e) {
+            logger.warn("Received illegal user token change message : {}. Invalidating every entry.", body);
+            invalidateAll();
+        }
+    }
+
+    @ManagedOperation(description = "Evicts every cached user token info")
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @ManagedAttribute(description = "Number of cached user token info")
+    public long getSize() {
+        return cache.size();
+    }
+
+    @ManagedAttribute(description = "Number of cache hits")
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of cache misses")
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of cache hits to requests")
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+}
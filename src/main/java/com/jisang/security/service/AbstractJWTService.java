@@ -1,6 +1,19 @@
 package com.jisang.security.service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.http.HttpServletRequest;
 
 import org.slf4j.Logger;
@@ -17,12 +30,24 @@ import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.impl.DefaultJwtBuilder;
+import io.jsonwebtoken.impl.TextCodec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 
 import com.jisang.security.dto.TokenDTO;
 import com.jisang.security.dto.UserAuthTokenDTO;
+import com.jisang.security.exception.RejectedJWTException;
 import com.jisang.security.validation.JWTBuilding;
 import com.jisang.security.validation.JWTParsing;
 import com.jisang.security.validation.SecurityValidationDelegator;
@@ -32,6 +57,20 @@ import com.jisang.security.validation.SecurityValidationDelegator;
  * 
  * JWT building, parsing을 담당하는 {@link JWTService} 인터페이스에 대한 추상 골격 클래스이다.
  *
+ * 같은 JWT token은 짧은 시간 동안 여러 번 전달되는 경우가 많다. 매번 {@link JwtParser}를 생성하여 서명(HMAC)을 검증하고
+ * claims를 JSON 파싱하는 대신 서명 검증에 성공한 토큰의 claims를 토큰 문자열의 SHA-256 digest를 key로 하여 캐싱한다. 캐싱된
+ * claims는 "exp", "nbf" claim이 나타내는 유효 기간 내에서만 사용되며, {@link #initValidationStrategy}가 설정하는 요청
+ * 별 요구 사항(클라이언트 IP, 인증 번호 등)은 캐시 hit 시에도 매번 다시 확인된다({@link ExpectedClaimsRecorder} 참고).
+ * 요구 사항을 만족하지 않거나 유효 기간이 지난 경우 토큰은 캐시 없이 다시 파싱되므로 던져지는 예외는 이전과 같다.
+ *
+ * 공격 트래픽의 잘못된 토큰이 매번 {@link JwtParser}를 거치지 않도록 파싱 이전에 길이, 구조, 헤더의 서명 알고리즘을 검사하며
+ * ({@link #precheck}), 서명 검증이나 파싱에 실패한 토큰의 digest는 짧은 시간 동안 기억해 두었다가 같은 토큰이 다시 전달되면
+ * 바로 거부한다. 두 경우 모두 stack trace를 수집하지 않는 {@link RejectedJWTException}이 던져진다.
+ *
+ * {@link TokenDTO}는 호출자가 변경할 수 있는 오브젝트이므로 {@link TokenDTO}가 아닌 claims를 캐싱하고
+ * {@link #generateTokenDTO}는 매번 호출한다. 또한 서명 key는 요청마다 {@code secretKey} 문자열로부터 다시 만들지 않고
+ * 초기화 시에 한 번만 만든다.
+ *
  * 
  * @author leeseunghyun
  * 
@@ -52,6 +91,10 @@ public abstract class AbstractJWTService implements JWTService {
     protected static final String CLIENT_IP_CLAIM_NAME = "clientIP";
     protected static final String USER_EMAIL_CLAIM_NAME = "userEmail";
 
+    /** 사전 검사를 통과한 헤더 부분을 기억해 둘 최대 개수. 정상적인 토큰의 헤더는 몇 종류 뿐이다. */
+    private static final int MAX_ACCEPTED_HEADERS = 16;
+    private static final ObjectMapper HEADER_READER = new ObjectMapper();
+
     // Instance fields
     // ==========================================================================================================================
 
@@ -64,12 +107,55 @@ public abstract class AbstractJWTService implements JWTService {
     @Value("${jwt.signature.compressioncodec}")
     protected String compressionCodec;
 
+    /** 0일 경우 claims를 캐싱하지 않는다. */
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+    @Value("${jwt.verified-cache.ttl-seconds:60}")
+    private long verifiedCacheTTLSeconds;
+
+    private SignatureAlgorithm signatureAlgorithm;
+    private Key signingKey;
+
+    @Value("${jwt.precheck.max-length:4096}")
+    private int maxTokenLength;
+    @Value("${jwt.rejected-cache.max-size:10000}")
+    private long rejectedCacheMaxSize;
+    @Value("${jwt.rejected-cache.ttl-seconds:60}")
+    private long rejectedCacheTTLSeconds;
+
+    /** 토큰 문자열의 digest -> 서명 검증에 성공한 claims */
+    private Cache<HashCode, Claims> verifiedClaims;
+    /** 최근에 서명 검증 또는 파싱에 실패한 토큰 문자열의 digest */
+    private Cache<HashCode, Boolean> rejectedTokens;
+    private final Set<String> acceptedHeaders = ConcurrentHashMap.newKeySet();
+    private final HashFunction tokenDigest = Hashing.sha256();
+
     @Autowired
     private SecurityValidationDelegator validator;
 
     // Methods
     // ==========================================================================================================================
 
+    /**
+     * {@code secretKey}, {@code algorithm} 프로퍼티로부터 서명 key를 만든다. {@code secretKey}는 이전과 마찬가지로
+     * base64 인코딩된 key로 해석된다. 설정 값이 잘못되었을 경우 첫 요청이 아닌 어플리케이션 시작 시에 예외가 던져진다.
+     */
+    @PostConstruct
+    public void init() {
+        signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        signingKey = new SecretKeySpec(TextCodec.BASE64.decode(secretKey), signatureAlgorithm.getJcaName());
+
+        verifiedClaims = CacheBuilder.newBuilder()
+                                     .expireAfterWrite(verifiedCacheTTLSeconds, TimeUnit.SECONDS)
+                                     .maximumSize(verifiedCacheMaxSize)
+                                     .build();
+
+        rejectedTokens = CacheBuilder.newBuilder()
+                                     .expireAfterWrite(rejectedCacheTTLSeconds, TimeUnit.SECONDS)
+                                     .maximumSize(rejectedCacheMaxSize)
+                                     .build();
+    }
+
     /**
      * 
      * JWT token 생성에 대한 템플릿 메서드로 전달 받은 {@link UserAuthTokenDTO}의 정보를 바탕으로 JWT token
@@ -96,7 +182,7 @@ public abstract class AbstractJWTService implements JWTService {
 
                 .setClaims(getClaims(tokenDTO))
 
-                .signWith(SignatureAlgorithm.forName(algorithm), secretKey)
+                .signWith(signatureAlgorithm, signingKey)
                 // .compressWith(resolveCompressionCodec(compressionCodec))
                 .compact();
         return jwt;
@@ -133,8 +219,8 @@ public abstract class AbstractJWTService implements JWTService {
 
         validator.validate(tokenDTO, JWTParsing.class);
 
-        JwtParser parser = initValidationStrategy(Jwts.parser().setSigningKey(secretKey), tokenDTO);
-        Claims claims = parser.parseClaimsJws(tokenDTO.getToken()).getBody();
+        Claims claims = parseClaims(tokenDTO.getToken(), recordExpectedClaims(tokenDTO),
+                                    () -> initValidationStrategy(newParser(), tokenDTO));
         return generateTokenDTO(claims);
     }
 
@@ -142,10 +228,160 @@ public abstract class AbstractJWTService implements JWTService {
     public TokenDTO parseToken(String jwtToken) {
         Objects.requireNonNull(jwtToken, "Invalid null value tokenDTO detected while trying to parse token.");
 
-        Claims claims = Jwts.parser().setSigningKey(secretKey).parseClaimsJws(jwtToken).getBody();
+        Claims claims = parseClaims(jwtToken, Collections.emptyMap(), this::newParser);
         return generateTokenDTO(claims);
     }
 
+    /**
+     * 캐싱된 claims 중 {@code expectedClaims}를 만족하는 claims가 있을 경우 반환한다. 없을 경우 {@code parser}로 토큰을
+     * 파싱하고 결과를 캐싱한다.
+     *
+     * @param expectedClaims
+     *            null일 경우 캐시를 사용하지 않는다.
+     */
+    private Claims parseClaims(String jwtToken, Map<String, Object> expectedClaims, Supplier<JwtParser> parser) {
+        precheck(jwtToken);
+
+        HashCode digest = tokenDigest.hashString(jwtToken, StandardCharsets.UTF_8);
+
+        if (rejectedTokens.getIfPresent(digest) != null) {
+            throw new RejectedJWTException("Recently rejected JWT token detected.");
+        }
+
+        if (expectedClaims != null) {
+            Claims claims = verifiedClaims.getIfPresent(digest);
+
+            if (claims != null) {
+                if (!isWithinValidPeriod(claims, System.currentTimeMillis())) {
+                    verifiedClaims.invalidate(digest);
+                } else if (satisfies(claims, expectedClaims)) {
+                    return claims;
+                }
+            }
+        }
+
+        Claims claims;
+
+        try {
+            claims = parser.get().parseClaimsJws(jwtToken).getBody();
+        } catch (SignatureException | MalformedJwtException | UnsupportedJwtException e) {
+            // 토큰 자체가 잘못된 경우이다. 요청 별 요구 사항에 따라 실패하는 경우(IncorrectClaimException 등)는 포함하지 않는다.
+            rejectedTokens.put(digest, Boolean.TRUE);
+            throw e;
+        }
+
+        if (expectedClaims != null) {
+            verifiedClaims.put(digest, claims);
+        }
+
+        return claims;
+    }
+
+    /**
+     * 서명 검증 이전에 토큰의 길이, 구조(base64url 문자로 이루어진 세 부분), 헤더의 서명 알고리즘을 검사한다. 이 어플리케이션이
+     * 발급하지 않았음이 분명한 토큰은 {@link JwtParser}를 거치지 않고 거부된다.
+     *
+     * @throws RejectedJWTException
+     *             검사에 실패하였을 경우 던져진다.
+     */
+    private void precheck(String jwtToken) {
+        int length = jwtToken.length();
+
+        if (length > maxTokenLength) {
+            throw new RejectedJWTException("JWT token too long. length : " + length);
+        }
+
+        int firstSeparator = -1;
+        int secondSeparator = -1;
+
+        for (int i = 0; i < length; i++) {
+            char c = jwtToken.charAt(i);
+
+            if (c == '.') {
+                if (firstSeparator < 0) {
+                    firstSeparator = i;
+                } else if (secondSeparator < 0) {
+                    secondSeparator = i;
+                } else {
+                    throw new RejectedJWTException("Malformed JWT token detected. Too many separators.");
+                }
+            } else if (!isBase64URLCharacter(c)) {
+                throw new RejectedJWTException("Malformed JWT token detected. Illegal character.");
+            }
+        }
+
+        if (firstSeparator <= 0 || secondSeparator <= firstSeparator + 1 || secondSeparator == length - 1) {
+            throw new RejectedJWTException("Malformed JWT token detected. Missing header, payload or signature.");
+        }
+
+        String header = jwtToken.substring(0, firstSeparator);
+
+        if (!acceptedHeaders.contains(header)) {
+            checkHeaderAlgorithm(header);
+
+            if (acceptedHeaders.size() < MAX_ACCEPTED_HEADERS) {
+                acceptedHeaders.add(header);
+            }
+        }
+    }
+
+    private void checkHeaderAlgorithm(String header) {
+        JsonNode algorithmNode;
+
+        try {
+            algorithmNode = HEADER_READER.readTree(TextCodec.BASE64URL.decode(header)).get(ALGORITHM_HEADER_NAME);
+        } catch (IOException | RuntimeException e) {
+            throw new RejectedJWTException("Malformed JWT token detected. Unreadable header.");
+        }
+
+        if (algorithmNode == null || !signatureAlgorithm.getValue().equalsIgnoreCase(algorithmNode.asText())) {
+            throw new RejectedJWTException("JWT token signed with unexpected algorithm detected.");
+        }
+    }
+
+    private boolean isBase64URLCharacter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    /**
+     * {@link #initValidationStrategy}가 설정하는 요구 사항을 기록한다.
+     *
+     * @return 캐싱된 claims에 대해 확인할 수 없는 요구 사항이 있거나 기록 도중 예외가 발생하였을 경우 null. 예외는
+     *         {@link JwtParser}를 통한 파싱 시에 다시 발생할 것이므로 여기서는 무시한다.
+     */
+    private Map<String, Object> recordExpectedClaims(TokenDTO tokenDTO) {
+        ExpectedClaimsRecorder recorder = new ExpectedClaimsRecorder();
+
+        try {
+            initValidationStrategy(recorder.getParser(), tokenDTO);
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        return recorder.getExpectedClaims();
+    }
+
+    private boolean isWithinValidPeriod(Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        Date notBefore = claims.getNotBefore();
+
+        return (expiration == null || now < expiration.getTime())
+                && (notBefore == null || now >= notBefore.getTime());
+    }
+
+    private boolean satisfies(Claims claims, Map<String, Object> expectedClaims) {
+        for (Map.Entry<String, Object> expected : expectedClaims.entrySet()) {
+            if (!expected.getValue().equals(claims.get(expected.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private JwtParser newParser() {
+        return Jwts.parser().setSigningKey(signingKey);
+    }
+
     /**
      * 
      * @param codecName
@@ -0,0 +1,95 @@
+package com.jisang.security.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+
+/**
+ *
+ * {@link AbstractJWTService#initValidationStrategy}가 {@link JwtParser}에 설정하는 claim 요구 사항({@code require...}
+ * 메서드 호출)을 기록하기 위한 {@link JwtParser} 프록시이다.
+ *
+ * 캐싱된 검증 완료 claims를 재사용하려면 요청 별로 달라지는 검증 정책(예 : 클라이언트 IP, 인증 번호)을 캐싱된 claims에 대해 다시
+ * 확인해야 한다. {@link AbstractJWTService#initValidationStrategy}를 그대로 이 클래스의 프록시에 적용하여 요구 사항을
+ * 얻으므로 각 {@link JWTService} 구현은 검증 정책을 한 곳에만 정의하면 된다.
+ *
+ * 값이 null이거나 {@link Date} 타입인 요구 사항, {@code require...}가 아닌 메서드 호출이 기록될 경우 요구 사항을 캐싱된
+ * claims에 대해 확인할 수 없는 것으로 보고 {@link #getExpectedClaims()}는 null을 반환한다. 이 경우 토큰은 항상
+ * {@link JwtParser}를 통해 파싱된다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+class ExpectedClaimsRecorder implements InvocationHandler {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Map<String, Object> expectedClaims = new LinkedHashMap<>();
+    private boolean recordable = true;
+
+    private final JwtParser parser = (JwtParser) Proxy.newProxyInstance(JwtParser.class.getClassLoader(),
+                                                                        new Class<?>[] { JwtParser.class }, this);
+
+    // Methods
+    // ==========================================================================================================================
+
+    public JwtParser getParser() {
+        return parser;
+    }
+
+    /**
+     * @return 기록된 claim 이름과 기대 값. 캐싱된 claims에 대해 확인할 수 없는 요구 사항이 기록되었을 경우 null.
+     */
+    public Map<String, Object> getExpectedClaims() {
+        return recordable ? Collections.unmodifiableMap(expectedClaims) : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+
+        String claimName = resolveClaimName(method, args);
+        Object value = args == null ? null : args[args.length - 1];
+
+        if (claimName == null || value == null || value instanceof Date) {
+            recordable = false;
+        } else {
+            expectedClaims.put(claimName, value);
+        }
+
+        if (method.getReturnType() != JwtParser.class) {
+            throw new UnsupportedOperationException("Unsupported method call while recording expected claims : "
+                                                                                                    + method.getName());
+        }
+
+        return proxy;
+    }
+
+    private String resolveClaimName(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "require":
+                return args.length == 2 ? (String) args[0] : null;
+            case "requireId":
+                return Claims.ID;
+            case "requireSubject":
+                return Claims.SUBJECT;
+            case "requireAudience":
+                return Claims.AUDIENCE;
+            case "requireIssuer":
+                return Claims.ISSUER;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.jisang.security.support;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.Striped;
+import com.jisang.security.domain.TokenComponent;
+
+/**
+ *
+ * JWT token의 JTI 교체 정책이다.
+ *
+ * 이전 구현은 모든 JWT token 인증 요청마다 새 JTI를 발급하여 redis에 쓰고 새 JWT token을 서명하여 응답 헤더에 담았다. 상품
+ * 관리 화면의 마켓 관리자는 1분에도 수십 번의 {@code /auth/**} 요청을 보내므로 요청마다 redis 쓰기 한 번과 HMAC 서명 한 번이
+ * 추가되었다. 또한 응답을 받기 전에 같은 토큰으로 보낸 요청은 모두 JTI 불일치로 거부되었다.
+ *
+ * 이 클래스는 JTI를 {@code interval-seconds}가 지났거나 현재 JTI로 {@code max-requests}번의 요청이 인증되었을 때에만
+ * 교체하도록 한다. 교체되지 않은 요청의 응답에는 새 토큰이 담기지 않으며 클라이언트는 기존 토큰을 계속 사용한다. 교체 이후
+ * {@code grace-seconds} 동안은 이전 JTI를 담은 토큰도 유효한 토큰으로 인정하여 교체 직전에 보내진 요청들이 거부되지 않도록 한다.
+ *
+ * JTI 비교는 여전히 매 요청마다 수행되므로 로그아웃되거나 새로 로그인한 유저의 이전 토큰은 바로 거부된다. 탈취된 토큰으로 재생 공격이
+ * 가능한 기간은 다음 교체 시점에 유예 기간을 더한 기간으로 제한된다. 요청 수는 서버 인스턴스 별로 메모리 상에서만 센다. 요청마다 redis에
+ * 요청 수를 쓰면 줄이고자 했던 redis 쓰기가 다시 생기기 때문이다. 서버 인스턴스가 여러 대일 경우에도 시간 기준의 교체는 그대로 동작한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class JTIRotationPolicy {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final int LOCK_STRIPES = 64;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    @Value("${security.jti-rotation.interval-seconds:300}")
+    private long intervalSeconds;
+    /** 0 이하일 경우 요청 수 기준의 교체는 수행하지 않는다. */
+    @Value("${security.jti-rotation.max-requests:100}")
+    private int maxRequests;
+    @Value("${security.jti-rotation.grace-seconds:30}")
+    private long graceSeconds;
+
+    /** 유저 id 별로 현재 JTI로 인증된 요청 수를 담는다. */
+    private LoadingCache<Integer, AtomicInteger> requestCounts;
+
+    private final Striped<Lock> rotationLocks = Striped.lock(LOCK_STRIPES);
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        requestCounts = CacheBuilder.newBuilder()
+                                    .expireAfterAccess(intervalSeconds, TimeUnit.SECONDS)
+                                    .build(CacheLoader.from(() -> new AtomicInteger()));
+    }
+
+    /**
+     * 전달 받은 JTI가 저장된 토큰 정보의 현재 JTI이거나 유예 기간 내의 이전 JTI일 경우 true를 반환한다.
+     */
+    public boolean isAcceptable(TokenComponent stored, String presentedJti, long now) {
+        Objects.requireNonNull(stored, "Null value argument stored detected.");
+
+        if (presentedJti == null) {
+            return false;
+        }
+
+        if (presentedJti.equals(stored.getJti())) {
+            return true;
+        }
+
+        return presentedJti.equals(stored.getPreviousJti()) && stored.getRotatedAt() != null
+                && now - stored.getRotatedAt() < TimeUnit.SECONDS.toMillis(graceSeconds);
+    }
+
+    /**
+     * 현재 JTI로 인증된 요청을 세고 JTI를 교체해야 할 경우 true를 반환한다. 이전 JTI로 인증된 요청은 교체 대상이 아니므로 이
+     * 메서드는 현재 JTI로 인증된 요청에 대해서만 호출되어야 한다.
+     */
+    public boolean shouldRotate(TokenComponent stored, long now) {
+        Objects.requireNonNull(stored, "Null value argument stored detected.");
+
+        int requests = requestCounts.getUnchecked(stored.getId()).incrementAndGet();
+
+        if (maxRequests > 0 && requests >= maxRequests) {
+            return true;
+        }
+
+        return stored.getRotatedAt() == null
+                || now - stored.getRotatedAt() >= TimeUnit.SECONDS.toMillis(intervalSeconds);
+    }
+
+    /**
+     * 현재 JTI를 {@code newJti}로 교체한 토큰 정보를 반환한다. 반환된 토큰 정보의 이전 JTI는 현재 JTI이다.
+     */
+    public TokenComponent rotate(TokenComponent stored, String newJti, long now) {
+        Objects.requireNonNull(stored, "Null value argument stored detected.");
+
+        requestCounts.invalidate(stored.getId());
+
+        return new TokenComponent(stored.getId(), newJti, stored.getJti(), now);
+    }
+
+    /**
+     * 같은 유저의 JTI 교체가 한 서버 인스턴스 내에서 동시에 일어나지 않도록 하기 위한 lock을 반환한다.
+     */
+    public Lock rotationLock(int uid) {
+        return rotationLocks.get(uid);
+    }
+}
@@ -0,0 +1,67 @@
+package com.jisang.security.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.stereotype.Component;
+
+/**
+ *
+ * 실제 SMS를 전송하지 않고 로그만 남기는 {@link AuthenticationNumberNotificationProvider} 구현이다. 로컬 개발 환경이나
+ * 부하 테스트에서 {@code local-sms} 프로파일을 활성화하고
+ * {@code security.sms.delivery-provider=localStubSMSNotificationProvider}로 지정하여 사용한다. 프로퍼티 하나를 잘못
+ * 지정하여 운영 환경에서 인증 번호가 전송되지 않는 일이 없도록 프로파일이 활성화되지 않으면 빈이 등록되지 않으며, 이 경우
+ * {@link QueuedAuthenticationNumberNotificationProvider} 초기화 시 예외가 발생한다. 인증 번호는 DEBUG 레벨로만 기록된다.
+ *
+ * {@code latency-millis}와 {@code failure-rate} 프로퍼티로 SNS의 응답 지연과 전송 실패를 흉내낼 수 있으므로
+ * {@link QueuedAuthenticationNumberNotificationProvider}의 대기열과 재시도 동작을 AWS 없이 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component("localStubSMSNotificationProvider")
+@Profile("local-sms")
+public class LocalStubSMSNotificationProvider implements AuthenticationNumberNotificationProvider {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(LocalStubSMSNotificationProvider.class);
+
+    @Value("${security.sms.stub.latency-millis:0}")
+    private long latencyMillis;
+    @Value("${security.sms.stub.failure-rate:0}")
+    private double failureRate;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Override
+    public void sendAuthenticationNumber(String destination, String authenticationNumber) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AuthenticationServiceException("Interrupted while sending stub SMS.", e);
+            }
+        }
+
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new AuthenticationServiceException("Simulated SMS delivery failure.");
+        }
+
+        logger.info("Stub SMS to {} delivered.", mask(destination));
+        logger.debug("Stub SMS to {} : authentication number {}", mask(destination), authenticationNumber);
+    }
+
+    private String mask(String destination) {
+        int visible = Math.min(4, destination.length());
+        return "****" + destination.substring(destination.length() - visible);
+    }
+}
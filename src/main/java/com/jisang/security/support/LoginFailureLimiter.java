@@ -0,0 +1,167 @@
+package com.jisang.security.support;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.jisang.security.exception.LoginAttemptsExceededException;
+
+/**
+ *
+ * 클라이언트 IP 별, 계정 별 로그인 실패 횟수를 세어 실패가 너무 많은 클라이언트의 로그인 시도를 데이터베이스 조회와 비밀번호 검증
+ * 이전에 거부한다.
+ *
+ * credential stuffing 공격은 대부분 실패하는 로그인 요청이므로 요청마다 유저 정보 조회와 BCrypt 검증이 수행되면 공격 요청이
+ * 데이터베이스와 {@link PasswordVerificationExecutor}를 차지하게 된다. 이 클래스는 {@code window-seconds} 동안의
+ * 실패 횟수가 IP 별로 {@code max-failures-per-ip}, 계정 별로 {@code max-failures-per-account} 이상일 경우
+ * {@link LoginAttemptsExceededException}(HTTP 429)을 던진다. 실패 횟수는 마지막 실패로부터 {@code window-seconds}가
+ * 지나면 초기화되며 계정의 실패 횟수는 로그인에 성공하면 초기화된다.
+ *
+ * 같은 NAT 뒤의 여러 유저가 하나의 IP를 공유할 수 있으므로 기본적으로 비활성화되어 있으며 {@code enabled} 프로퍼티로 활성화한다.
+ * 실패 횟수는 서버 인스턴스 별로 메모리 상에서만 센다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=LoginFailureLimiter", description = "Login failure limiter")
+public class LoginFailureLimiter {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long MAX_TRACKED_KEYS = 100000;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    @Value("${security.login-failure-limit.enabled:false}")
+    private boolean enabled;
+    @Value("${security.login-failure-limit.window-seconds:600}")
+    private long windowSeconds;
+    @Value("${security.login-failure-limit.max-failures-per-ip:50}")
+    private int maxFailuresPerIP;
+    @Value("${security.login-failure-limit.max-failures-per-account:10}")
+    private int maxFailuresPerAccount;
+
+    private LoadingCache<String, AtomicInteger> ipFailures;
+    private LoadingCache<String, AtomicInteger> accountFailures;
+
+    private final LongAdder blocked = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        ipFailures = newFailureCounter();
+        accountFailures = newFailureCounter();
+    }
+
+    private LoadingCache<String, AtomicInteger> newFailureCounter() {
+        return CacheBuilder.newBuilder()
+                           .expireAfterWrite(windowSeconds, TimeUnit.SECONDS)
+                           .maximumSize(MAX_TRACKED_KEYS)
+                           .build(CacheLoader.from(() -> new AtomicInteger()));
+    }
+
+    /**
+     * @throws LoginAttemptsExceededException
+     *             {@code clientIP} 또는 {@code username}의 실패 횟수가 제한을 넘었을 경우 던져진다.
+     */
+    public void checkAllowed(String clientIP, String username) {
+        if (!enabled) {
+            return;
+        }
+
+        if (exceeds(ipFailures, clientIP, maxFailuresPerIP)
+                || exceeds(accountFailures, normalize(username), maxFailuresPerAccount)) {
+            blocked.increment();
+            throw new LoginAttemptsExceededException("Too many failed login attempts. client IP : " + clientIP);
+        }
+    }
+
+    /**
+     * 실패 횟수를 증가시킨다. 만료 시점은 마지막 실패를 기준으로 다시 계산된다.
+     */
+    public void recordFailure(String clientIP, String username) {
+        if (!enabled) {
+            return;
+        }
+
+        increment(ipFailures, clientIP);
+        increment(accountFailures, normalize(username));
+    }
+
+    public void recordSuccess(String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+
+        accountFailures.invalidate(normalize(username));
+    }
+
+    private boolean exceeds(LoadingCache<String, AtomicInteger> failures, String key, int maxFailures) {
+        if (key == null || maxFailures <= 0) {
+            return false;
+        }
+
+        AtomicInteger count = failures.getIfPresent(key);
+        return count != null && count.get() >= maxFailures;
+    }
+
+    private void increment(LoadingCache<String, AtomicInteger> failures, String key) {
+        if (key == null) {
+            return;
+        }
+
+        AtomicInteger count = failures.getUnchecked(key);
+        count.incrementAndGet();
+        // expireAfterWrite 기준 시점을 마지막 실패로 갱신한다.
+        failures.put(key, count);
+    }
+
+    /** 이메일은 대소문자를 구분하지 않고 조회되므로 대소문자만 바꾼 시도로 제한을 피할 수 없도록 한다. */
+    private String normalize(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    @ManagedOperation(description = "Clears every recorded login failure")
+    public void reset() {
+        ipFailures.invalidateAll();
+        accountFailures.invalidateAll();
+    }
+
+    @ManagedAttribute(description = "Whether login failure limiting is enabled")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @ManagedAttribute(description = "Number of login requests rejected by the limiter")
+    public long getBlockedCount() {
+        return blocked.sum();
+    }
+
+    @ManagedAttribute(description = "Number of client IPs with recorded failures")
+    public long getTrackedIPCount() {
+        return ipFailures.size();
+    }
+
+    @ManagedAttribute(description = "Number of accounts with recorded failures")
+    public long getTrackedAccountCount() {
+        return accountFailures.size();
+    }
+}
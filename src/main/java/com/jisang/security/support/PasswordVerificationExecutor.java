@@ -0,0 +1,188 @@
+package com.jisang.security.support;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.jisang.security.exception.AuthenticationOverloadedException;
+
+/**
+ *
+ * 로그인 시의 비밀번호 검증({@link PasswordEncoder#matches})을 수행하는 크기가 제한된 스레드 풀이다.
+ *
+ * 이전 구현은 BCrypt 검증을 servlet 요청 스레드에서 수행하였다. BCrypt 검증은 의도적으로 CPU를 많이 사용하는 연산이므로 로그인
+ * 요청이 몰리거나 credential stuffing 공격이 들어올 경우 요청 스레드가 모두 BCrypt 연산에 묶여 상품 조회 등의 다른 요청까지
+ * 처리되지 못하였다.
+ *
+ * 이 클래스는 CPU 코어 수만큼의 스레드({@code pool-size})와 크기가 제한된 대기열({@code queue-capacity})로 비밀번호 검증을
+ * 수행한다. 요청 스레드는 검증 결과를 최대 {@code max-wait-millis} 동안 기다린다. 대기열이 가득 찼거나 제한 시간 내에 검증이
+ * 끝나지 않을 경우 {@link AuthenticationOverloadedException}이 던져지며 HTTP 503으로 바로 응답한다. 즉 로그인 요청이
+ * 사용할 수 있는 CPU는 스레드 풀 크기로 제한되며 나머지 요청 스레드는 다른 요청을 처리할 수 있다.
+ *
+ * 대기 시간(대기열에 들어간 시점부터 검증이 시작되기 까지의 시간)과 검증 시간, 거부 횟수는 JMX를 통해 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=PasswordVerificationExecutor", description = "Password verification executor")
+public class PasswordVerificationExecutor {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(PasswordVerificationExecutor.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /** 0 이하일 경우 CPU 코어 수를 사용한다. */
+    @Value("${security.password-verification.pool-size:0}")
+    private int poolSize;
+    @Value("${security.password-verification.queue-capacity:100}")
+    private int queueCapacity;
+    @Value("${security.password-verification.max-wait-millis:3000}")
+    private long maxWaitMillis;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 비밀번호 검증 스레드 풀에서 {@link PasswordEncoder#matches}를 수행하고 결과를 기다린다.
+     *
+     * @throws AuthenticationOverloadedException
+     *             대기열이 가득 찼거나 {@code max-wait-millis} 내에 검증이 끝나지 않았을 경우 던져진다.
+     * @throws AuthenticationServiceException
+     *             검증 중 예외가 발생하였거나 대기 중인 요청 스레드가 interrupt 되었을 경우 던져진다.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Objects.requireNonNull(rawPassword, "Null value argument rawPassword detected.");
+
+        long submittedAt = System.nanoTime();
+
+        Future<Boolean> result;
+
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                totalQueueNanos.add(startedAt - submittedAt);
+
+                try {
+                    return passwordEncoder.matches(rawPassword, encodedPassword);
+                } finally {
+                    totalHashNanos.add(System.nanoTime() - startedAt);
+                    verified.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Password verification queue is full. Rejecting login request.");
+            throw new AuthenticationOverloadedException("Password verification queue is full.", e);
+        }
+
+        try {
+            return result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 아직 시작되지 않은 검증은 취소되어 스레드 풀의 시간을 더 사용하지 않는다.
+            result.cancel(false);
+            timedOut.increment();
+            logger.warn("Password verification did not finish in {} ms. Rejecting login request.", maxWaitMillis);
+            throw new AuthenticationOverloadedException("Password verification timed out.", e);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while waiting for password verification.", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Password verification failed.", e.getCause());
+        }
+    }
+
+    @ManagedAttribute(description = "Number of password verification threads")
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @ManagedAttribute(description = "Number of password verifications currently running")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of password verifications waiting in the queue")
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Number of finished password verifications")
+    public long getVerifiedCount() {
+        return verified.sum();
+    }
+
+    @ManagedAttribute(description = "Number of login requests rejected because the queue was full")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @ManagedAttribute(description = "Number of login requests rejected because verification took too long")
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    @ManagedAttribute(description = "Average time a verification waited in the queue in milliseconds")
+    public double getAverageQueueMillis() {
+        long count = verified.sum();
+        return count == 0 ? 0 : totalQueueNanos.sum() / (count * 1_000_000.0);
+    }
+
+    @ManagedAttribute(description = "Average time spent hashing a password in milliseconds")
+    public double getAverageHashMillis() {
+        long count = verified.sum();
+        return count == 0 ? 0 : totalHashNanos.sum() / (count * 1_000_000.0);
+    }
+}
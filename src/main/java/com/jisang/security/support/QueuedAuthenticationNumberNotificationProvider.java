@@ -0,0 +1,272 @@
+package com.jisang.security.support;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.jisang.security.exception.AuthenticationOverloadedException;
+
+/**
+ *
+ * 인증 번호 전송을 대기열에 넣고 바로 반환하는 {@link AuthenticationNumberNotificationProvider} 구현이다. 실제 전송은
+ * {@code security.sms.delivery-provider} 프로퍼티로 지정한 이름의 {@link AuthenticationNumberNotificationProvider}
+ * 빈(기본 값 {@link AWSSMSNotificationProvider})이 별도의 스레드에서 수행한다.
+ *
+ * 이전 구현은 요청 스레드에서 SNS publish를 수행하였으므로 SNS의 응답이 느려지면 인증 번호 요청을 처리하던 요청 스레드가 모두
+ * 묶였다. 클라이언트에게 필요한 것은 인증 번호를 담은 JWT token 뿐이므로 SMS 전송을 기다릴 필요가 없다.
+ *
+ * 전송 스레드 수({@code concurrency})와 대기열 크기({@code queue-capacity})는 제한되며 대기열이 가득 찼을 경우
+ * {@link AuthenticationOverloadedException}(HTTP 503)을 던진다. 실패한 전송은 {@code initial-backoff-millis}부터
+ * 두 배씩 늘어나는 간격으로 최대 {@code max-attempts}번까지 다시 시도된다. 인증 번호의 유효 시간
+ * ({@code jwt.token.authentication-number.ttl})이 지난 전송은 의미가 없으므로 다시 시도하지 않고 버린다.
+ *
+ * SNS의 SMS 전송은 수신 번호 별 publish만 지원하므로 여러 건을 하나의 요청으로 묶지는 않는다. 전송 결과 별 횟수와 대기열 크기는
+ * JMX를 통해 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Primary
+@Component
+@ManagedResource(objectName = "com.jisang:type=AuthenticationNumberDispatcher", description = "Authentication number dispatch queue")
+public class QueuedAuthenticationNumberNotificationProvider implements AuthenticationNumberNotificationProvider {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(QueuedAuthenticationNumberNotificationProvider.class);
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${security.sms.delivery-provider:AWSSMSNotificationProvider}")
+    private String deliveryProviderName;
+    @Value("${security.sms.dispatch.concurrency:4}")
+    private int concurrency;
+    @Value("${security.sms.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+    @Value("${security.sms.dispatch.max-attempts:3}")
+    private int maxAttempts;
+    @Value("${security.sms.dispatch.initial-backoff-millis:500}")
+    private long initialBackoffMillis;
+    @Value("${jwt.token.authentication-number.ttl}")
+    private long authenticationNumberTTL;
+
+    private AuthenticationNumberNotificationProvider deliveryProvider;
+    private ThreadPoolExecutor senders;
+    private ScheduledExecutorService retryScheduler;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder totalDeliveryMillis = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        deliveryProvider = applicationContext.getBean(deliveryProviderName, AuthenticationNumberNotificationProvider.class);
+
+        if (AopUtils.getTargetClass(deliveryProvider) == QueuedAuthenticationNumberNotificationProvider.class) {
+            throw new IllegalStateException("Delivery provider must not be the dispatch queue itself.");
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        senders = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sms-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sms-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        logger.info("Authentication numbers will be delivered by {}.", deliveryProviderName);
+    }
+
+    /**
+     * 대기열에 남은 전송은 최대 5초 동안 수행되며 다시 시도할 예정이던 전송은 버려진다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retryScheduler.shutdownNow();
+        senders.shutdown();
+
+        if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+            logger.warn("{} authentication number deliveries dropped on shutdown.", senders.shutdownNow().size());
+        }
+    }
+
+    /**
+     * 인증 번호 전송을 대기열에 넣는다. 전송 결과를 기다리지 않는다.
+     *
+     * @throws InternalAuthenticationServiceException
+     *             {@code destination} 또는 {@code authenticationNumber}가 빈 문자열일 경우 던져진다.
+     * @throws AuthenticationOverloadedException
+     *             대기열이 가득 찼을 경우 던져진다.
+     */
+    @Override
+    public void sendAuthenticationNumber(String destination, String authenticationNumber) {
+        if (StringUtils.isEmpty(destination)) {
+            throw new InternalAuthenticationServiceException(
+                    "Illegal argument detected. Argument destination must not be empty String.");
+        }
+        if (StringUtils.isEmpty(authenticationNumber)) {
+            throw new InternalAuthenticationServiceException(
+                    "Illegal argument detected. Argument authenticationNumber must not be empty String.");
+        }
+
+        submitted.increment();
+
+        try {
+            senders.execute(new Delivery(destination, authenticationNumber));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Authentication number dispatch queue is full. Rejecting request.");
+            throw new AuthenticationOverloadedException("Authentication number dispatch queue is full.", e);
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery) {
+        long backoffMillis = initialBackoffMillis << Math.min(delivery.attempts - 1, 16);
+
+        retried.increment();
+
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    senders.execute(delivery);
+                } catch (RejectedExecutionException e) {
+                    failed.increment();
+                    logger.warn("Authentication number dispatch queue is full. Dropping retry.");
+                }
+            }, backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failed.increment();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of deliveries waiting in the queue")
+    public int getQueueSize() {
+        return senders.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Number of deliveries in progress")
+    public int getActiveCount() {
+        return senders.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of accepted delivery requests")
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    @ManagedAttribute(description = "Number of delivery requests rejected because the queue was full")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @ManagedAttribute(description = "Number of delivered authentication numbers")
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    @ManagedAttribute(description = "Number of retried deliveries")
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    @ManagedAttribute(description = "Number of deliveries given up after the last attempt")
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @ManagedAttribute(description = "Number of deliveries dropped because the authentication number had expired")
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @ManagedAttribute(description = "Average time from submission to delivery in milliseconds")
+    public double getAverageDeliveryMillis() {
+        long count = delivered.sum();
+        return count == 0 ? 0 : (double) totalDeliveryMillis.sum() / count;
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    private class Delivery implements Runnable {
+
+        private final String destination;
+        private final String authenticationNumber;
+        private final long submittedAt = System.currentTimeMillis();
+
+        /** 전송 스레드 하나만 접근한다. 재시도는 이전 시도가 끝난 후에만 예약된다. */
+        private int attempts;
+
+        Delivery(String destination, String authenticationNumber) {
+            this.destination = destination;
+            this.authenticationNumber = authenticationNumber;
+        }
+
+        @Override
+        public void run() {
+            if (System.currentTimeMillis() - submittedAt > TimeUnit.SECONDS.toMillis(authenticationNumberTTL)) {
+                expired.increment();
+                logger.warn("Authentication number expired before delivery. Dropping after {} attempts.", attempts);
+                return;
+            }
+
+            attempts++;
+
+            try {
+                deliveryProvider.sendAuthenticationNumber(destination, authenticationNumber);
+
+                delivered.increment();
+                totalDeliveryMillis.add(System.currentTimeMillis() - submittedAt);
+            } catch (RuntimeException e) {
+                if (attempts >= maxAttempts) {
+                    failed.increment();
+                    logger.error("Delivering authentication number failed after {} attempts.", attempts);
+                    logger.error("Exception : ", e);
+                    return;
+                }
+
+                logger.warn("Delivering authentication number failed. attempt : {}. cause : {}", attempts,
+                        e.toString());
+                scheduleRetry(this);
+            }
+        }
+    }
+}
@@ -23,11 +23,34 @@ public class RedisKeyUtils {
 
     /** user에 대한 key prefix */
     private static final String USER = "user:";
+    /** user의 토큰 정보에 대한 key prefix */
+    private static final String TOKEN = "token:";
+    /** user의 토큰 정보 변경을 알리는 pub/sub 채널 */
+    private static final String USER_TOKEN_CHANNEL = "user-token-changed";
 
     public static String userKey(int uid) {
         return USER + uid;
     }
 
+    /**
+     * 기존 Hash 형식의 토큰 정보 key 전체에 대한 {@code SCAN} 패턴.
+     */
+    public static String userKeyPattern() {
+        return USER + "*";
+    }
+
+    /**
+     * {@code jti:previousJti:rotatedAt} 형식의 문자열로 저장되는 토큰 정보 key. 기존 {@link #userKey(int)}의 Hash를
+     * 대신한다.
+     */
+    public static String tokenKey(int uid) {
+        return TOKEN + uid;
+    }
+
+    public static String userTokenChannel() {
+        return USER_TOKEN_CHANNEL;
+    }
+
     /**
      * 
      * redis Hash 타입의 Hash key name(field name)으로 사용될 문자열을 정의한 클래스.
@@ -38,10 +61,22 @@ public class RedisKeyUtils {
     public static class HashKeyUtils {
         /** jti에 대한 field name */
         private static final String JTI_FIELD = "jti";
+        /** 이전 jti에 대한 field name */
+        private static final String PREVIOUS_JTI_FIELD = "previousJti";
+        /** jti 발급 시각에 대한 field name */
+        private static final String ROTATED_AT_FIELD = "rotatedAt";
 
         public static String jtiField() {
             return JTI_FIELD;
         }
+
+        public static String previousJtiField() {
+            return PREVIOUS_JTI_FIELD;
+        }
+
+        public static String rotatedAtField() {
+            return ROTATED_AT_FIELD;
+        }
     }
 
 }
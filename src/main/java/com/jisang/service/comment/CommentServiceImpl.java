@@ -22,6 +22,7 @@ import com.jisang.persistence.UserDAO;
 import com.jisang.support.NestedCommentException;
 import com.jisang.support.NoSuchParentCommentIdException;
 import com.jisang.support.NoSuchProductException;
+import com.jisang.support.ResponseDTOMapper;
 
 /**
  * 
@@ -118,8 +119,8 @@ public class CommentServiceImpl implements CommentService {
         Map<Integer, CommentResponseDTO> commentMap = new HashMap<>();
 
         commentList.stream().filter(comment -> comment.getParentId() == 0).forEach(comment -> {
-            CommentResponseDTO commentDTO = modelMapper.map(comment, CommentResponseDTO.class);
-            modelMapper.map(userDAO.read(comment.getUserId()), commentDTO);
+            CommentResponseDTO commentDTO = 
+                    ResponseDTOMapper.toCommentResponse(comment, userDAO.read(comment.getUserId()));
 
             commentMap.put(comment.getId(), commentDTO);
         });
@@ -136,8 +137,8 @@ public class CommentServiceImpl implements CommentService {
 
                            throw new IllegalStateException("Odd foreign key constraint related to comment, detected.");
                        } else {
-                           CommentResponseDTO commentDTO = modelMapper.map(child, CommentResponseDTO.class);
-                           modelMapper.map(userDAO.read(child.getUserId()), commentDTO);
+                           CommentResponseDTO commentDTO = 
+                                   ResponseDTOMapper.toCommentResponse(child, userDAO.read(child.getUserId()));
 
                            parent.getChilds().add(commentDTO);
                        }
@@ -2,7 +2,6 @@ package com.jisang.service.map;
 
 import java.util.Optional;
 
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,6 +15,7 @@ import com.jisang.persistence.MapDAO;
 import com.jisang.persistence.MarketDAO;
 import com.jisang.support.NoSuchLocationException;
 import com.jisang.support.NoSuchMarketException;
+import com.jisang.support.ResponseDTOMapper;
 
 @Service
 public class MapServiceImpl implements MapService {
@@ -26,8 +26,6 @@ public class MapServiceImpl implements MapService {
     private MapDAO mapDAO;
     @Autowired
     private MarketDAO marketDAO;
-    @Autowired
-    private ModelMapper modelMapper;
 
     @Override
     public MallMapResponseDTO getMallMapByLocationId(String locationId) {
@@ -38,7 +36,7 @@ public class MapServiceImpl implements MapService {
             throw new NoSuchLocationException("Received invalid location id parameter.", locationId);
         });
 
-        return modelMapper.map(location, MallMapResponseDTO.class);
+        return ResponseDTOMapper.toMallMapResponse(location);
     }
 
     @Override
@@ -51,8 +49,7 @@ public class MapServiceImpl implements MapService {
 
         logger.debug("Get market info succeeded while trying to get map location info for market id {}.", marketId);
 
-        MallMapResponseDTO mapDTO = modelMapper.map(mapDAO.readLocation(market.getLocation()),
-                MallMapResponseDTO.class);
+        MallMapResponseDTO mapDTO = ResponseDTOMapper.toMallMapResponse(mapDAO.readLocation(market.getLocation()));
 
         MapAddressResponseDTO dto = mapDTO.getAddressList().stream()
                 .filter(addr -> addr.getMarket() != null && addr.getMarket().getId() == marketId).findAny()
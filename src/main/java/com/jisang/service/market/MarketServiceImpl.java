@@ -1,5 +1,6 @@
 package com.jisang.service.market;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -8,12 +9,10 @@ import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.amazonaws.AmazonClientException;
 import com.jisang.domain.Address;
 import com.jisang.domain.Market;
 import com.jisang.dto.market.MarketManagementDTO.MarketModifyRequestDTO;
@@ -23,8 +22,14 @@ import com.jisang.persistence.ManagementDAO;
 import com.jisang.persistence.MarketDAO;
 import com.jisang.persistence.MultipartDAO;
 import com.jisang.support.AddressAleadyUsedException;
+import com.jisang.support.ImageWritePipeline;
 import com.jisang.support.ImageOperationProvider;
 import com.jisang.support.NoSuchAddressException;
+import com.jisang.support.ProductBestRanking;
+import com.jisang.support.ProductDetailCache;
+import com.jisang.support.ProductListCache;
+import com.jisang.support.ResponseDTOMapper;
+import com.jisang.support.TransactionCallbacks;
 
 /**
  * 
@@ -50,13 +55,17 @@ public class MarketServiceImpl implements MarketService {
     private MultipartDAO multipartDAO;
     @Autowired
     private MapDAO mapDAO;
-
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductBestRanking productBestRanking;
+    @Autowired
+    private ProductListCache productListCache;
+    @Autowired
+    private ProductDetailCache productDetailCache;
     @Autowired
-    @Qualifier("imageTrashCan")
-    private List<String> imageTrashCan;
+    private ImageWritePipeline imageWritePipeline;
 
+    @Autowired
+    private ModelMapper modelMapper;
     // Methods 
     // ==========================================================================================================================
 
@@ -128,12 +137,8 @@ public class MarketServiceImpl implements MarketService {
 
         logger.debug("Finding market id succeeded.  market id : {}", marketId);
 
-        MarketModifyResponseDTO resDTO = new MarketModifyResponseDTO();
-
-        modelMapper.map(marketDAO.read(marketId), resDTO);
-        modelMapper.map(mapDAO.readAddressByMarketId(marketId), resDTO);
-
-        return resDTO;
+        return ResponseDTOMapper.toMarketModifyResponse(marketDAO.readSummary(marketId),
+                                                        mapDAO.readAddressByMarketId(marketId));
     }
 
     /**
@@ -145,14 +150,15 @@ public class MarketServiceImpl implements MarketService {
      * 코드나 그 외 AOP 적용 등의 과정의 실수로 인해 null 값이 전달될 경우를 위해
      * {@code Objects.requireNonNull}을 호출하였다.
      * 
-     * 예외가 발생하면 S3와 같은 클라우드 스토리지에 업로드 된 이미지(업로드 된 경우)를 삭제함을 알 수 있다. 삭제 작업 도중 에외가
-     * 발생하여 삭제가 되지 않는다면 후에 스케줄러를 이용한 삭제가 적용되도록 {@code imageTrashCan}에 담는다.
+     * 새 이미지는 트랜잭션 밖에서 업로드되며 주소와 마켓 정보 변경만 {@link ImageWritePipeline}의 짧은 트랜잭션 안에서
+     * 수행된다. 트랜잭션이 실패하면 업로드 된 이미지는 {@link ImageWritePipeline}에 의해 삭제된다. 기존 이미지는 커밋이 성공한
+     * 후에 삭제되며 삭제 작업 도중 에외가 발생하여 삭제가 되지 않는다면 후에 스케줄러를 이용한 삭제가 적용되도록
+     * {@code imageTrashCan}에 담는다.
      * 
      * 이 클래스의 다른 메서드와 마찬가지로 로깅은 {@link MarketServiceAspect}에 의해 수행된다.
      * 
      */
     @Override
-    @Transactional
     public MarketModifyResponseDTO modifyMarket(MarketModifyRequestDTO marketDTO) {
 
         Objects.requireNonNull(marketDTO, "Null value argument marketDTO detected while trying to modify market info.");
@@ -163,51 +169,45 @@ public class MarketServiceImpl implements MarketService {
         logger.debug("Finding market id succeeded. market id : {}", marketId);
 
         marketDTO.setId(marketId);
-        updateAddress(marketDTO);
 
-        MultipartFile file = null;
+        MultipartFile file = marketDTO.getImageFile();
         String imageUrl = null;
 
-        try {
-            file = marketDTO.getImageFile();
-
-            if (!Objects.isNull(file)) {
-                ImageOperationProvider.validateImage(file.getOriginalFilename());
-                deleteOlderImages(marketId);
-                imageUrl = multipartDAO.upload(file).get(0);
-            }
-
-            Market market = modelMapper.map(marketDTO, Market.class);
-            market.setImageUrl(imageUrl);
+        if (!Objects.isNull(file)) {
+            ImageOperationProvider.validateImage(file.getOriginalFilename());
+            imageUrl = multipartDAO.upload(file).get(0);
+        }
 
-            marketDAO.update(market);
+        Market market = modelMapper.map(marketDTO, Market.class);
+        market.setImageUrl(imageUrl);
 
-            MarketModifyResponseDTO resDTO = modelMapper.map(marketDTO, MarketModifyResponseDTO.class);
-            resDTO.setImageUrl(imageUrl);
-            return resDTO;
+        List<String> uploaded = Objects.isNull(imageUrl) ? Collections.emptyList()
+                                                         : Collections.singletonList(imageUrl);
 
-        } catch (RuntimeException e) {
+        String olderImageUrl = imageWritePipeline.write(uploaded, status -> {
+            updateAddress(marketDTO);
 
-            if (!Objects.isNull(imageUrl)) {
-                logger.info("Deleting representing image {} from cloud storage.", imageUrl);
+            String olderImage = marketDAO.read(marketId).getImageUrl();
+            String olderLocation = productBestRanking.findMarketLocation(marketId);
 
-                try {
-                    multipartDAO.delete(imageUrl);
-                } catch (AmazonClientException ex) {
-                    logger.error("Despite of retryed deletion, Deleting images from storage failed. Failed image : {}.",
-                            imageUrl);
+            marketDAO.update(market);
 
-                    logger.info(
-                            "Putting failed image to trash can... Images in trash can will be deleted by scheduler.");
-                    imageTrashCan.add(imageUrl);
+            TransactionCallbacks.afterCommit(() -> {
+                productBestRanking.relocateMarket(marketId, market.getLocation());
+                productListCache.evictMarket(marketId, olderLocation, market.getLocation());
+                productDetailCache.evictMarket(marketId);
+            });
+            return olderImage;
+        });
 
-                    logger.info(
-                            "Exception associated with failed image deletion is not be propagated anymore. Exception : ",
-                            e);
-                }
-            }
-            throw e;
+        // 새 이미지가 없을 경우 기존 이미지는 그대로 사용된다.
+        if (!uploaded.isEmpty() && !Objects.isNull(olderImageUrl)) {
+            imageWritePipeline.discard(Collections.singletonList(olderImageUrl));
         }
+
+        MarketModifyResponseDTO resDTO = modelMapper.map(marketDTO, MarketModifyResponseDTO.class);
+        resDTO.setImageUrl(imageUrl);
+        return resDTO;
     }
 
     private int validateManager(int managerId) {
@@ -221,44 +221,6 @@ public class MarketServiceImpl implements MarketService {
         });
     }
 
-    /**
-     * 
-     * AWS S3와 같은 스토리지로부터 이미지를 삭제한다. 이 메서드의 catch 절을 보면 예외를 잡고 더 이상 던지지 않음을 알 수 있는데
-     * 어플리케이션 관리자가 S3와 같은 스토리지의 데이터를 직접 삭제하도록 하고 사용자에게는 서버 에러 등의 메세지 없이 요청이 잘 처리 된
-     * 것과 같이 동작되게 하기 위함이다. 이렇게 동작되게 하여도 사용자에게 잘못된 이미지 정보가 전달될 일이 없는데 이유는, S3 상에 저장되어
-     * 있는 이미지 파일의 url이 RDB에 담겨있고 서버는 클라이언트에게 이 url을 전달하기 때문이다. 즉 사용자는 S3에 새로 update된
-     * 이미지 파일에 대한 url만을 전달 받을 것이다.
-     * 
-     * 삭제 연산이 실패할 경우 일괄 삭제를 위해 {@code imageTrashCan}에 후에 삭제되어야 할 이미지를 추가함을 알 수 있다.
-     * DAO 메서드에서 이와 같은 작업을 해도 되나 그렇게 하지 않은 이유는 DAO 메서드가 실패할 경우 실패한 메서드가 retry 되도록 하기
-     * 위함이다.
-     *
-     */
-    private void deleteOlderImages(int marketId) {
-
-        logger.debug("Deleting older market image from image storage started.");
-
-        Optional.ofNullable(marketDAO.read(marketId).getImageUrl()).ifPresent(img -> {
-            try {
-                multipartDAO.delete(img);
-
-                logger.debug("Deleting older market image from image storage succeeded.");
-
-            } catch (AmazonClientException e) {
-
-                logger.error("Despite of retryed call, Deleting market image from storage failed. Failed image : {}.",
-                        img);
-                logger.info("Putting failed image to trash can... Images in trash can will be deleted by scheduler.");
-
-                imageTrashCan.add(img);
-
-                logger.info(
-                        "Exception associated with failed image deletion is not be propagated anymore. Exception : ",
-                        e);
-            }
-        });
-    }
-
     private void updateAddress(MarketModifyRequestDTO modifyDTO) {
 
         /*
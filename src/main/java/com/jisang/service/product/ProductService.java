@@ -1,5 +1,6 @@
 package com.jisang.service.product;
 
+import com.jisang.dto.product.ImageUploadSlotDTO.ImageUploadSlotResponseDTO;
 import com.jisang.dto.product.ProductListViewDTO.ManagementProductListView;
 import com.jisang.dto.product.ProductListViewDTO.ProductListView;
 import com.jisang.dto.product.ProductManagementViewDTO.ProductModifyRequestDTO;
@@ -40,4 +41,6 @@ public interface ProductService {
     public ManagementProductListView findProductListByDate(int managerId, LocalDate uploadDate);
 
     public void deleteProduct(int managerId, int productId);
+
+    public List<ImageUploadSlotResponseDTO> issueImageUploadSlots(int managerId, List<String> filenames);
 }
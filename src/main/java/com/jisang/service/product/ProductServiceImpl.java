@@ -4,13 +4,20 @@ import static com.jisang.config.code.CodeBook.ProductListViewType.BEST;
 import static com.jisang.config.code.CodeBook.ProductListViewType.PAGE;
 import static com.jisang.config.code.CodeBook.ProductListViewType.RECOMMENDED;
 
+import java.net.URL;
+import java.net.URLConnection;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.modelmapper.ModelMapper;
@@ -19,20 +26,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.elasticsearch.ElasticsearchException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
-import com.amazonaws.AmazonClientException;
 import com.jisang.domain.HashTag;
 import com.jisang.domain.Market;
 import com.jisang.domain.Product;
+import com.jisang.dto.product.ImageUploadSlotDTO.ImageUploadSlotResponseDTO;
 import com.jisang.dto.product.ProductListViewConfigData;
 import com.jisang.dto.product.ProductListViewDTO.ManagementProductListView;
 import com.jisang.dto.product.ProductListViewDTO.PagenationProductListView;
 import com.jisang.dto.product.ProductListViewDTO.ProductListView;
-import com.jisang.dto.product.ProductListViewDTO.ProductListViewEntity;
 import com.jisang.dto.product.ProductManagementViewDTO.ProductModifyRequestDTO;
 import com.jisang.dto.product.ProductManagementViewDTO.ProductModifyResponseDTO;
 import com.jisang.dto.product.ProductManagementViewDTO.ProductMutationDTO;
@@ -40,15 +45,31 @@ import com.jisang.dto.product.ProductManagementViewDTO.ProductRegisterRequestDTO
 import com.jisang.dto.product.ProductShoppingDetailedViewDTO;
 import com.jisang.dto.product.criteria.BestViewCriteria;
 import com.jisang.dto.product.criteria.BestViewCriteria.BestViewCriteriaBuilder;
+import com.jisang.dto.product.criteria.PageCursor;
 import com.jisang.dto.product.criteria.PageViewCriteria;
 import com.jisang.dto.product.criteria.PageViewCriteria.PageViewCriteriaBuilder;
 import com.jisang.dto.product.criteria.RecommendedViewCriteria;
 import com.jisang.dto.product.criteria.RecommendedViewCriteria.RecommendedViewCriteriaBuilder;
 import com.jisang.persistence.HashTagDAO;
+import com.jisang.persistence.InvalidStagedImageException;
 import com.jisang.persistence.ManagementDAO;
 import com.jisang.persistence.MarketDAO;
 import com.jisang.persistence.MultipartDAO;
 import com.jisang.persistence.ProductDAO;
+import com.jisang.support.HashTagSearchIndex;
+import com.jisang.support.ImageBlobStore;
+import com.jisang.support.ImageDerivativePipeline;
+import com.jisang.support.ImageOperationProvider;
+import com.jisang.support.ImageWritePipeline;
+import com.jisang.support.NoSuchProductException;
+import com.jisang.support.ProductBestRanking;
+import com.jisang.support.ProductCountCache;
+import com.jisang.support.ProductDetailCache;
+import com.jisang.support.ProductHitCounter;
+import com.jisang.support.ProductListCache;
+import com.jisang.support.ResponseDTOMapper;
+import com.jisang.support.TransactionCallbacks;
+import com.jisang.support.UnsupportedImageFormatException;
 import com.jisang.support.validation.ProductListViewValidator;
 import com.jisang.web.product.ProductController;
 
@@ -74,17 +95,39 @@ public class ProductServiceImpl implements ProductService {
     private MultipartDAO multipartDAO;
     @Autowired
     private HashTagDAO hashTagDAO;
+    @Autowired
+    private ProductHitCounter productHitCounter;
+    @Autowired
+    private ProductBestRanking productBestRanking;
+    @Autowired
+    private ProductCountCache productCountCache;
+    @Autowired
+    private HashTagSearchIndex hashTagSearchIndex;
+    @Autowired
+    private ProductListCache productListCache;
+    @Autowired
+    private ProductDetailCache productDetailCache;
+    @Autowired
+    private ImageWritePipeline imageWritePipeline;
+    @Autowired
+    private ImageDerivativePipeline imageDerivativePipeline;
+    @Autowired
+    private ImageBlobStore imageBlobStore;
 
     @Autowired
     private ModelMapper modelMapper;
 
-    @Autowired
-    @Qualifier("imageTrashCan")
-    private List<String> imageTrashCan;
     @Autowired
     @Qualifier("hashtagTrashCan")
     private List<Integer> hashtagTrashCan;
 
+    @Value("${image.upload-slot.staging-prefix:upload-slots/}")
+    private String uploadSlotStagingPrefix;
+    @Value("${image.upload-slot.ttl-seconds:600}")
+    private long uploadSlotTtlSeconds;
+    @Value("${image.upload-slot.max-size:5242880}")
+    private long uploadSlotMaxSize;
+
     @Value("${view.best.past-hit-weight}")
     private double pastHitWeight;
     @Value("${view.best.current-hit-weight}")
@@ -129,8 +172,8 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      *
-     * {@link #deleteOlderImages(String...)} 메서드와 달리 이 메서드에서 엘라스틱서치에 저장된 해시태그를 삭제하는
-     * 도중 예외가 발생할 경우 이 메서드는 예외를 던진다. 이미지의 경우 삭제에 실패해도 RDB에 저장되어 있는 이미지 url만 잘 삭제되었다면
+     * 이미지 해제({@link ImageBlobStore#release(java.util.Collection)})와 달리 이 메서드에서 엘라스틱서치에 저장된
+     * 해시태그를 삭제하는 도중 예외가 발생할 경우 이 메서드는 예외를 던진다. 이미지의 경우 삭제에 실패해도 RDB에 저장되어 있는 이미지 url만 잘 삭제되었다면
      * 사용자에게 잘못된 이미지(삭제하려다 실패한 이미지)가 보여지는 일이 발생하지 않는다. 그러나 해시태그의 경우는 클라이언트에 url이
      * 전달되는 것이 아니라 해시태그 그 자체가 전달되는 것이기 때문에 비록 검색어 미리보기에서나 사용되는 정보이긴 하나 의미없는 정보가
      * 사용자에게 전달된다. 스케줄러에 의해 삭제되기 전까지는 그런 의미없는 정보가 다른 사용자들에게 약간이라도 불편을 줄 수 있는 것이기 때문에
@@ -172,45 +215,8 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      *
-     * AWS S3와 같은 스토리지로부터 이미지를 삭제한다. 이 메서드의 catch 절을 보면 예외를 잡고 더 이상 던지지 않음을 알 수 있는데
-     * 어플리케이션 관리자가 S3와 같은 스토리지의 데이터를 직접 삭제하도록 하고 사용자에게는 서버 에러 등의 메세지 없이 요청이 잘 처리 된
-     * 것과 같이 동작되게 하기 위함이다. 이렇게 동작되게 하여도 사용자에게 잘못된 이미지 정보가 전달될 일이 없는데 이유는, S3 상에 저장되어
-     * 있는 이미지 파일의 url이 RDB에 담겨있고 서버는 클라이언트에게 이 url을 전달하기 때문이다. 즉 사용자는 S3에 새로 update된
-     * 이미지 파일에 대한 url만을 전달 받을 것이다.
-     *
-     * 삭제 연산이 실패할 경우 일괄 삭제를 위해 {@code imageTrashCan}에 후에 삭제되어야 할 이미지를 추가함을 알 수 있다.
-     * DAO 메서드에서 이와 같은 작업을 해도 되나 그렇게 하지 않은 이유는 DAO 메서드가 실패할 경우 실패한 메서드가 retry 되도록 하기
-     * 위함이다.
-     *
-     */
-    private void deleteOlderImages(String... imageUrls) {
-
-        logger.debug("Deleting older images from image storage started.");
-
-        Objects.requireNonNull(imageUrls,
-                "Null value argument imageUrls detected while trying to delete images from storage.");
-
-        try {
-            multipartDAO.delete(imageUrls);
-
-            logger.debug("Deleting older images from image storage succeeded.");
-
-        } catch (AmazonClientException e) {
-
-            logger.error("Despite of retryed call, Deleting images from storage failed. Failed image : {}.",
-                    Arrays.asList(imageUrls));
-            logger.info("Putting failed image to trash can... Images in trash can will be deleted by scheduler.");
-
-            imageTrashCan.addAll(Arrays.asList(imageUrls));
-
-            logger.info("Exception associated with failed image deletion is not be propagated anymore. Exception : ",
-                    e);
-        }
-    }
-
-    /**
-     *
-     * 마켓의 상품을 삭제하는 서비스 메서드이다.
+     * 마켓의 상품을 삭제하는 서비스 메서드이다. 상품이 참조하던 이미지는 {@link ImageBlobStore}에서 해제되며 다른 상품이
+     * 참조하지 않는 이미지는 후에 스케줄러에 의해 삭제된다.
      *
      */
     @Override
@@ -226,15 +232,29 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = productDAO.read(productId);
 
-        List<String> imageUrls = product.getImageUrls();
-        String representingImageUrl = product.getRepresentingImageUrl();
-
         deleteOlderHashTagsFromES(productId);
 
-        deleteOlderImages(imageUrls.toArray(new String[imageUrls.size()]));
-        deleteOlderImages(representingImageUrl);
-
         productDAO.delete(productId);
+
+        List<String> released = referencesOf(product);
+        released.addAll(derivativesOf(product));
+
+        try {
+            imageBlobStore.release(released);
+        } catch (DataAccessException e) {
+            // 상품은 이미 삭제되었으므로 요청을 실패시키지 않는다. 해제되지 않은 이미지는 스토리지에 남을 뿐이다.
+            logger.error("Releasing images of deleted product id {} failed. Images : {}", productId, released);
+            logger.error("Exception : ", e);
+        }
+
+        productBestRanking.remove(productId);
+        hashTagSearchIndex.remove(productId);
+
+        TransactionCallbacks.afterCommit(() -> {
+            productDetailCache.evictProduct(productId);
+            productListCache.evictProduct(product.getMarketId(),
+                    productBestRanking.findMarketLocation(product.getMarketId()), product.getCategory());
+        });
     }
 
     // Methods related to product finding
@@ -242,27 +262,45 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      * 지상 어플리케이션의 쇼핑 화면 중 특정 상품에 대한 쇼핑 화면(와이어 프레임 상에서 특정 상품 정보 화면)의 구성을 위한 로직을 수행한다.
+     * 조회수 증가는 {@link ProductHitCounter}에 누적만 해두며 데이터베이스 반영은 스케줄러에 의해 일괄 수행된다.
+     *
+     * 상품 정보와 이미지 목록은 하나의 쿼리로, 마켓 정보는 마켓의 상품 목록을 제외하고 조회하므로 총 두 번의 쿼리만 수행된다. 조회한
+     * 정보는 {@link ProductDetailCache}에 캐싱되며 조회수는 캐시 적중 여부와 관계 없이 증가한다.
      */
     @Override
     public ProductShoppingDetailedViewDTO findProductForShopping(int productId) {
-        Product product = productDAO.read(productId);
-        Market market = marketDAO.read(product.getMarketId());
+        ProductShoppingDetailedViewDTO productDTO = productDetailCache.get(productId, this::loadProductForShopping);
 
-        logger.debug("Loading domain object to form product shopping view data succeeded.");
+        productHitCounter.increment(productId);
+
+        return productDTO;
+    }
 
-        ProductShoppingDetailedViewDTO productDTO = modelMapper.map(product, ProductShoppingDetailedViewDTO.class);
-        modelMapper.map(market, productDTO);
+    /**
+     * {@link ProductDetailCache}에 캐싱된 정보가 없을 경우 호출되어 상품 상세 화면 정보를 구성한다.
+     *
+     * @throws NoSuchProductException
+     *             존재하지 않는 상품 id가 전달되었을 경우 발생한다.
+     */
+    private ProductShoppingDetailedViewDTO loadProductForShopping(int productId) {
+        Product product = productDAO.readForShopping(productId);
 
-        productDAO.addHit(productId);
+        if (product == null) {
+            throw new NoSuchProductException("Received non existing product id.", productId);
+        }
 
-        return productDTO;
+        Market market = marketDAO.readSummary(product.getMarketId());
+
+        logger.debug("Loading domain object to form product shopping view data succeeded.");
+
+        return ResponseDTOMapper.toShoppingDetailedView(product, market);
     }
 
     /**
      *
-     * 지상 어플리케이션 화면의 대부분을 차지하는 (여러 유형의)상품 목록 화면에 필요한 데이터를 처리하는 비즈니스 메서드이다. 실제 처리는
-     * {@link #findProductListPage}, {@link #findProductListBest},
-     * {@link #findProductListRecommended}에 위임한다.
+     * 지상 어플리케이션 화면의 대부분을 차지하는 (여러 유형의)상품 목록 화면에 필요한 데이터를 처리하는 비즈니스 메서드이다. 같은 조건의
+     * 요청은 {@link ProductListCache}에 캐싱된 정보를 반환하며, 실제 처리는 {@link #findProductListPage},
+     * {@link #findProductListBest}, {@link #findProductListRecommended}에 위임한다.
      *
      * @throws IllegalStateException
      *             {@link com.jisang.config.code.CodeBook.ViewType}에 해당되지 않은 값이
@@ -276,6 +314,13 @@ public class ProductServiceImpl implements ProductService {
         Objects.requireNonNull(viewConfig,
                 "Null value argument viewConfig detected while trying to find product list.");
 
+        return productListCache.get(viewConfig, () -> loadProductList(viewConfig));
+    }
+
+    /**
+     * {@link ProductListCache}에 캐싱된 정보가 없을 경우 호출되어 뷰 타입에 따라 상품 목록 화면 정보를 구성한다.
+     */
+    private ProductListView loadProductList(ProductListViewConfigData viewConfig) {
         if (BEST.equalsByCode(viewConfig.getViewType())) {
             logger.debug("Resolved view type : {}", BEST);
             return findProductListBest(viewConfig);
@@ -304,18 +349,25 @@ public class ProductServiceImpl implements ProductService {
      * 현재의 지상 어플리케이션의 와이어 프레임 상으로는, 와이어 프레임 상의 상품 목록 화면의 대부분을 차지하는 기본 상품 목록 화면 구성에
      * 필요한 동작을 수행한다. 현재 와이어프레임만 고려하였을 경우 단지 상품 목록 전체를 반환하게 해도 되나 상품 목록이 많아질 때
      * 페이지네이션이 무조건 필요할 것이라고 생각되어 {@link PageViewCriteria} 를 이용하여 상품목록을 반환하도록 하였다.
+     * 
+     * 클라이언트가 {@code cursor} 파라미터를 전달한 경우는 커서 방식 페이지 뷰로 처리한다.
      */
     private PagenationProductListView findProductListPage(ProductListViewConfigData viewConfig) {
 
         logger.debug("Starting to find product list with view type {}.", PAGE);
 
-        int totalCount = productDAO.readProductTotalCount(viewConfig);
+        if (viewConfig.getCursor() != null) {
+            return findProductListPageByCursor(viewConfig);
+        }
+
+        int totalCount = productCountCache.count(viewConfig);
 
         PageViewCriteria criteria = 
                 new PageViewCriteriaBuilder(viewConfig.getMarketId(), viewConfig.getMallLocation(),
                                             viewConfig.getCategory(), totalCount).pageIndex(viewConfig.getPageIndex())
                         .perPageCnt(viewConfig.getPerPageCnt())
                         .searchKeyword(viewConfig.getSearchCriteria().getKeyword())
+                        .searchProductIds(searchProductIds(viewConfig))
                         .build();
 
         List<Product> productList = productDAO.readListPage(criteria);
@@ -326,9 +378,7 @@ public class ProductServiceImpl implements ProductService {
 
         PagenationProductListView viewDTO = new PagenationProductListView();
 
-        viewDTO.setProductEntityList(productList.stream()
-                                                .map(product -> modelMapper.map(product, ProductListViewEntity.class))
-                                                .collect(Collectors.toList()));
+        viewDTO.setProductEntityList(ResponseDTOMapper.toListViewEntities(productList));
 
         viewDTO.setCurrentPageIdx(criteria.getPageIndex());
         viewDTO.setEndPageIdx(criteria.getEndPage());
@@ -336,18 +386,66 @@ public class ProductServiceImpl implements ProductService {
         return viewDTO;
     }
 
+    /**
+     * 커서 방식 페이지 뷰를 처리한다. 클라이언트가 전달한 커서 이후의 상품을 {@code perPageCnt + 1}개 조회하여 하나가 더
+     * 조회되었을 경우에만 다음 페이지가 존재한다고 판단하고 마지막으로 반환되는 상품의 (등록 시간, id)로 다음 커서를 만든다. 전체 상품
+     * 수를 세지 않으며 페이지 번호도 계산하지 않는다.
+     */
+    private PagenationProductListView findProductListPageByCursor(ProductListViewConfigData viewConfig) {
+        PageCursor cursor = viewConfig.getCursor().isEmpty() ? null : PageCursor.decode(viewConfig.getCursor());
+
+        PageViewCriteria criteria = 
+                new PageViewCriteriaBuilder(viewConfig.getMarketId(), viewConfig.getMallLocation(),
+                                            viewConfig.getCategory(), cursor)
+                        .perPageCnt(viewConfig.getPerPageCnt())
+                        .searchKeyword(viewConfig.getSearchCriteria().getKeyword())
+                        .searchProductIds(searchProductIds(viewConfig))
+                        .build();
+
+        List<Product> productList = productDAO.readListPage(criteria);
+
+        logger.debug("Finding product list with view type {} by cursor succeeded.", PAGE);
+
+        PagenationProductListView viewDTO = new PagenationProductListView();
+
+        if (productList.size() > criteria.getPerPageCnt()) {
+            productList = productList.subList(0, criteria.getPerPageCnt());
+
+            Product last = productList.get(productList.size() - 1);
+            viewDTO.setNextCursor(new PageCursor(last.getUploadTime(), last.getId()).encode());
+        }
+
+        viewDTO.setProductEntityList(ResponseDTOMapper.toListViewEntities(productList));
+
+        return viewDTO;
+    }
+
     /**
      * 조회수를 기반으로 클라이언트에서 요청한 개수 만큼의 best 상품 목록을 반환한다.
+     * 
+     * 검색어가 없는 경우는 {@link ProductBestRanking}으로부터 바로 상품 목록을 가져오며 데이터베이스에 접근하지 않는다. 검색어가
+     * 있는 경우 또는 랭킹이 아직 구성되지 않은 경우에만 데이터베이스에서 정렬된 목록을 조회한다.
      */
     private ProductListView findProductListBest(ProductListViewConfigData viewConfig) {
 
         logger.debug("Starting to find product list with view type {}.", BEST);
 
+        if (viewConfig.getSearchCriteria().getKeyword() == null && productBestRanking.isReady()) {
+            ProductListView viewDTO = new ProductListView();
+            viewDTO.setProductEntityList(productBestRanking.findBest(viewConfig.getCategory(),
+                    viewConfig.getMallLocation(), viewConfig.getMarketId(), viewConfig.getBestViewCnt()));
+
+            logger.debug("Finding product list with view type {} from best ranking succeeded.", BEST);
+
+            return viewDTO;
+        }
+
         BestViewCriteria criteria = 
                 new BestViewCriteriaBuilder(viewConfig.getMarketId(), viewConfig.getMallLocation(),
                                             viewConfig.getCategory(), viewConfig.getBestViewCnt())
                         .pastHitWeight(pastHitWeight)
                         .currentHitWeight(currentHitWeight).searchKeyword(viewConfig.getSearchCriteria().getKeyword())
+                        .searchProductIds(searchProductIds(viewConfig))
                         .build();
 
         List<Product> productList = productDAO.readListBest(criteria);
@@ -357,9 +455,7 @@ public class ProductServiceImpl implements ProductService {
         logger.debug("Starting to return {} type object.", ProductListView.class);
 
         ProductListView viewDTO = new ProductListView();
-        viewDTO.setProductEntityList(productList.stream()
-                                                .map(product -> modelMapper.map(product, ProductListViewEntity.class))
-                                                .collect(Collectors.toList()));
+        viewDTO.setProductEntityList(ResponseDTOMapper.toListViewEntities(productList));
         return viewDTO;
     }
 
@@ -378,6 +474,7 @@ public class ProductServiceImpl implements ProductService {
                 new RecommendedViewCriteriaBuilder(viewConfig.getMarketId(), viewConfig.getMallLocation(), 
                                                    viewConfig.getCategory(), viewConfig.getRecommendedViewCnt())
                         .searchKeyword(viewConfig.getSearchCriteria().getKeyword())
+                        .searchProductIds(searchProductIds(viewConfig))
                         .build();
 
         List<Product> productList = productDAO.readListRecommended(criteria);
@@ -387,12 +484,20 @@ public class ProductServiceImpl implements ProductService {
         logger.debug("Starting to return {} type object.", ProductListView.class);
 
         ProductListView viewDTO = new ProductListView();
-        viewDTO.setProductEntityList(productList.stream()
-                                                .map(product -> modelMapper.map(product, ProductListViewEntity.class))
-                                                .collect(Collectors.toList()));
+        viewDTO.setProductEntityList(ResponseDTOMapper.toListViewEntities(productList));
         return viewDTO;
     }
 
+    /**
+     * 검색어가 있을 경우 {@link HashTagSearchIndex}로부터 검색어에 해당하는 상품 id 목록을 얻는다. 검색어가 없거나 색인이 아직
+     * 구성되지 않았을 경우 null을 반환하며, 후자의 경우 SQL의 LIKE 조건으로 검색된다.
+     */
+    private Set<Integer> searchProductIds(ProductListViewConfigData viewConfig) {
+        String keyword = viewConfig.getSearchCriteria().getKeyword();
+
+        return keyword == null ? null : hashTagSearchIndex.search(keyword);
+    }
+
     /**
      * 지상 어플리케이션의 와이어프레임 상의 마켓 관리 화면에을 보면 상품 등록 일자 별로 그룹핑 된 상품 목록 화면과 해당 화면에서 특정 일자에
      * 대한 그룹을 선택할 경우 선택된 그룹의 상품 목록을 출력하는 화면이 존재한다. 이 메서드는 전자의 화면 구성에 필요한 동작을 수행한다.
@@ -420,7 +525,7 @@ public class ProductServiceImpl implements ProductService {
             mplv.setUploadDate(date);
             productListGroupedByDate.get(date).stream()
                                               .forEach(product -> 
-                                                  mplv.addProductEntity(modelMapper.map(product, ProductListViewEntity.class)));
+                                                  mplv.addProductEntity(ResponseDTOMapper.toListViewEntity(product)));
             returnedList.add(mplv);
         }
 
@@ -453,7 +558,7 @@ public class ProductServiceImpl implements ProductService {
 
         mplv.setUploadDate(uploadDate);
         productList.stream()
-                   .forEach(product -> mplv.addProductEntity(modelMapper.map(product, ProductListViewEntity.class)));
+                   .forEach(product -> mplv.addProductEntity(ResponseDTOMapper.toListViewEntity(product)));
 
         logger.debug("Returnning product list.");
 
@@ -494,25 +599,23 @@ public class ProductServiceImpl implements ProductService {
      * 있기 때문에 꼭 필요한 작업이다. (JWT token 내에 마켓 id 필드를 둘 수도 있겠으나 그렇게는 하지 않았다.) <br>
      *
      *
-     * 그 다음으로 수행하는 작업은 상품 도메인을 구성하는 해시태그와 이미지 url(AWS S3 등의 스토리지에 저장된 이미지의 url)을
-     * 삭제한다. 이들 정보는 현재 RDB의 'tbl_hashtags', 'tbl_images'에 저장되어 있다. 업데이트시에 기존 정보를 다
-     * 삭제해버리는 것이 구현상 편한 것 같다.
-     *
-     * 마지막으로 S3와 같은 스토리지에 저장되어 있는 이미지 파일을 삭제한다. 실제 이미지 파일의 삭제를 이미지 url 삭제보다 나중에 할
-     * 경우, 즉 이미지 url 삭제를 먼저 할 경우 이미지 url의 일부만 삭제된 상태에서 오류가 발생하거나 이미지 url은 모두 다
-     * 삭제되었으나 실제 이미지 파일의 삭제 바로 이전에 오류가 발생할 경우 S3와 같은 스토리지에는 소유자({@link Product})의
-     * 정체를 알 수 없는 쓰레기 파일들이 남아있게 된다고 생각할 수 있으나 {@link @Transactional}이 적용되었기 때문에 오류가
-     * 발생하면 Rollback 되어 소유자의 정체를 알 수 없는 이미지 파일이 S3에 남게 될 걱정은 하지 않아도 된다.
+     * 그 다음으로 클라이언트가 업로드 슬롯으로 직접 업로드한 새 이미지를 {@link ImageBlobStore}로 옮긴다. 바뀌지 않은
+     * 이미지는 업로드 슬롯의 key 대신 {@link #findProductForModifying(int, int)}로 받은 기존 url을 그대로 전달하면 되며
+     * 스토리지 연산이 전혀 일어나지 않는다. 이전에는 가격이나 설명만 수정하더라도 모든 이미지를 삭제한 후 다시 업로드해야 했다. 이
+     * 작업은 트랜잭션 밖에서 수행되므로 스토리지가 느리더라도 데이터베이스 커넥션을 점유하지 않는다.
      *
-     * 또한 S3와 같은 스토리지에 저장된 이미지 파일을 먼저 삭제할 경우 일부의 이미지 파일만 삭제된 상태 혹은 이미지 파일은 모두 삭제
-     * 되었으나 이미지 url 삭제 이전에 오류가 발생하면 존재하지도 않는 이미지 파일에 대한 url을 전달 받은 클라이언트는 (존재하지 않는
-     * 이미지에 대한 요청이므로)쓸데 없이 네트워킹 낭비를 하게 될 것이다.
+     * 업로드가 끝나면 {@link ImageWritePipeline}의 짧은 트랜잭션 안에서 상품 도메인을 구성하는 해시태그와 이미지
+     * url(AWS S3 등의 스토리지에 저장된 이미지의 url)을 삭제한 후 새 정보를 저장한다. 이들 정보는 현재 RDB의
+     * 'tbl_hashtags', 'tbl_images'에 저장되어 있다. 업데이트시에 기존 정보를 다 삭제해버리는 것이 구현상 편한 것 같다.
+     * 전달된 기존 url이 이 상품의 이미지가 아니라면 트랜잭션은 롤백된다. 트랜잭션이 실패하면 방금 옮긴 이미지는 해제된다.
      *
-     * 위와 같은 이유로 이미지 url을 먼저 삭제하기로 하였다.
+     * 더 이상 참조되지 않는 기존 이미지는 같은 트랜잭션 안에서 해제되며 다른 상품이 참조하지 않는다면 후에 스케줄러에 의해 삭제된다.
+     * 이전에는 트랜잭션 도중 기존 이미지 파일을 삭제하였으므로 이후 오류가 발생하여 Rollback 될 경우 데이터베이스에는 이미 삭제된
+     * 이미지 파일의 url이 남았다. 대표 이미지가 바뀌었을 경우에만 새 대표 이미지의 목록 화면용, 상세 화면용 이미지가
+     * {@link ImageDerivativePipeline}에서 생성되며 생성되기 전까지는 원본이 사용된다.
      *
      */
     @Override
-    @Transactional
     public void modifyProduct(int managerId, ProductModifyRequestDTO productDTO) {
         int productId = productDTO.getId();
 
@@ -525,27 +628,102 @@ public class ProductServiceImpl implements ProductService {
                     productId);
         }
 
-        Product olderProduct = productDAO.read(productId);
+        List<String> requested = new ArrayList<>(productDTO.getImageKeys());
+        requested.add(productDTO.getRepresentingImageKey());
+
+        List<String> images = uploadProductImages(managerId, requested, true);
+        String representingImage = images.get(images.size() - 1);
+
+        List<String> stored = new ArrayList<>();
+        List<String> reused = new ArrayList<>();
+
+        for (int i = 0; i < requested.size(); i++) {
+            (isStagingKey(requested.get(i)) ? stored : reused).add(images.get(i));
+        }
+
+        logger.debug("Uploading {} new images to storage succeeded. Modifying product info started now.",
+                stored.size());
+
+        Product olderProduct = imageWritePipeline.write(stored, imageBlobStore::release, status -> {
+            Product older = productDAO.read(productId);
+
+            List<String> released = referencesOf(older);
+
+            for (String image : reused) {
+                if (!released.remove(image)) {
+                    logger.error("Fatal:::Account id {} tried to attach image of another product. image : {}",
+                            managerId, image);
+
+                    throw new InvalidStagedImageException("Image not attached to the product.", image);
+                }
+            }
+
+            boolean representingImageChanged = !representingImage.equals(older.getRepresentingImageUrl());
+
+            if (representingImageChanged) {
+                released.addAll(derivativesOf(older));
+            }
+
+            deleteOlderImageUrls(productId);
+            deleteOlderHashTags(productId);
+
+            modifyProductInternal(productDTO, images.subList(0, images.size() - 1), representingImage,
+                    representingImageChanged ? null : older);
+
+            imageBlobStore.release(released);
+
+            TransactionCallbacks.afterCommit(() -> {
+                productDetailCache.evictProduct(productId);
+                productListCache.evictProduct(older.getMarketId(),
+                        productBestRanking.findMarketLocation(older.getMarketId()), older.getCategory(),
+                        productDTO.getCategory());
+            });
+            return older;
+        });
+
+        if (representingImage.equals(olderProduct.getRepresentingImageUrl())) {
+            return;
+        }
+
+        Product modified = new Product();
+        modified.setId(productId);
+        modified.setMarketId(olderProduct.getMarketId());
+        modified.setCategory(productDTO.getCategory());
+        modified.setRepresentingImageUrl(representingImage);
 
-        List<String> olderImages = olderProduct.getImageUrls();
-        String olderRepresentingImage = olderProduct.getRepresentingImageUrl();
+        imageDerivativePipeline.submit(modified);
+    }
 
-        // 이미지 파일보다 먼저 삭제되어야만 함.
-        deleteOlderImageUrls(productId);
+    /**
+     * 상품이 참조하는 이미지의 url을 반환한다. 같은 이미지를 여러 번 참조한다면 그 수만큼 포함된다.
+     */
+    private List<String> referencesOf(Product product) {
+        List<String> references = new ArrayList<>(product.getImageUrls());
+        references.add(product.getRepresentingImageUrl());
+        references.removeIf(Objects::isNull);
 
-        deleteOlderImages(olderRepresentingImage);
-        deleteOlderImages(olderImages.toArray(new String[olderImages.size()]));
+        return references;
+    }
 
-        deleteOlderHashTags(productId);
+    /**
+     * 대표 이미지의 목록 화면용, 상세 화면용 이미지의 url을 반환한다. 지원하지 않는 형식의 원본은 원본 url이 그대로 저장되어
+     * 있으므로 제외한다.
+     */
+    private List<String> derivativesOf(Product product) {
+        List<String> derivatives = new ArrayList<>(2);
 
-        modifyProductInternal(productDTO);
+        for (String derivative : Arrays.asList(product.getListImageUrl(), product.getDetailImageUrl())) {
+            if (Objects.nonNull(derivative) && !derivative.equals(product.getRepresentingImageUrl())) {
+                derivatives.add(derivative);
+            }
+        }
+        return derivatives;
     }
 
     /**
      *
-     * {@link #modifyProduct(int, ProductMutationDTO)} 메서드로부터 호출되는 메서드로 실제 상품 수정 작업을
-     * 진행한다. 트랜잭션이 적용되지 않는 {@code multipartDAO}의 업로드 연산에 대한 예외 처리 및 상품 수정 작업 이전에 필요한
-     * 기존 정보 삭제 작업 등으로 메서드의 코드 양이 너무 많아 분리하게 되었다.
+     * {@link #modifyProduct(int, ProductModifyRequestDTO)} 메서드로부터 트랜잭션 안에서 호출되는 메서드로 실제 상품
+     * 수정 작업을 진행한다.
      *
      * 현재 해시태그 정보가 RDB와 엘라스틱서치에 모두 저장되어 있어 이 메서드에서는 RDB와 엘라스틱서치 각각에 상품 정보를 저장한다.
      * 엘라스틱서치에 저장된 해시태그 정보는 검색어 미리보기 기능위해 이용된다. RDB에도 해시태그 정보가 중복으로 존재하는 이유는 다음과 같다.
@@ -561,51 +739,122 @@ public class ProductServiceImpl implements ProductService {
      *
      * 위와 같은 이유로 해시태그 정보를 RDB와 엘라스틱서치에 동시에 두게 되었다.
      *
+     * 대표 이미지가 바뀌지 않았다면 {@code derivativeSource}의 목록 화면용, 상세 화면용 이미지를 그대로 유지한다.
+     *
      */
-    private void modifyProductInternal(ProductModifyRequestDTO productDTO) {
+    private void modifyProductInternal(ProductModifyRequestDTO productDTO, List<String> newImages,
+            String newRepresentingImage, Product derivativeSource) {
 
-        List<String> newImages = null;
-        String newRepresentingImage = null;
+        Product updatingProduct = modelMapper.map(productDTO, Product.class);
+        updatingProduct.setRepresentingImageUrl(newRepresentingImage);
 
-        try {
-            newImages = multipartDAO
-                            .upload(productDTO.getImages().toArray(new MultipartFile[productDTO.getImages().size()]));
-            newRepresentingImage = multipartDAO.upload(productDTO.getRepresentingImage()).get(0);
+        if (derivativeSource != null) {
+            updatingProduct.setListImageUrl(derivativeSource.getListImageUrl());
+            updatingProduct.setDetailImageUrl(derivativeSource.getDetailImageUrl());
+        }
+
+        productDAO.update(updatingProduct);
+        productDAO.createImages(newImages, updatingProduct.getId());
+        productDAO.createHashTags(productDTO.getHashTags(), updatingProduct.getId());
+
+        List<String> newHashTags = productDTO.getHashTags();
+
+        TransactionCallbacks.afterCommit(() -> {
+            productBestRanking.modify(updatingProduct);
+            hashTagSearchIndex.put(updatingProduct.getId(), newHashTags);
+        });
+
+        List<HashTag> hashtagList = new ArrayList<>();
 
-            logger.debug("Uploading images to storage succeeded. Modifying product info started now.");
+        updatingProduct.getHashTags()
+                       .stream()
+                       .forEach(hashTag -> hashtagList.add(new HashTag(updatingProduct.getId(), hashTag)));
 
-            Product updatingProduct = modelMapper.map(productDTO, Product.class);
-            updatingProduct.setRepresentingImageUrl(newRepresentingImage);
+        hashTagDAO.saveAll(hashtagList);
+    }
 
-            productDAO.update(updatingProduct);
-            productDAO.createImages(newImages, updatingProduct.getId());
-            productDAO.createHashTags(productDTO.getHashTags(), updatingProduct.getId());
+    /**
+     *
+     * 클라이언트가 업로드 슬롯으로 직접 업로드한 상품 이미지와 대표 이미지를 한 번에 {@link ImageBlobStore}로 옮긴다. 반환되는
+     * 목록은 {@code requested}와 순서가 같으며 업로드 슬롯의 key는 옮겨진 이미지의 url로 바뀐다. 이미지 데이터는 어플리케이션
+     * 서버를 거치지 않으며 {@code imageBlobStore.store()} 메서드는 이미지를 동시에 복사하므로 두 번 나누어 호출하는 것보다
+     * 빠르다. 일부 이미지가 복사된 상태에서 예외가 발생할 경우의 처리 또한 {@code imageBlobStore.store()} 메서드에서 한 번에
+     * 처리된다.
+     *
+     * @param reuseAllowed
+     *            업로드 슬롯의 key가 아닌 값(기존 이미지의 url)을 그대로 반환할지 여부. 기존 이미지가 실제로 상품의 이미지인지는
+     *            호출한 쪽에서 확인해야 한다.
+     *
+     * @throws InvalidStagedImageException
+     *             {@code managerId}에게 발급되지 않은 key가 전달되었을 경우 발생한다.
+     */
+    private List<String> uploadProductImages(int managerId, List<String> requested, boolean reuseAllowed) {
+        String ownedPrefix = uploadSlotStagingPrefix + managerId + "/";
+        List<String> stagingKeys = new ArrayList<>(requested.size());
+
+        for (String image : requested) {
+            if (isStagingKey(image) && image.startsWith(ownedPrefix) && !image.contains("..")) {
+                stagingKeys.add(image);
+            } else if (isStagingKey(image) || !reuseAllowed) {
+                logger.error("Fatal:::Account id {} tried to use image upload slot not issued to it. key : {}",
+                        managerId, image);
+
+                throw new InvalidStagedImageException("Image upload slot not issued to the manager.", image);
+            }
+        }
 
-            List<HashTag> hashtagList = new ArrayList<>();
+        Iterator<String> stored = imageBlobStore
+                .store(uploadSlotMaxSize, stagingKeys.toArray(new String[stagingKeys.size()])).iterator();
 
-            updatingProduct.getHashTags()
-                           .stream()
-                           .forEach(hashTag -> hashtagList.add(new HashTag(updatingProduct.getId(), hashTag)));
+        List<String> images = new ArrayList<>(requested.size());
+        for (String image : requested) {
+            images.add(isStagingKey(image) ? stored.next() : image);
+        }
+        return images;
+    }
 
-            hashTagDAO.saveAll(hashtagList);
+    private boolean isStagingKey(String image) {
+        return image.startsWith(uploadSlotStagingPrefix);
+    }
 
-        } catch (RuntimeException e) {
-            logger.debug("Exception occurred while trying to modifying product info.");
+    // Methods related to image upload slot
+    // ==========================================================================================================================
 
-            if (newImages != null) {
-                logger.debug("Deleting just uploaded images from image storage.");
+    /**
+     *
+     * 클라이언트가 상품 이미지를 스토리지에 직접 업로드할 수 있도록 업로드 슬롯(임시 객체 key와 pre-signed url)을 발급한다. 이전에는
+     * 상품 이미지가 multipart 요청으로 어플리케이션 서버에 전달된 후 다시 S3로 업로드 되었으므로 이미지 데이터가 두 번 전송되었고 요청
+     * 스레드와 메모리(또는 임시 파일)가 업로드 시간 동안 점유되었다. 이제 서버는 서명만 계산하며 S3에 요청을 보내지 않는다.
+     *
+     * 임시 객체의 key는 {@code managerId}를 포함하므로 상품 등록 및 수정 시 다른 관리자의 임시 객체를 사용하는 것을 막을 수
+     * 있다. 업로드 된 이미지의 크기와 형식은 pre-signed url로 제한할 수 없으므로 상품 등록 및 수정 시 확인한다.
+     *
+     * @throws UnsupportedImageFormatException
+     *             지원하지 않는 확장자의 파일 이름이 전달되었을 경우 발생한다.
+     */
+    @Override
+    public List<ImageUploadSlotResponseDTO> issueImageUploadSlots(int managerId, List<String> filenames) {
+        Objects.requireNonNull(filenames, "Null value argument filenames detected while trying to issue upload slots.");
 
-                deleteOlderImages(newImages.toArray(new String[newImages.size()]));
-            }
+        Date expiresAt = new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(uploadSlotTtlSeconds));
 
-            if (newRepresentingImage != null) {
-                logger.debug("Deleting just uploaded representing image from image storage.");
+        List<ImageUploadSlotResponseDTO> slots = new ArrayList<>(filenames.size());
 
-                deleteOlderImages(newRepresentingImage);
-            }
+        for (String filename : filenames) {
+            ImageOperationProvider.validateImage(filename);
 
-            throw e;
+            String extension = filename.substring(filename.lastIndexOf('.')).toLowerCase();
+            String contentType = URLConnection.guessContentTypeFromName(extension);
+            String key = uploadSlotStagingPrefix + managerId + "/" + UUID.randomUUID() + extension;
+
+            URL uploadUrl = multipartDAO.generateUploadUrl(key, contentType, expiresAt);
+
+            slots.add(new ImageUploadSlotResponseDTO(key, uploadUrl.toString(), contentType, expiresAt));
         }
+
+        logger.debug("Issuing {} image upload slots for account id : {} succeeded.", slots.size(), managerId);
+
+        return slots;
     }
 
     // Methods related to product registering
@@ -613,21 +862,20 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      *
-     * 상품 등록 작업을 수행한다. 우선 스토리지에 상품 이미지를 업로드한 후 업로드 된 이미지의 url을 전달한 후
-     * {@link #registerProductInternal(Product)} 메서드를 호출하여 RDB로의 상품 정보 등록 작업을 맡긴다.
-     * {@code multipartDAO.upload()} 메서드 수행 중 일부 이미지가 업로드 된 상태에서 예외가 발생할 경우를 대비할 필요가
-     * 있는데 이는 {@code multipartDAO.upload()} 메서드에서 처리한다.
+     * 상품 등록 작업을 수행한다. 우선 트랜잭션 밖에서 클라이언트가 업로드 슬롯으로 직접 업로드한 상품 이미지를 공개 이미지로 옮긴 후 그
+     * url을 전달하여 {@link #registerProductInternal(Product)} 메서드를 {@link ImageWritePipeline}의 트랜잭션
+     * 안에서 호출한다.
+     * 데이터베이스 커넥션은 이미지 업로드가 끝난 후에만 점유된다. 트랜잭션이 실패하면 업로드된 이미지는 {@link ImageBlobStore}에서
+     * 해제된다. {@code imageBlobStore.store()} 메서드 수행 중 일부 이미지가 복사된 상태에서 예외가 발생할 경우는
+     * {@code imageBlobStore.store()} 메서드에서 처리한다. 커밋 후 대표 이미지의 목록 화면용, 상세 화면용 이미지
+     * 생성 작업을 {@link ImageDerivativePipeline}에 추가한다.
      *
      */
     @Override
-    @Transactional
     public void registerProduct(int managerId, ProductRegisterRequestDTO productRegisterDTO) {
         Objects.requireNonNull(productRegisterDTO,
                 "Null value argument productRegisterDTO detected while trying to register product.");
 
-        List<String> imageUrls = null;
-        String representingImageUrl = null;
-
         int marketId = Optional.ofNullable(managementDAO.readMarketId(managerId)).orElseThrow(() -> {
             logger.error("Fatal error:::no mapping for manager to market");
             logger.error("Fatal error:::row, mapping manager id:{} to market id removed in tbl_managements.");
@@ -636,42 +884,24 @@ public class ProductServiceImpl implements ProductService {
 
         logger.debug("Finding market id succeeded.  market id : {}", marketId);
 
-        try {
-            imageUrls = multipartDAO.upload(
-                    productRegisterDTO.getImages().toArray(new MultipartFile[productRegisterDTO.getImages().size()]));
-            representingImageUrl = multipartDAO.upload(productRegisterDTO.getRepresentingImage()).get(0);
+        List<String> requested = new ArrayList<>(productRegisterDTO.getImageKeys());
+        requested.add(productRegisterDTO.getRepresentingImageKey());
 
-            logger.debug("Uploading product images using {} succeeded.", multipartDAO);
+        List<String> uploaded = uploadProductImages(managerId, requested, false);
 
-            Product product = modelMapper.map(productRegisterDTO, Product.class);
-            product.setMarketId(marketId);
-            product.setImageUrls(imageUrls);
-            product.setRepresentingImageUrl(representingImageUrl);
-
-            registerProductInternal(product);
-
-        } catch (RuntimeException e) {
-            if (logger.isInfoEnabled()) {
-                logger.info(
-                        "Starting to check whether images have been uploaded or not to cloud storage due to occurrence of {}",
-                        e.toString());
-            }
+        logger.debug("Uploading product images using {} succeeded.", imageBlobStore);
 
-            if (imageUrls != null) {
-                logger.info("Deleting images from cloud storage. Images : {}", imageUrls);
+        Product product = modelMapper.map(productRegisterDTO, Product.class);
+        product.setMarketId(marketId);
+        product.setImageUrls(new ArrayList<>(uploaded.subList(0, uploaded.size() - 1)));
+        product.setRepresentingImageUrl(uploaded.get(uploaded.size() - 1));
 
-                deleteOlderImages(imageUrls.toArray(new String[imageUrls.size()]));
-            }
-
-            if (representingImageUrl != null) {
-                logger.info("Deleting representing image from cloud storage. representing image: {}",
-                        representingImageUrl);
-
-                deleteOlderImages(representingImageUrl);
-            }
+        imageWritePipeline.write(uploaded, imageBlobStore::release, status -> {
+            registerProductInternal(product);
+            return null;
+        });
 
-            throw e;
-        }
+        imageDerivativePipeline.submit(product);
     }
 
     /**
@@ -696,6 +926,13 @@ public class ProductServiceImpl implements ProductService {
         productDAO.createImages(product.getImageUrls(), productId);
         productDAO.createHashTags(product.getHashTags(), productId);
 
+        TransactionCallbacks.afterCommit(() -> {
+            productBestRanking.add(product);
+            hashTagSearchIndex.put(productId, product.getHashTags());
+            productListCache.evictProduct(product.getMarketId(),
+                    productBestRanking.findMarketLocation(product.getMarketId()), product.getCategory());
+        });
+
         List<HashTag> hashTags = new ArrayList<>();
         product.getHashTags()
                .stream()
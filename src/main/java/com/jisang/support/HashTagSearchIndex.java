@@ -0,0 +1,235 @@
+package com.jisang.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.jisang.domain.HashTag;
+import com.jisang.persistence.ProductDAO;
+
+/**
+ *
+ * 해시태그 상품 검색을 위한 메모리 상의 n-gram 역색인이다.
+ *
+ * 이전 구현은 검색어가 포함된 모든 상품 목록 쿼리에서
+ * {@code hashtag_content LIKE CONCAT('%', keyword, '%')} 조건으로 {@code tbl_hashtags}를 조회하였다. 앞쪽에
+ * 와일드카드가 붙은 LIKE 조건은 인덱스를 사용할 수 없으므로 검색 요청마다 해시태그 테이블 전체를 읽게 된다.
+ *
+ * 이 클래스는 각 해시태그의 길이 {@value #GRAM_LENGTH} 이하의 모든 부분 문자열(n-gram)을 상품 id 집합에 매핑해둔다. 검색어의
+ * 길이가 {@value #GRAM_LENGTH} 이하일 경우 검색어 자체가 하나의 n-gram이므로 바로 결과를 얻을 수 있으며, 그보다 길 경우 검색어의
+ * 모든 {@value #GRAM_LENGTH}-gram에 대한 상품 id 집합의 교집합을 후보로 하여 후보 상품의 해시태그가 실제로 검색어를 포함하는지
+ * 확인한다. 따라서 LIKE 조건과 같은 부분 문자열 일치 결과를 반환한다. MySQL의 기본 collation과 같이 대소문자는 구분하지 않는다.
+ *
+ * 색인은 어플리케이션 시작 시 데이터베이스로부터 구성되며 상품 등록/수정/삭제 시 서비스 계층에서 갱신된다. 색인이 구성되지 않았을 경우
+ * {@link #search(String)}는 null을 반환하며 이 경우 기존의 LIKE 조건이 사용된다.
+ *
+ * 검색은 read lock 하에서 수행되므로 검색 요청끼리는 서로 기다리지 않는다. 색인 갱신만 write lock을 사용한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class HashTagSearchIndex {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final int GRAM_LENGTH = 3;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(HashTagSearchIndex.class);
+
+    @Autowired
+    private ProductDAO productDAO;
+
+    /** 아래 두 맵은 {@code lock}으로 보호된다. 검색은 read lock, 갱신은 write lock을 사용한다. */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Set<Integer>> postings = new HashMap<>();
+    private Map<Integer, List<String>> hashTags = new HashMap<>();
+
+    private volatile boolean ready;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            logger.error("Loading hashtag search index failed. Hashtag search will be served by LIKE query.");
+            logger.error("Exception : ", e);
+        }
+    }
+
+    public void reload() {
+        Map<Integer, List<String>> loaded = productDAO.readHashTagList()
+                                                      .stream()
+                                                      .collect(Collectors.groupingBy(HashTag::getProductId,
+                                                              Collectors.mapping(HashTag::getContent,
+                                                                                 Collectors.toList())));
+        lock.writeLock().lock();
+        try {
+            postings = new HashMap<>();
+            hashTags = new HashMap<>();
+
+            loaded.forEach(this::index);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("Loading hashtag search index succeeded. {} products indexed.", loaded.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 해시태그에 {@code keyword}를 포함하는 상품 id 집합을 반환한다. 반환되는 집합은 호출자가 소유하므로 수정해도 된다.
+     *
+     * @return 색인이 아직 구성되지 않았을 경우 null
+     */
+    public Set<Integer> search(String keyword) {
+        Objects.requireNonNull(keyword, "Null value argument keyword detected.");
+
+        if (!ready) {
+            return null;
+        }
+
+        String normalized = normalize(keyword);
+
+        lock.readLock().lock();
+        try {
+            if (normalized.isEmpty()) {
+                return new HashSet<>(hashTags.keySet());
+            }
+
+            if (normalized.length() <= GRAM_LENGTH) {
+                return new HashSet<>(postings.getOrDefault(normalized, Collections.emptySet()));
+            }
+
+            Set<Integer> candidates = null;
+
+            for (String gram : gramsOf(normalized, GRAM_LENGTH, GRAM_LENGTH)) {
+                Set<Integer> posting = postings.get(gram);
+
+                if (posting == null) {
+                    return new HashSet<>();
+                }
+
+                if (candidates == null) {
+                    candidates = new HashSet<>(posting);
+                } else {
+                    candidates.retainAll(posting);
+                }
+
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+            }
+
+            candidates.removeIf(productId -> hashTags.get(productId)
+                                                     .stream()
+                                                     .noneMatch(hashTag -> hashTag.contains(normalized)));
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 상품의 해시태그를 색인에 추가한다. 이미 색인된 상품일 경우 기존 해시태그는 제거된다.
+     */
+    public void put(int productId, List<String> productHashTags) {
+        lock.writeLock().lock();
+        try {
+            unindex(productId);
+
+            if (productHashTags != null && !productHashTags.isEmpty()) {
+                index(productId, productHashTags);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int productId) {
+        lock.writeLock().lock();
+        try {
+            unindex(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(int productId) {
+        List<String> older = hashTags.remove(productId);
+
+        if (older == null) {
+            return;
+        }
+
+        older.forEach(hashTag -> gramsOf(hashTag, 1, GRAM_LENGTH).forEach(gram -> {
+            Set<Integer> posting = postings.get(gram);
+
+            if (posting != null) {
+                posting.remove(productId);
+
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }));
+    }
+
+    private void index(int productId, List<String> productHashTags) {
+        List<String> normalized = productHashTags.stream()
+                                                 .filter(Objects::nonNull)
+                                                 .map(this::normalize)
+                                                 .collect(Collectors.toCollection(ArrayList::new));
+
+        hashTags.put(productId, normalized);
+
+        normalized.forEach(hashTag -> gramsOf(hashTag, 1, GRAM_LENGTH).forEach(
+                gram -> postings.computeIfAbsent(gram, g -> new HashSet<>()).add(productId)));
+    }
+
+    private Set<String> gramsOf(String text, int minLength, int maxLength) {
+        Set<String> grams = new HashSet<>();
+
+        for (int length = minLength; length <= maxLength; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+
+        return grams;
+    }
+
+    private String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,345 @@
+package com.jisang.support;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jisang.persistence.ImageBlobDAO;
+import com.jisang.persistence.MultipartDAO;
+import com.jisang.persistence.S3MultipartDAO;
+
+/**
+ *
+ * 상품 이미지를 내용의 해시를 key로 저장하고(이하 blob) 데이터베이스의 참조 수로 수명을 관리한다.
+ *
+ * 이전에는 이미지 key가 {@code 업로드 시간_파일 이름}이었으므로 같은 이미지를 다시 업로드해도 새 객체가 만들어졌고, 상품 수정 시
+ * 바뀌지 않은 이미지까지 모두 삭제한 후 다시 복사하였다. 이제 같은 내용의 이미지는 하나의 blob을 공유하며 이미 존재하는 blob은
+ * 복사되지 않는다. 상품 수정 시 기존 이미지의 url을 그대로 전달하면 스토리지 연산이 전혀 일어나지 않는다.
+ *
+ * 참조 수는 다음과 같이 변경된다.
+ *
+ * <ol>
+ * <li>{@link #store(long, String...)} : 트랜잭션 밖에서 참조 수를 먼저 증가시킨 후 blob을 복사한다. 참조 수가 0보다 큰
+ * blob은 삭제 대상으로 선택되지 않으므로 복사 전 존재 여부 확인 결과가 복사 이후에도 유효하다. 다만 참조 수를 증가시키기 전에 이미
+ * 스토리지 삭제가 시작된 blob은 삭제가 끝날 때까지 최대 {@code gc-wait-millis} 동안 기다린 후 복사한다.</li>
+ * <li>{@link #release(Collection)} : 상품 수정, 삭제 트랜잭션 안에서 더 이상 참조되지 않는 blob의 참조 수를 감소시킨다.
+ * 상품 트랜잭션이 실패하였을 경우에는 1단계에서 증가시킨 참조 수를 되돌리는 데 사용된다.</li>
+ * <li>{@link #collectGarbage()} : 참조 수가 {@code gc-grace-minutes} 이상 0인 blob을 {@code gc-batch-size}개씩
+ * 삭제한다. 짧은 트랜잭션에서 삭제할 blob의 행에 삭제 중 표시를 남긴 후 트랜잭션 없이 스토리지 삭제를 수행하고, 다시 짧은
+ * 트랜잭션에서 표시가 남아 있고 참조 수가 여전히 0인 행만 삭제한다. 스토리지 삭제 동안 행 잠금이나 데이터베이스 커넥션을 점유하지
+ * 않으므로 같은 blob을 참조하려는 요청이 S3 응답 지연만큼 잠금을 기다리거나, 잠금 대기 시간 초과로 이미 스토리지에서 삭제된 blob의
+ * 행 삭제가 롤백되는 일이 없다. 한 번의 S3 삭제 요청에는 최대 1000개의 key를 전달할 수 있고 blob 하나 당 목록 화면용, 상세 화면용
+ * 이미지까지 세 개의 key가 삭제되므로 {@code gc-batch-size}는 333 이하여야 한다.</li>
+ * </ol>
+ *
+ * 1단계 이후 상품 트랜잭션 전에 서버가 종료되면 증가시킨 참조 수가 되돌려지지 않아 blob이 삭제되지 않을 수 있다. 이는 스토리지
+ * 낭비일 뿐 잘못된 이미지가 전달되지는 않으므로 허용한다. 스토리지 삭제 도중 서버가 종료되어 남은 삭제 중 표시는
+ * {@code gc-collecting-timeout-minutes}가 지나면 무시되며 다음 실행 시 다시 삭제된다. 이 값은 S3 삭제 요청의 제한 시간보다
+ * 충분히 커야 한다.
+ *
+ * 이 기능 이전에 업로드된 이미지(이하 기존 이미지)는 참조 수가 없으며 다른 상품과 공유되지 않으므로
+ * {@link #release(Collection)} 시 커밋 이후 {@link ImageWritePipeline#discard(Collection)}로 바로 삭제된다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=ImageBlobStore", description = "Content addressed product image store")
+public class ImageBlobStore {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final Pattern BLOB_KEY = Pattern
+            .compile(S3MultipartDAO.CONTENT_KEY_PREFIX + "[0-9a-f]{32}(\\.[a-z0-9]+)?");
+    private static final Pattern BLOB_DERIVATIVE_KEY = Pattern
+            .compile(S3MultipartDAO.CONTENT_KEY_PREFIX + "[0-9a-f]{32}_[a-z]+\\.jpg");
+
+    private static final long COLLECTION_POLL_MILLIS = 100;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ImageBlobStore.class);
+
+    @Autowired
+    private MultipartDAO multipartDAO;
+    @Autowired
+    private ImageBlobDAO imageBlobDAO;
+    @Autowired
+    private ImageWritePipeline imageWritePipeline;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${image.blob.gc-grace-minutes:60}")
+    private long gcGraceMinutes;
+    @Value("${image.blob.gc-batch-size:300}")
+    private int gcBatchSize;
+    @Value("${image.blob.gc-max-batches:10}")
+    private int gcMaxBatches;
+    @Value("${image.blob.gc-collecting-timeout-minutes:10}")
+    private long gcCollectingTimeoutMinutes;
+    @Value("${image.blob.gc-wait-millis:5000}")
+    private long gcWaitMillis;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder released = new LongAdder();
+    private final LongAdder legacyDiscarded = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     *
+     * 클라이언트가 직접 업로드한 임시 객체를 blob으로 옮기고 참조 수를 증가시킨다. 반환되는 url의 순서는 인자
+     * {@code stagingKeys}의 순서와 같다. 트랜잭션 밖에서 호출되어야 한다. 복사 도중 예외가 발생하면 증가시킨 참조 수를 되돌린 후
+     * 예외를 다시 던진다.
+     *
+     * @throws com.jisang.persistence.InvalidStagedImageException
+     *             임시 객체가 존재하지 않거나, {@code maxSize}보다 크거나, 이미지가 아닐 경우 발생
+     * @throws CannotAcquireLockException
+     *             스토리지에서 삭제 중인 blob의 삭제가 {@code gc-wait-millis} 안에 끝나지 않았을 경우 발생
+     */
+    public List<String> store(long maxSize, String... stagingKeys) {
+        if (stagingKeys.length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<String> keys = multipartDAO.resolveStaged(maxSize, stagingKeys);
+        Map<String, Integer> counts = countsOf(keys);
+
+        imageBlobDAO.acquire(counts);
+
+        try {
+            awaitCollection(counts.keySet());
+
+            List<String> stored = multipartDAO.uploadStaged(stagingKeys, keys.toArray(new String[keys.size()]));
+
+            acquired.add(keys.size());
+            return stored;
+        } catch (RuntimeException e) {
+            try {
+                imageBlobDAO.release(counts);
+            } catch (RuntimeException ex) {
+                logger.error("Releasing blobs of failed upload failed. Blobs will not be collected : {}", keys);
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * 더 이상 참조되지 않는 이미지를 해제한다. blob은 참조 수가 감소하며 트랜잭션 안에서 호출되면 트랜잭션과 함께 커밋 또는 롤백된다.
+     * blob의 목록 화면용, 상세 화면용 이미지는 blob과 함께 삭제되므로 무시된다. 기존 이미지는 커밋 이후 삭제된다.
+     *
+     * @param images
+     *            해제할 이미지 url. 같은 이미지를 여러 번 참조하였다면 그 수만큼 포함되어야 한다.
+     */
+    public void release(Collection<String> images) {
+        Objects.requireNonNull(images, "Null value argument images detected.");
+
+        List<String> blobKeys = new ArrayList<>();
+        List<String> legacyImages = new ArrayList<>();
+
+        for (String image : images) {
+            String key = multipartDAO.keyOf(image);
+
+            if (BLOB_KEY.matcher(key).matches()) {
+                blobKeys.add(key);
+            } else if (!BLOB_DERIVATIVE_KEY.matcher(key).matches()) {
+                legacyImages.add(image);
+            }
+        }
+
+        if (!blobKeys.isEmpty()) {
+            imageBlobDAO.release(countsOf(blobKeys));
+            released.add(blobKeys.size());
+        }
+
+        if (!legacyImages.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> {
+                legacyDiscarded.add(legacyImages.size());
+                imageWritePipeline.discard(legacyImages);
+            });
+        }
+    }
+
+    /**
+     *
+     * 참조 수가 {@code gc-grace-minutes} 이상 0인 blob을 최대 {@code gc-batch-size} * {@code gc-max-batches}개
+     * 삭제한다. 각 묶음은 삭제 중 표시, 스토리지 삭제, 행 삭제 순으로 처리되며 스토리지 삭제 동안에는 트랜잭션을 열지 않는다. 스토리지
+     * 삭제에 실패한 묶음은 표시를 지워 다음 실행 시 다시 삭제된다. 스토리지 삭제 도중 다시 참조된 blob은 행이 삭제되지 않으며 참조한
+     * 요청이 삭제가 끝난 후 blob을 다시 복사한다.
+     *
+     * @return 삭제된 blob 수.
+     */
+    public int collectGarbage() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime updatedBefore = now.minusMinutes(gcGraceMinutes);
+        LocalDateTime collectingBefore = now.minusMinutes(gcCollectingTimeoutMinutes);
+        int total = 0;
+
+        for (int batch = 0; batch < gcMaxBatches; batch++) {
+            // DATETIME 칼럼과 그대로 비교할 수 있도록 초 단위로 자른다.
+            LocalDateTime collectingAt = LocalDateTime.now().withNano(0);
+
+            List<String> keys = transactionTemplate.execute(status -> {
+                List<String> orphans = imageBlobDAO.readOrphansForUpdate(updatedBefore, collectingBefore, gcBatchSize);
+
+                if (!orphans.isEmpty()) {
+                    imageBlobDAO.markCollecting(orphans, collectingAt);
+                }
+                return orphans;
+            });
+
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            List<String> objects = new ArrayList<>(keys.size() * 3);
+            for (String key : keys) {
+                objects.add(key);
+                objects.add(derivativeKey(key, ImageDerivativePipeline.LIST_SUFFIX));
+                objects.add(derivativeKey(key, ImageDerivativePipeline.DETAIL_SUFFIX));
+            }
+
+            try {
+                multipartDAO.delete(objects.toArray(new String[objects.size()]));
+            } catch (RuntimeException e) {
+                try {
+                    imageBlobDAO.unmarkCollecting(keys, collectingAt);
+                } catch (RuntimeException ex) {
+                    logger.error("Unmarking blobs of failed collection failed. They will be collected after timeout.");
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            }
+
+            Integer deleted = transactionTemplate.execute(status -> {
+                int count = imageBlobDAO.deleteOrphans(keys, collectingAt);
+
+                // 남은 행은 스토리지 삭제 도중 다시 참조된 blob이다.
+                imageBlobDAO.unmarkCollecting(keys, collectingAt);
+                return count;
+            });
+
+            total += deleted;
+            collected.add(deleted);
+
+            if (keys.size() < gcBatchSize) {
+                break;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * 참조 수를 증가시키기 전에 스토리지 삭제가 시작된 blob이 있다면 삭제가 끝날 때까지 기다린다. 삭제가 끝난 blob은 존재하지 않으므로
+     * 이후의 복사에서 다시 복사된다.
+     */
+    private void awaitCollection(Collection<String> keys) {
+        long deadline = System.currentTimeMillis() + gcWaitMillis;
+
+        while (true) {
+            LocalDateTime collectingAfter = LocalDateTime.now().minusMinutes(gcCollectingTimeoutMinutes);
+            List<String> collecting = imageBlobDAO.readCollecting(keys, collectingAfter);
+
+            if (collecting.isEmpty()) {
+                return;
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                throw new CannotAcquireLockException("Collection of blobs did not finish in time : " + collecting);
+            }
+
+            logger.debug("Waiting for collection of blobs to finish : {}", collecting);
+
+            try {
+                Thread.sleep(COLLECTION_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CannotAcquireLockException("Interrupted while waiting for collection of blobs.", e);
+            }
+        }
+    }
+
+    /**
+     * 이미지 {@code key}로부터 만들어지는 목록 화면용, 상세 화면용 이미지의 key를 반환한다. 같은 원본의 이미지는 같은 key를
+     * 가지므로 여러 상품이 공유한다.
+     */
+    public static String derivativeKey(String key, String suffix) {
+        int extensionIndex = key.lastIndexOf('.');
+        String name = extensionIndex < 0 ? key : key.substring(0, extensionIndex);
+
+        return name + "_" + suffix + ".jpg";
+    }
+
+    /**
+     * @return {@code key}가 참조 수로 관리되는 blob 또는 blob으로부터 만들어진 이미지일 경우 {@code true}
+     */
+    public static boolean isShared(String key) {
+        return BLOB_KEY.matcher(key).matches() || BLOB_DERIVATIVE_KEY.matcher(key).matches();
+    }
+
+    /**
+     * 같은 key가 여러 번 포함된 경우 한 번의 쿼리로 그 수만큼 변경할 수 있도록 key 별 개수를 센다. 교착 상태를 피하기 위해 key
+     * 순서로 정렬한다.
+     */
+    private Map<String, Integer> countsOf(List<String> keys) {
+        Map<String, Integer> counts = new TreeMap<>();
+        keys.forEach(key -> counts.merge(key, 1, Integer::sum));
+
+        return counts;
+    }
+
+    @ManagedAttribute(description = "Number of blob references acquired by product writes")
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+
+    @ManagedAttribute(description = "Number of blob references released by product writes")
+    public long getReleasedCount() {
+        return released.sum();
+    }
+
+    @ManagedAttribute(description = "Number of legacy images deleted directly")
+    public long getLegacyDiscardedCount() {
+        return legacyDiscarded.sum();
+    }
+
+    @ManagedAttribute(description = "Number of orphaned blobs deleted by garbage collection")
+    public long getCollectedCount() {
+        return collected.sum();
+    }
+}
@@ -0,0 +1,326 @@
+package com.jisang.support;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.jisang.domain.Product;
+import com.jisang.persistence.MultipartDAO;
+import com.jisang.persistence.ProductDAO;
+
+/**
+ *
+ * 상품 대표 이미지로부터 목록 화면용(가로 {@code list-width})과 상세 화면용(가로 {@code detail-width}) 이미지를 생성한다.
+ *
+ * 이전에는 상품 목록 화면에도 관리자가 업로드한 원본 이미지가 그대로 전달되었으므로 모바일 클라이언트는 목록의 작은 썸네일 하나를 위해
+ * 수 MB의 이미지를 내려받아야 했다. 생성된 이미지는 progressive JPEG로 압축되어 {@code tbl_products}의 대표 이미지 칼럼 옆에
+ * 저장되며 목록 화면과 상세 화면 응답은 각 크기의 이미지를 사용한다. 아직 생성되지 않은 경우에는 원본이 사용된다.
+ *
+ * 이미지 축소는 CPU를 많이 사용하므로 요청 스레드가 아닌 크기가 제한된 스레드 풀에서 수행된다. 상품 등록 및 수정 트랜잭션이 커밋된
+ * 후에 {@link #submit(Product)}으로 작업이 추가되며 대기열이 가득 찼을 경우 작업은 버려진다. 버려지거나 실패한 작업과 이 기능
+ * 이전에 등록된 상품은 {@link Scheduler#backfillImageDerivatives()}에 의해 다시 추가된다.
+ *
+ * JDK의 {@link javax.imageio.ImageIO}가 읽을 수 없는 원본(Java 8의 TIFF 등)은 원본 url을 그대로 저장하여 다시 시도하지
+ * 않는다. WebP와 같은 형식은 JDK에 인코더가 없으므로 사용하지 않았다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=ImageDerivativePipeline", description = "Product image derivative pipeline")
+public class ImageDerivativePipeline {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    public static final String LIST_SUFFIX = "list";
+    public static final String DETAIL_SUFFIX = "detail";
+
+    private static final String DERIVATIVE_CONTENT_TYPE = "image/jpeg";
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ImageDerivativePipeline.class);
+
+    @Autowired
+    private MultipartDAO multipartDAO;
+    @Autowired
+    private ProductDAO productDAO;
+    @Autowired
+    private ImageWritePipeline imageWritePipeline;
+    @Autowired
+    private ProductBestRanking productBestRanking;
+    @Autowired
+    private ProductDetailCache productDetailCache;
+    @Autowired
+    private ProductListCache productListCache;
+
+    @Value("${image.derivative.concurrency:2}")
+    private int concurrency;
+    @Value("${image.derivative.queue-capacity:100}")
+    private int queueCapacity;
+    @Value("${image.derivative.list-width:360}")
+    private int listWidth;
+    @Value("${image.derivative.detail-width:1080}")
+    private int detailWidth;
+    @Value("${image.derivative.quality:0.8}")
+    private float quality;
+    @Value("${image.derivative.backfill-batch-size:100}")
+    private int backfillBatchSize;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 대기열에 있거나 처리 중인 작업의 상품 id와 대표 이미지 url 쌍. 같은 이미지에 대한 작업이 중복으로 추가되지 않도록 한다. 상품
+     * id만 사용하면 작업이 처리되는 동안 대표 이미지가 바뀐 상품의 작업이 버려지므로 url을 함께 사용한다.
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder unsupported = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder listBytes = new LongAdder();
+    private final LongAdder totalGenerationNanos = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 대기열의 작업은 버려진다. 버려진 상품은 다음 실행 시 스케줄러에 의해 다시 추가된다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     *
+     * 상품 대표 이미지에 대한 이미지 생성 작업을 추가한다. {@code product}의 id, 마켓 id, 카테고리, 대표 이미지 url만
+     * 사용된다. 요청 스레드에서 호출되므로 대기열이 가득 찼을 경우 기다리지 않고 작업을 버린다.
+     *
+     * @return 작업이 추가되었거나 이미 대기 중일 경우 {@code true}
+     */
+    public boolean submit(Product product) {
+        if (product.getRepresentingImageUrl() == null) {
+            return false;
+        }
+
+        String pendingKey = pendingKeyOf(product);
+
+        if (!pending.add(pendingKey)) {
+            return true;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(product);
+                } finally {
+                    pending.remove(pendingKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(pendingKey);
+            rejected.increment();
+
+            logger.info("Image derivative queue is full. Product id {} will be retried by scheduler.",
+                    product.getId());
+            return false;
+        }
+    }
+
+    private String pendingKeyOf(Product product) {
+        return product.getId() + ":" + product.getRepresentingImageUrl();
+    }
+
+    /**
+     * 목록 화면용, 상세 화면용 이미지가 없는 상품을 최대 {@code backfill-batch-size}개 조회하여 작업을 추가한다. 대기열이 가득
+     * 차면 남은 상품은 다음 실행으로 미룬다.
+     */
+    public void backfill() {
+        List<Product> products = productDAO.readListWithoutImageDerivatives(backfillBatchSize);
+
+        for (Product product : products) {
+            if (!submit(product)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 목록 화면용, 상세 화면용 이미지의 key는 원본 이미지의 key로부터 정해지므로 같은 원본을 대표 이미지로 사용하는 상품은 이미
+     * 만들어진 이미지를 공유하며 다시 생성하지 않는다. {@link ImageBlobStore}가 관리하는 원본의 이미지는 원본과 함께 삭제되므로
+     * 생성 도중 대표 이미지가 바뀌더라도 삭제하지 않는다.
+     */
+    private void generate(Product product) {
+        long startedAt = System.nanoTime();
+        String representingImageUrl = product.getRepresentingImageUrl();
+        List<String> uploaded = new ArrayList<>(2);
+
+        String sourceKey = multipartDAO.keyOf(representingImageUrl);
+        String listKey = ImageBlobStore.derivativeKey(sourceKey, LIST_SUFFIX);
+        String detailKey = ImageBlobStore.derivativeKey(sourceKey, DETAIL_SUFFIX);
+        boolean shared = ImageBlobStore.isShared(sourceKey);
+
+        try {
+            String listImageUrl;
+            String detailImageUrl;
+
+            boolean reusing = shared && multipartDAO.exists(listKey) && multipartDAO.exists(detailKey);
+
+            if (reusing) {
+                logger.debug("Reusing image derivatives of {} for product id {}.", sourceKey, product.getId());
+
+                listImageUrl = multipartDAO.urlOf(listKey);
+                detailImageUrl = multipartDAO.urlOf(detailKey);
+            } else {
+                byte[] original = multipartDAO.read(representingImageUrl);
+                BufferedImage image = ImageOperationProvider.readImage(original);
+
+                if (image == null) {
+                    unsupported.increment();
+                    logger.info("Image format of product id {} is not supported. Original image will be used. url : {}",
+                            product.getId(), representingImageUrl);
+
+                    listImageUrl = representingImageUrl;
+                    detailImageUrl = representingImageUrl;
+                } else {
+                    BufferedImage detailImage = ImageOperationProvider.resize(image, detailWidth);
+                    byte[] detail = ImageOperationProvider.encodeJpeg(detailImage, quality);
+                    byte[] list = ImageOperationProvider
+                            .encodeJpeg(ImageOperationProvider.resize(detailImage, listWidth), quality);
+
+                    detailImageUrl = multipartDAO.upload(detailKey, detail, DERIVATIVE_CONTENT_TYPE);
+                    uploaded.add(detailImageUrl);
+                    listImageUrl = multipartDAO.upload(listKey, list, DERIVATIVE_CONTENT_TYPE);
+                    uploaded.add(listImageUrl);
+
+                    originalBytes.add(original.length);
+                    listBytes.add(list.length);
+                }
+            }
+
+            if (productDAO.updateImageDerivatives(product.getId(), representingImageUrl, listImageUrl,
+                    detailImageUrl) == 0) {
+                stale.increment();
+                logger.debug("Representing image of product id {} changed while generating derivatives.",
+                        product.getId());
+
+                if (!shared) {
+                    imageWritePipeline.discard(uploaded);
+                }
+                return;
+            }
+
+            productBestRanking.modifyListImage(product.getId(), representingImageUrl, listImageUrl);
+            productDetailCache.evictProduct(product.getId());
+            productListCache.evictProduct(product.getMarketId(),
+                    productBestRanking.findMarketLocation(product.getMarketId()), product.getCategory());
+
+            if (reusing) {
+                reused.increment();
+            } else {
+                generated.increment();
+                totalGenerationNanos.add(System.nanoTime() - startedAt);
+            }
+
+        } catch (RuntimeException e) {
+            // 스토리지, 데이터베이스 예외 외에도 손상된 이미지를 읽을 때 ImageIO가 던지는 예외를 모두 처리한다.
+            failed.increment();
+
+            logger.error("Generating image derivatives for product id {} failed. It will be retried by scheduler.",
+                    product.getId());
+            logger.error("Exception : ", e);
+
+            if (!shared) {
+                imageWritePipeline.discard(uploaded);
+            }
+        }
+    }
+
+    @ManagedAttribute(description = "Number of image derivative jobs waiting in the queue")
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @ManagedAttribute(description = "Number of products whose derivatives were generated")
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    @ManagedAttribute(description = "Number of products which reused derivatives of the same original image")
+    public long getReusedCount() {
+        return reused.sum();
+    }
+
+    @ManagedAttribute(description = "Number of products whose original image format could not be decoded")
+    public long getUnsupportedCount() {
+        return unsupported.sum();
+    }
+
+    @ManagedAttribute(description = "Number of generated derivatives discarded because the representing image changed")
+    public long getStaleCount() {
+        return stale.sum();
+    }
+
+    @ManagedAttribute(description = "Number of failed image derivative jobs")
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @ManagedAttribute(description = "Number of jobs dropped because the queue was full")
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @ManagedAttribute(description = "Average size of list images relative to their originals")
+    public double getListImageSizeRatio() {
+        long original = originalBytes.sum();
+        return original == 0 ? 0 : (double) listBytes.sum() / original;
+    }
+
+    @ManagedAttribute(description = "Average time spent generating derivatives of an image in milliseconds")
+    public double getAverageGenerationMillis() {
+        long count = generated.sum();
+        return count == 0 ? 0 : totalGenerationNanos.sum() / (count * 1_000_000.0);
+    }
+}
@@ -1,9 +1,24 @@
 package com.jisang.support;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
@@ -12,7 +27,8 @@ import com.jisang.support.validation.ImageExtensionValidator;
 
 /**
  * 
- * 이미지 파일 관련 연산을 제공한다. 현재로는 파일 확장자 검사 메서드만 정의되어 있으나 후에 파일 압축 등의 메서드를 추가할까 고려중이다.
+ * 이미지 파일 관련 연산을 제공한다. 파일 확장자 검사 메서드와 {@link ImageDerivativePipeline}이 사용하는 이미지 축소 및 JPEG
+ * 압축 메서드가 정의되어 있다.
  * 
  * 현재 지상 어플리케이션의 마켓 정보 수정 과정의 동작은 다음과 같다. 클라이언트가 수정 화면에 대한 GET 요청을 하면 서버는 수정 화면에
  * 보여줄 수 있는 모든 정보를 클라이언트로 전달하며 수정을 위한 POST(MultipartFile은 PUT이 안됨.) 요청시 클라이언트는
@@ -57,6 +73,7 @@ public class ImageOperationProvider {
     };
 
     private static final String IMAGE_FIELD = "image";
+    private static final String JPEG_FORMAT = "jpeg";
 
     public static void validateImage(String filename) {
 
@@ -87,4 +104,88 @@ public class ImageOperationProvider {
         logger.debug("Image file extension validation succeeded. ");
     }
 
+    /**
+     * 
+     * 이미지를 읽는다. JDK의 {@link ImageIO}가 읽을 수 없는 형식(Java 8의 경우 TIFF 등)일 경우 null을 반환한다.
+     * 
+     */
+    public static BufferedImage readImage(byte[] content) {
+        try {
+            return ImageIO.read(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading image failed.", e);
+        }
+    }
+
+    /**
+     * 
+     * 가로 길이가 {@code maxWidth} 이하가 되도록 비율을 유지하며 이미지를 축소한다. 이미 작은 이미지는 확대하지 않는다. 한 번에
+     * 크게 축소하면 bilinear 보간으로도 계단 현상이 생기므로 목표 크기의 두 배가 될 때까지 절반씩 줄인 후 마지막으로 한 번 더 줄인다.
+     * 
+     * 반환되는 이미지는 JPEG로 저장할 수 있도록 알파 채널이 없는 RGB 이미지이며 투명한 영역은 흰색으로 채워진다.
+     * 
+     */
+    public static BufferedImage resize(BufferedImage image, int maxWidth) {
+        int targetWidth = Math.min(maxWidth, image.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round((double) image.getHeight() * targetWidth / image.getWidth()));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+
+            current = draw(current, width, height);
+        } while (width != targetWidth);
+
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+    /**
+     * 
+     * 이미지를 progressive JPEG로 압축한다. progressive JPEG는 느린 네트워크에서도 전체 이미지의 윤곽이 먼저 표시되며 같은
+     * 품질의 baseline JPEG보다 대체로 크기가 작다.
+     * 
+     * @param quality
+     *            0 ~ 1 사이의 압축 품질
+     */
+    public static byte[] encodeJpeg(BufferedImage image, float quality) {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(JPEG_FORMAT).next();
+
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        try (ImageOutputStream ios = new MemoryCacheImageOutputStream(bos)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Encoding image failed.", e);
+        } finally {
+            writer.dispose();
+        }
+
+        return bos.toByteArray();
+    }
+
 }
@@ -0,0 +1,196 @@
+package com.jisang.support;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.amazonaws.AmazonClientException;
+import com.jisang.persistence.MultipartDAO;
+
+/**
+ *
+ * 이미지 업로드가 포함된 상품, 마켓 쓰기 작업을 다음 세 단계로 나누어 수행한다.
+ *
+ * <ol>
+ * <li>업로드 : 트랜잭션 밖에서 {@link MultipartDAO#upload}로 새 이미지를 스토리지에 업로드한다.</li>
+ * <li>데이터베이스 : {@link #write(Collection, TransactionCallback)}로 짧은 트랜잭션 안에서 데이터베이스만
+ * 변경한다. 트랜잭션이 실패하면 1단계에서 업로드한 이미지를 삭제한다.</li>
+ * <li>정리 : 커밋 이후 더 이상 참조되지 않는 이전 이미지를 {@link #discard(Collection)}로 삭제한다.</li>
+ * </ol>
+ *
+ * 이전 구현은 {@code @Transactional} 메서드 안에서 S3 업로드와 삭제(재시도 간격 1초의 {@code @Retryable} 포함)를
+ * 수행하였으므로 스토리지가 느려지면 커넥션 풀의 커넥션이 그만큼 오래 점유되어 다른 요청이 커넥션을 얻지 못하였다. 이제 커넥션은
+ * 2단계에서만 점유되며 점유 시간은 스토리지 응답 시간과 관계가 없다. 또한 이전 구현은 트랜잭션 도중 기존 이미지를 먼저 삭제하였으므로
+ * 이후 롤백될 경우 데이터베이스에는 이미 삭제된 이미지의 url이 남았으나 이제 기존 이미지는 커밋이 성공한 경우에만 삭제된다.
+ *
+ * 삭제에 실패한 이미지는 다른 서비스 메서드와 마찬가지로 {@code imageTrashCan}에 담겨 스케줄러에 의해 삭제된다. 삭제 연산의
+ * 예외는 {@link com.jisang.persistence.PersistenceAspect}에 의해 {@link DataAccessException}으로 변환되므로 두 예외를
+ * 모두 처리한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=ImageWritePipeline", description = "Image write pipeline")
+public class ImageWritePipeline {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ImageWritePipeline.class);
+
+    @Autowired
+    private MultipartDAO multipartDAO;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    @Qualifier("imageTrashCan")
+    private List<String> imageTrashCan;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder compensated = new LongAdder();
+    private final LongAdder discardFailed = new LongAdder();
+    private final LongAdder totalTransactionNanos = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     *
+     * 데이터베이스 단계를 트랜잭션 안에서 수행한다. 예외가 발생하면 트랜잭션은 롤백되며 {@code uploaded}는 더 이상 참조되지
+     * 않으므로 삭제된 후 예외가 다시 던져진다.
+     *
+     * @param uploaded
+     *            업로드 단계에서 업로드한 이미지 url. 업로드한 이미지가 없을 경우 빈 {@link Collection}.
+     *
+     * @throws IllegalStateException
+     *             이미 트랜잭션이 진행 중인 스레드에서 호출될 경우 던져진다. 바깥 트랜잭션이 커밋되기 전까지 커넥션 점유 시간을 줄일 수
+     *             없으며 바깥 트랜잭션이 롤백될 경우 보상 작업도 수행되지 않기 때문이다.
+     */
+    public <T> T write(Collection<String> uploaded, TransactionCallback<T> databaseStage) {
+        return write(uploaded, this::discard, databaseStage);
+    }
+
+    /**
+     *
+     * {@link #write(Collection, TransactionCallback)}와 같으나 트랜잭션이 실패하였을 때 {@code uploaded}를 삭제하는
+     * 대신 {@code compensation}을 수행한다. 여러 상품이 공유하는 이미지와 같이 바로 삭제할 수 없는 이미지에 사용된다.
+     */
+    public <T> T write(Collection<String> uploaded, Consumer<Collection<String>> compensation,
+            TransactionCallback<T> databaseStage) {
+        Objects.requireNonNull(uploaded, "Null value argument uploaded detected.");
+        Objects.requireNonNull(compensation, "Null value argument compensation detected.");
+        Objects.requireNonNull(databaseStage, "Null value argument databaseStage detected.");
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Image write pipeline must not be called inside a transaction.");
+        }
+
+        long startedAt = System.nanoTime();
+
+        try {
+            T result = transactionTemplate.execute(databaseStage);
+
+            committed.increment();
+            totalTransactionNanos.add(System.nanoTime() - startedAt);
+            return result;
+        } catch (RuntimeException e) {
+            if (!uploaded.isEmpty()) {
+                compensated.increment();
+
+                if (logger.isInfoEnabled()) {
+                    logger.info("Compensating just uploaded images due to occurrence of {}. Images : {}", e.toString(),
+                            uploaded);
+                }
+
+                try {
+                    compensation.accept(uploaded);
+                } catch (RuntimeException ex) {
+                    e.addSuppressed(ex);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * 더 이상 참조되지 않는 이미지를 스토리지에서 삭제한다. 삭제에 실패하더라도 예외를 던지지 않으며 실패한 이미지는
+     * {@code imageTrashCan}에 담는다. 사용자에게 전달되는 이미지 url은 데이터베이스에 저장된 url이므로 삭제되지 않은 이미지가
+     * 사용자에게 전달될 일은 없다.
+     *
+     * {@link MultipartDAO#delete(String...)}는 인자를 스토리지의 key로 사용하며 S3는 존재하지 않는 key의 삭제도 성공으로
+     * 응답하므로 url을 그대로 전달하면 아무 것도 삭제되지 않는다. 따라서 {@link MultipartDAO#keyOf(String)}로 key를 얻어
+     * 삭제한다.
+     *
+     * @param images
+     *            삭제할 이미지의 url
+     */
+    public void discard(Collection<String> images) {
+        if (Objects.isNull(images) || images.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Deleting stale images from image storage. Images : {}", images);
+
+        try {
+            multipartDAO.delete(images.stream().map(multipartDAO::keyOf).toArray(String[]::new));
+        } catch (AmazonClientException | DataAccessException e) {
+            discardFailed.increment();
+
+            logger.error("Despite of retryed call, Deleting images from storage failed. Failed image : {}.", images);
+            logger.info("Putting failed image to trash can... Images in trash can will be deleted by scheduler.");
+
+            imageTrashCan.addAll(images);
+
+            logger.info("Exception associated with failed image deletion is not be propagated anymore. Exception : ",
+                    e);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of committed database stages")
+    public long getCommittedCount() {
+        return committed.sum();
+    }
+
+    @ManagedAttribute(description = "Number of failed database stages whose uploaded images were compensated")
+    public long getCompensatedCount() {
+        return compensated.sum();
+    }
+
+    @ManagedAttribute(description = "Number of image deletions handed over to the image trash can")
+    public long getDiscardFailedCount() {
+        return discardFailed.sum();
+    }
+
+    @ManagedAttribute(description = "Average duration of the database stage in milliseconds")
+    public double getAverageTransactionMillis() {
+        long count = committed.sum();
+        return count == 0 ? 0 : totalTransactionNanos.sum() / (count * 1_000_000.0);
+    }
+}
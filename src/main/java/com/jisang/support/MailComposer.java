@@ -0,0 +1,28 @@
+package com.jisang.support;
+
+import javax.mail.MessagingException;
+
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.jisang.domain.OutboxMail;
+
+/**
+ * 
+ * {@link MailOutbox}에 저장된 메일로부터 실제 전송할 메일을 구성한다. 메일 종류({@link #getMailType()}) 별로 하나의 구현이
+ * 존재하며 {@link MailOutbox}의 전송 스레드에서 호출된다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+public interface MailComposer {
+
+    public String getMailType();
+
+    /**
+     * {@code mail}의 수신자와 {@code payload}로 {@code helper}의 발신자, 수신자, 본문을 설정한다.
+     * 
+     * @throws MessagingException
+     *             메일을 구성할 수 없을 경우 던져진다. 이 경우 해당 메일은 다시 시도되지 않는다.
+     */
+    public void compose(MimeMessageHelper helper, OutboxMail mail) throws MessagingException;
+}
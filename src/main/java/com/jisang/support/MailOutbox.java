@@ -0,0 +1,347 @@
+package com.jisang.support;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import com.jisang.domain.OutboxMail;
+import com.jisang.persistence.MailOutboxDAO;
+
+/**
+ *
+ * 데이터베이스 테이블({@link MailOutboxDAO})에 저장한 메일을 별도의 전송 스레드에서 보내는 메일 outbox이다.
+ *
+ * 이전 구현은 {@code PATCH /temporary-password} 요청 스레드에서 템플릿 렌더링과 SMTP 전송을 모두 수행하였으므로 SMTP
+ * 서버의 응답이 느려지면 요청 스레드가 그대로 묶였고, 전송에 실패한 메일은 그대로 유실되었다. 이 클래스는 메일을 테이블에 저장({@link #enqueue})
+ * 하고 바로 반환하며 트랜잭션이 커밋된 후 전송 스레드를 깨운다. 전송 스레드는 메일을 최대 {@code batch-size}개씩 선점하여
+ * {@link JavaMailSender#send(MimeMessage...)}로 한 번에 보내므로 하나의 배치는 하나의 SMTP 연결을 재사용한다.
+ * 저장된 메일은 서버가 재시작되어도 유실되지 않으며 {@link Scheduler}가 주기적으로 {@link #wakeUp()}을 호출하여 다시 시도할 메일과
+ * 다른 서버 인스턴스에서 저장된 메일을 보낸다.
+ *
+ * 같은 메일이 두 번 전송되지 않도록 다음과 같이 처리한다.
+ * <ul>
+ * <li>메일은 {@link MailOutboxDAO#claim}으로 선점된 후에만 전송되며 선점은 하나의 UPDATE 쿼리로 수행된다.</li>
+ * <li>다시 시도하는 것은 SMTP 서버가 메일을 받지 않았음이 확실한 경우({@link MailSendException#getFailedMessages()}에
+ * 포함된 메일과 연결, 인증 실패)뿐이다.</li>
+ * <li>선점된 후 결과가 기록되지 않은 메일은 전송 여부를 알 수 없으므로 다시 보내지 않고 FAILED로 기록한다
+ * ({@link #failStaleClaims()}).</li>
+ * <li>메일의 Message-ID는 outbox id로부터 만들어지므로 같은 메일은 항상 같은 Message-ID를 갖는다.</li>
+ * </ul>
+ *
+ * 로컬 환경에서는 {@code spring.mail.host}, {@code spring.mail.properties.mail.smtp.port}를 로컬 SMTP 서버(MailHog,
+ * GreenMail 등)로 지정하고 인증과 STARTTLS를 끄면 실제 메일 발송 없이 동작을 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=MailOutbox", description = "Mail outbox")
+public class MailOutbox {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final String MESSAGE_ID_HEADER = "Message-ID";
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(MailOutbox.class);
+
+    @Autowired
+    private MailOutboxDAO mailOutboxDAO;
+    @Autowired
+    private JavaMailSender mailSender;
+    @Autowired
+    private List<MailComposer> composerList;
+
+    @Value("${mail.outbox.workers:2}")
+    private int workers;
+    @Value("${mail.outbox.batch-size:20}")
+    private int batchSize;
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${mail.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+    @Value("${mail.outbox.stale-claim-minutes:10}")
+    private long staleClaimMinutes;
+    @Value("${mail.outbox.retention-days:7}")
+    private long retentionDays;
+    @Value("${spring.mail.default-sender-id}")
+    private String mailFromId;
+
+    private Map<String, MailComposer> composers;
+    private String messageIdDomain;
+    private ThreadPoolExecutor executor;
+
+    /** Message-ID 헤더를 직접 지정한 메시지 생성에만 사용된다. 전송에는 {@code mailSender}의 설정이 사용된다. */
+    private final Session session = Session.getInstance(new Properties());
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder totalBatchNanos = new LongAdder();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        composers = Collections.unmodifiableMap(
+                composerList.stream().collect(Collectors.toMap(MailComposer::getMailType, Function.identity())));
+        messageIdDomain = mailFromId.substring(mailFromId.indexOf('@') + 1);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        // 전송 스레드는 선점할 메일이 없을 때까지 반복하므로 모든 스레드가 사용 중일 때 대기열에 하나만 남겨두면 충분하다.
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mail-outbox-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * 진행 중인 배치는 최대 10초 동안 마무리된다. 남은 메일은 다음 실행 시 전송된다.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 메일을 outbox 테이블에 저장한다. 현재 스레드에 트랜잭션이 진행 중일 경우 메일은 트랜잭션이 커밋된 후에 전송된다.
+     *
+     * @throws IllegalArgumentException
+     *             {@code mailType}에 해당하는 {@link MailComposer}가 없을 경우 던져진다.
+     */
+    public void enqueue(String mailType, String recipient, String payload) {
+        if (!composers.containsKey(mailType)) {
+            throw new IllegalArgumentException("No MailComposer registered for mail type : " + mailType);
+        }
+
+        OutboxMail mail = new OutboxMail();
+        mail.setMailType(mailType);
+        mail.setRecipient(recipient);
+        mail.setPayload(payload);
+
+        mailOutboxDAO.create(mail);
+        enqueued.increment();
+
+        TransactionCallbacks.afterCommit(this::wakeUp);
+    }
+
+    /**
+     * 전송 스레드를 깨운다. 모든 전송 스레드가 사용 중일 경우 추가 요청은 버려지며 사용 중인 스레드가 이어서 전송한다.
+     */
+    public void wakeUp() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Mail outbox is shutting down. Ignoring wake up.");
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!executor.isShutdown()) {
+                String claimToken = UUID.randomUUID().toString();
+
+                if (mailOutboxDAO.claim(claimToken, batchSize) == 0) {
+                    return;
+                }
+
+                sendBatch(claimToken, mailOutboxDAO.readClaimed(claimToken));
+            }
+        } catch (DataAccessException e) {
+            logger.error("Accessing mail outbox failed. Remaining mails will be sent on next schedule.");
+            logger.error("Exception : ", e);
+        }
+    }
+
+    private void sendBatch(String claimToken, List<OutboxMail> mails) {
+        long startedAt = System.nanoTime();
+
+        Map<MimeMessage, OutboxMail> messages = new IdentityHashMap<>();
+        List<OutboxMail> undeliverable = new ArrayList<>();
+        List<OutboxMail> retryable = new ArrayList<>();
+
+        for (OutboxMail mail : mails) {
+            try {
+                messages.put(compose(mail), mail);
+            } catch (MessagingException e) {
+                logger.error("Composing mail failed. mail : {}", mail);
+                logger.error("Exception : ", e);
+                undeliverable.add(mail);
+            } catch (RuntimeException e) {
+                logger.warn("Composing mail failed. mail : {}, cause : {}", mail, e.toString());
+                retryable.add(mail);
+            }
+        }
+
+        List<OutboxMail> delivered = new ArrayList<>(messages.values());
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.keySet().toArray(new MimeMessage[messages.size()]));
+            } catch (MailSendException e) {
+                // 연결 실패 시에는 모든 메일이, 개별 메일 전송 실패 시에는 해당 메일만 failedMessages에 담긴다.
+                e.getFailedMessages().keySet().stream().map(messages::get).filter(mail -> mail != null)
+                        .forEach(mail -> {
+                            delivered.remove(mail);
+                            retryable.add(mail);
+                        });
+                logger.warn("Sending {} of {} mails failed. cause : {}", e.getFailedMessages().size(), messages.size(),
+                        e.getMessage());
+            } catch (MailException e) {
+                // 인증 실패 등 연결 단계의 실패이므로 전송된 메일은 없다.
+                delivered.clear();
+                retryable.addAll(messages.values());
+                logger.warn("Sending mails failed. cause : {}", e.toString());
+            }
+        }
+
+        recordResults(claimToken, delivered, retryable, undeliverable);
+
+        batches.increment();
+        totalBatchNanos.add(System.nanoTime() - startedAt);
+    }
+
+    private MimeMessage compose(OutboxMail mail) throws MessagingException {
+        String messageId = "<outbox-" + mail.getId() + "@" + messageIdDomain + ">";
+
+        MimeMessage message = new MimeMessage(session) {
+
+            @Override
+            protected void updateMessageID() throws MessagingException {
+                setHeader(MESSAGE_ID_HEADER, messageId);
+            }
+        };
+
+        composers.get(mail.getMailType()).compose(new MimeMessageHelper(message, true, "UTF-8"), mail);
+
+        return message;
+    }
+
+    private void recordResults(String claimToken, List<OutboxMail> delivered, List<OutboxMail> retryable,
+            List<OutboxMail> undeliverable) {
+
+        if (!delivered.isEmpty()) {
+            mailOutboxDAO.markSent(ids(delivered), claimToken);
+            sent.add(delivered.size());
+        }
+
+        for (OutboxMail mail : retryable) {
+            if (mail.getAttempts() >= maxAttempts) {
+                logger.error("Giving up sending mail after {} attempts. mail : {}", mail.getAttempts(), mail);
+                undeliverable.add(mail);
+                continue;
+            }
+
+            long backoffSeconds = initialBackoffSeconds << Math.min(mail.getAttempts() - 1, 16);
+
+            mailOutboxDAO.markRetry(mail.getId(), claimToken, LocalDateTime.now().plusSeconds(backoffSeconds));
+            retried.increment();
+        }
+
+        if (!undeliverable.isEmpty()) {
+            mailOutboxDAO.markFailed(ids(undeliverable), claimToken);
+            failed.add(undeliverable.size());
+        }
+    }
+
+    private List<Long> ids(List<OutboxMail> mails) {
+        return mails.stream().map(OutboxMail::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * 선점된 후 {@code stale-claim-minutes}가 지나도록 결과가 기록되지 않은 메일을 FAILED로 기록하고
+     * {@code retention-days}가 지난 전송 완료, 실패 메일을 삭제한다. {@link Scheduler}에 의해 주기적으로 호출된다.
+     */
+    public void failStaleClaims() {
+        int stale = mailOutboxDAO.failStaleClaims(LocalDateTime.now().minusMinutes(staleClaimMinutes));
+
+        if (stale > 0) {
+            failed.add(stale);
+            logger.error("{} mails were claimed but never finished. Marked as failed without resending.", stale);
+        }
+
+        int deleted = mailOutboxDAO.deleteFinished(LocalDateTime.now().minusDays(retentionDays));
+
+        logger.info("{} finished mails deleted from mail outbox.", deleted);
+    }
+
+    @ManagedOperation(description = "Wakes up mail outbox workers")
+    public void flush() {
+        wakeUp();
+    }
+
+    @ManagedAttribute(description = "Number of mail outbox workers currently sending")
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @ManagedAttribute(description = "Number of mails stored in the outbox")
+    public long getEnqueuedCount() {
+        return enqueued.sum();
+    }
+
+    @ManagedAttribute(description = "Number of sent mails")
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    @ManagedAttribute(description = "Number of mails scheduled for retry")
+    public long getRetriedCount() {
+        return retried.sum();
+    }
+
+    @ManagedAttribute(description = "Number of mails given up")
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    @ManagedAttribute(description = "Average time spent on one batch including composing and SMTP in milliseconds")
+    public double getAverageBatchMillis() {
+        long count = batches.sum();
+        return count == 0 ? 0 : totalBatchNanos.sum() / (count * 1_000_000.0);
+    }
+}
@@ -0,0 +1,557 @@
+package com.jisang.support;
+
+import static com.jisang.config.code.CodeBook.MallLocation.ENTIRE_LOCATION;
+import static com.jisang.config.code.CodeBook.ProductCategory.ALL;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.jisang.domain.Market;
+import com.jisang.domain.Product;
+import com.jisang.dto.product.ProductListViewDTO.ProductListViewEntity;
+import com.jisang.persistence.MarketDAO;
+import com.jisang.persistence.ProductDAO;
+
+/**
+ *
+ * 베스트 상품 목록 화면을 위한 메모리 상의 상품 랭킹이다.
+ *
+ * 이전 구현은 베스트 상품 목록 요청마다 {@code ProductDAO#readListBest}를 호출하여 조건에 맞는 모든 상품을
+ * {@code product_hit_current * currentHitWeight + product_hit_past * pastHitWeight} 순으로 정렬한 후
+ * 앞의 몇 개만 잘라내었다. 카테고리, 지하상가, 마켓의 모든 조합에 대해 매 요청마다 전체 정렬이 일어나는 셈이다.
+ *
+ * 이 클래스는 (카테고리, 지하상가, 마켓) 조합 별로 점수 순으로 정렬된 {@link ConcurrentSkipListSet}을 유지한다. 하나의
+ * 상품은 자신의 카테고리와 전체 카테고리 각각에 대해 마켓, 지하상가, 전체 지역 랭킹에 속하므로 총 여섯 개의 랭킹에 포함된다. 조회수가
+ * 변경되면 해당 상품만 여섯 개의 랭킹에서 빠졌다가 새 점수로 다시 들어가며, 베스트 상품 목록 조회는 랭킹의 앞부분을 순회하기만 한다.
+ *
+ * 조회수는 {@link ProductHitCounter}가 데이터베이스에 반영하는 시점에 함께 반영되며, 상품 등록/수정/삭제 및 마켓 지역 변경은
+ * 서비스 계층에서 트랜잭션 커밋 이후에 반영한다. 여러 대의 서버가 동작할 경우 다른 서버의 조회수는 데이터베이스를 통해서만 알 수 있으므로
+ * {@link Scheduler#reloadBestRanking()}에 의해 주기적으로 데이터베이스로부터 다시 구성된다.
+ *
+ * 다시 구성하는 동안 데이터베이스 조회 이후에 반영된 변경은 새 랭킹에 없으므로 구성 도중의 변경은 기록해 두었다가 교체 직후 새 랭킹에
+ * 다시 적용한다. 조회 이전에 데이터베이스에 반영된 조회수가 구성 도중 랭킹에 반영되었을 경우 다음 구성 때까지 두 번 집계될 수 있으나
+ * 잃어버리는 것보다 낫다고 판단하였다. 구성 도중 조회수 리프레시가 일어났을 경우에는 조회 결과가 리프레시 이전의 것인지 알 수 없으므로
+ * 새 랭킹을 버리고 기존 랭킹을 유지한다.
+ *
+ * 검색어가 포함된 베스트 상품 목록은 이 랭킹으로 처리하지 않는다.
+ *
+ * 랭킹은 모든 (카테고리, 지하상가, 마켓) 조합의 상품 집합을 이미 알고 있으므로 조합 별 상품 수도 함께 유지한다. 페이지 뷰는 마지막
+ * 페이지 번호 계산을 위해 매 요청마다 {@code COUNT(*)} 쿼리를 수행하였는데 {@link ProductCountCache}는 검색어가 없을 경우
+ * 이 값을 사용한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class ProductBestRanking {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final Comparator<RankedProduct> RANKING_ORDER =
+            Comparator.comparingDouble((RankedProduct product) -> product.score)
+                      .reversed()
+                      .thenComparingInt(product -> product.id);
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ProductBestRanking.class);
+
+    @Autowired
+    private ProductDAO productDAO;
+    @Autowired
+    private MarketDAO marketDAO;
+
+    @Value("${view.best.past-hit-weight}")
+    private double pastHitWeight;
+    @Value("${view.best.current-hit-weight}")
+    private double currentHitWeight;
+
+    /** 아래 필드들은 {@code this}를 모니터로 하여 변경된다. */
+    private Map<Integer, RankedProduct> products = new HashMap<>();
+    private Map<Integer, String> marketLocations = new HashMap<>();
+    /** 랭킹을 다시 구성하는 동안 적용된 변경. 구성 중이 아닐 때는 {@code null}이다. */
+    private List<Runnable> reloadMutations;
+    private boolean hitsRefreshedWhileReloading;
+
+    /** 동시에 두 번 구성되지 않도록 한다. {@code this}보다 먼저 획득해야 한다. */
+    private final Object reloadLock = new Object();
+
+    private volatile Map<RankingKey, NavigableSet<RankedProduct>> rankings = new ConcurrentHashMap<>();
+    private volatile Map<RankingKey, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        try {
+            reload();
+        } catch (DataAccessException e) {
+            logger.error("Loading best product ranking failed. Best view will be served from database until reload.");
+            logger.error("Exception : ", e);
+        }
+    }
+
+    /**
+     * 데이터베이스로부터 랭킹을 새로 구성한다. 새 랭킹이 모두 구성된 후에 교체되므로 구성 도중의 조회 요청은 이전 랭킹을 사용한다.
+     * 데이터베이스 조회는 모니터 밖에서 수행되며 그 동안 적용된 변경은 교체 직후 새 랭킹에 다시 적용된다.
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            synchronized (this) {
+                reloadMutations = new ArrayList<>();
+                hitsRefreshedWhileReloading = false;
+            }
+
+            List<Market> markets;
+            List<Product> productList;
+
+            try {
+                markets = marketDAO.readList();
+                productList = productDAO.readListForBestRanking();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    reloadMutations = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                List<Runnable> mutations = reloadMutations;
+                reloadMutations = null;
+
+                if (hitsRefreshedWhileReloading) {
+                    logger.info("Product hits refreshed while loading best product ranking. Keeping current ranking.");
+                    return;
+                }
+
+                marketLocations = new HashMap<>();
+                markets.forEach(market -> marketLocations.put(market.getId(), market.getLocation()));
+
+                rebuild(productList.stream()
+                                   .map(product -> new RankedProduct(product,
+                                                                     marketLocations.get(product.getMarketId()),
+                                                                     product.getHitCurrent(), product.getHitPast()))
+                                   .collect(Collectors.toList()));
+
+                mutations.forEach(Runnable::run);
+                ready = true;
+
+                logger.info("Loading best product ranking succeeded. {} products ranked, {} changes reapplied.",
+                        productList.size(), mutations.size());
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 전달 받은 조건에 해당하는 랭킹에서 앞의 {@code count}개의 상품을 반환한다. 조건의 의미는
+     * {@code ProductDAO.xml}의 'readProductListCommonSql'과 같다. 즉 {@code marketId}가 지정되었을 경우
+     * {@code mallLocation}은 무시된다.
+     */
+    public List<ProductListViewEntity> findBest(String category, String mallLocation, Integer marketId, int count) {
+        List<ProductListViewEntity> bestList = new ArrayList<>(count);
+
+        NavigableSet<RankedProduct> ranking = rankings.get(RankingKey.of(category, mallLocation, marketId));
+
+        if (ranking == null) {
+            return bestList;
+        }
+
+        Iterator<RankedProduct> iterator = ranking.iterator();
+
+        while (iterator.hasNext() && bestList.size() < count) {
+            bestList.add(iterator.next().toListViewEntity());
+        }
+
+        return bestList;
+    }
+
+    /**
+     * 전달 받은 조건에 해당하는 상품 수를 반환한다. 조건의 의미는 {@link #findBest}와 같다.
+     */
+    public int count(String category, String mallLocation, Integer marketId) {
+        AtomicInteger count = counts.get(RankingKey.of(category, mallLocation, marketId));
+
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * {@code productIds} 중 전달 받은 조건에 해당하는 상품 수를 반환한다. {@link HashTagSearchIndex}로부터 얻은 검색 결과에
+     * 대한 상품 수를 구할 때 사용된다.
+     */
+    public synchronized int count(String category, String mallLocation, Integer marketId,
+            Collection<Integer> productIds) {
+        RankingKey key = RankingKey.of(category, mallLocation, marketId);
+
+        return (int) productIds.stream()
+                               .map(products::get)
+                               .filter(ranked -> ranked != null && key.matches(ranked))
+                               .count();
+    }
+
+    /**
+     * {@link ProductHitCounter}가 데이터베이스에 반영한 조회수를 랭킹에도 반영한다.
+     */
+    public synchronized void addHits(Map<Integer, Long> hits) {
+        apply(() -> hits.forEach((productId, hit) -> {
+            RankedProduct older = products.get(productId);
+
+            if (older != null) {
+                replace(older, new RankedProduct(older, older.location, older.hitCurrent + hit, older.hitPast));
+            }
+        }));
+    }
+
+    /**
+     * {@code ProductDAO#refreshHit()}과 같이 현재 조회수를 과거 조회수로 옮기고 현재 조회수를 0으로 만든다.
+     */
+    public synchronized void refreshHit() {
+        if (reloadMutations != null) {
+            hitsRefreshedWhileReloading = true;
+        }
+
+        List<RankedProduct> refreshed = new ArrayList<>(products.size());
+
+        products.values()
+                .forEach(older -> refreshed.add(new RankedProduct(older, older.location, 0, older.hitCurrent)));
+
+        rebuild(refreshed);
+    }
+
+    /**
+     * 새로 등록된 상품을 랭킹에 추가한다. 구성 도중 등록된 상품은 새 랭킹에 이미 포함되어 있을 수 있으므로 이미 존재할 경우 조회수를
+     * 유지한 채 교체한다.
+     */
+    public void add(Product product) {
+        String location = findMarketLocation(product.getMarketId());
+
+        synchronized (this) {
+            apply(() -> {
+                RankedProduct older = products.get(product.getId());
+
+                if (older == null) {
+                    RankedProduct ranked = new RankedProduct(product, location, 0, 0);
+
+                    products.put(ranked.id, ranked);
+                    index(ranked, rankings, counts);
+                } else {
+                    replace(older, new RankedProduct(product, location, older.hitCurrent, older.hitPast));
+                }
+            });
+        }
+    }
+
+    /**
+     * 수정된 상품 정보를 랭킹에 반영한다. 조회수와 마켓 정보는 기존 정보를 유지한다.
+     */
+    public synchronized void modify(Product product) {
+        apply(() -> {
+            RankedProduct older = products.get(product.getId());
+
+            if (older == null) {
+                return;
+            }
+
+            Product modified = new Product();
+            modified.setId(older.id);
+            modified.setMarketId(older.marketId);
+            modified.setCategory(product.getCategory());
+            modified.setName(product.getName());
+            modified.setPrice(product.getPrice());
+            modified.setRepresentingImageUrl(product.getRepresentingImageUrl());
+            modified.setListImageUrl(product.getListImageUrl());
+
+            replace(older, new RankedProduct(modified, older.location, older.hitCurrent, older.hitPast));
+        });
+    }
+
+    /**
+     * {@link ImageDerivativePipeline}이 생성한 목록 화면용 이미지를 반영한다. 그 사이 대표 이미지가 바뀌었을 경우 반영하지
+     * 않는다.
+     */
+    public synchronized void modifyListImage(int productId, String representingImageUrl, String listImageUrl) {
+        apply(() -> {
+            RankedProduct older = products.get(productId);
+
+            if (older == null || !Objects.equals(older.representingImageUrl, representingImageUrl)) {
+                return;
+            }
+
+            Product modified = new Product();
+            modified.setId(older.id);
+            modified.setMarketId(older.marketId);
+            modified.setCategory(older.category);
+            modified.setName(older.name);
+            modified.setPrice(older.price);
+            modified.setRepresentingImageUrl(older.representingImageUrl);
+            modified.setListImageUrl(listImageUrl);
+
+            replace(older, new RankedProduct(modified, older.location, older.hitCurrent, older.hitPast));
+        });
+    }
+
+    public synchronized void remove(int productId) {
+        apply(() -> {
+            RankedProduct older = products.remove(productId);
+
+            if (older != null) {
+                unindex(older);
+            }
+        });
+    }
+
+    /**
+     * 마켓의 지하상가 정보가 변경되었을 경우 해당 마켓의 상품들을 새 지하상가 랭킹으로 옮긴다.
+     */
+    public synchronized void relocateMarket(int marketId, String location) {
+        apply(() -> {
+            marketLocations.put(marketId, location);
+
+            new ArrayList<>(products.values()).stream()
+                                              .filter(older -> older.marketId == marketId)
+                                              .forEach(older -> replace(older, new RankedProduct(older, location,
+                                                                      older.hitCurrent, older.hitPast)));
+        });
+    }
+
+    /**
+     * 변경을 적용하고 랭킹을 다시 구성하는 중이라면 교체 직후 새 랭킹에 다시 적용할 수 있도록 기록한다. 다시 적용되어도 결과가 같도록
+     * 변경은 상품의 현재 상태를 기준으로 작성되어야 한다. {@code this}를 모니터로 하여 호출되어야 한다.
+     */
+    private void apply(Runnable mutation) {
+        mutation.run();
+
+        if (reloadMutations != null) {
+            reloadMutations.add(mutation);
+        }
+    }
+
+    private void replace(RankedProduct older, RankedProduct newer) {
+        unindex(older);
+
+        products.put(newer.id, newer);
+        index(newer, rankings, counts);
+    }
+
+    private void rebuild(List<RankedProduct> rankedProducts) {
+        Map<Integer, RankedProduct> newProducts = new HashMap<>();
+        Map<RankingKey, NavigableSet<RankedProduct>> newRankings = new ConcurrentHashMap<>();
+        Map<RankingKey, AtomicInteger> newCounts = new ConcurrentHashMap<>();
+
+        rankedProducts.forEach(ranked -> {
+            newProducts.put(ranked.id, ranked);
+            index(ranked, newRankings, newCounts);
+        });
+
+        products = newProducts;
+        rankings = newRankings;
+        counts = newCounts;
+    }
+
+    private void index(RankedProduct ranked, Map<RankingKey, NavigableSet<RankedProduct>> rankings,
+            Map<RankingKey, AtomicInteger> counts) {
+        keysOf(ranked).forEach(key -> {
+            rankings.computeIfAbsent(key, k -> newRanking()).add(ranked);
+            counts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        });
+    }
+
+    private void unindex(RankedProduct ranked) {
+        keysOf(ranked).forEach(key -> {
+            rankings.get(key).remove(ranked);
+            counts.get(key).decrementAndGet();
+        });
+    }
+
+    /**
+     * 마켓의 지하상가 코드를 반환한다. 랭킹 구성 시 읽어둔 정보를 사용하므로 대부분의 경우 데이터베이스에 접근하지 않는다. 처음 보는
+     * 마켓(랭킹 구성 이후 회원가입한 마켓 관리자의 마켓)일 경우 데이터베이스로부터 지역 정보를 조회하며, 조회하는 동안 다른 요청이
+     * 랭킹을 기다리지 않도록 조회는 모니터 밖에서 수행한다.
+     */
+    public String findMarketLocation(int marketId) {
+        synchronized (this) {
+            String location = marketLocations.get(marketId);
+
+            if (location != null) {
+                return location;
+            }
+        }
+
+        Market market = marketDAO.readSummary(marketId);
+
+        if (market == null || market.getLocation() == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            // 조회하는 동안 relocateMarket()으로 바뀐 지역 정보가 있다면 그것을 사용한다.
+            String location = marketLocations.putIfAbsent(marketId, market.getLocation());
+            return location == null ? market.getLocation() : location;
+        }
+    }
+
+    private NavigableSet<RankedProduct> newRanking() {
+        return new ConcurrentSkipListSet<>(RANKING_ORDER);
+    }
+
+    private List<RankingKey> keysOf(RankedProduct ranked) {
+        List<RankingKey> keys = new ArrayList<>(6);
+
+        for (String category : new String[] { ranked.category, ALL.getCode() }) {
+            keys.add(new RankingKey(category, null, ranked.marketId));
+            keys.add(new RankingKey(category, ENTIRE_LOCATION.getCode(), null));
+
+            if (ranked.location != null) {
+                keys.add(new RankingKey(category, ranked.location, null));
+            }
+        }
+
+        return keys;
+    }
+
+    private double score(long hitCurrent, long hitPast) {
+        return hitCurrent * currentHitWeight + hitPast * pastHitWeight;
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    /**
+     * 랭킹에 포함된 상품 정보이다. {@link ConcurrentSkipListSet}의 정렬 기준인 점수가 바뀌면 안되기 때문에 불변 클래스로
+     * 정의하였으며 정보가 변경될 경우 새 오브젝트로 교체된다.
+     */
+    private final class RankedProduct {
+
+        private final int id;
+        private final int marketId;
+        private final String category;
+        private final String location;
+        private final String name;
+        private final String price;
+        private final String representingImageUrl;
+        private final String listImageUrl;
+
+        private final long hitCurrent;
+        private final long hitPast;
+        private final double score;
+
+        private RankedProduct(Product product, String location, long hitCurrent, long hitPast) {
+            this.id = product.getId();
+            this.marketId = product.getMarketId();
+            this.category = product.getCategory();
+            this.location = location;
+            this.name = product.getName();
+            this.price = product.getPrice();
+            this.representingImageUrl = product.getRepresentingImageUrl();
+            this.listImageUrl = product.getListImageUrl();
+            this.hitCurrent = hitCurrent;
+            this.hitPast = hitPast;
+            this.score = score(hitCurrent, hitPast);
+        }
+
+        private RankedProduct(RankedProduct older, String location, long hitCurrent, long hitPast) {
+            this.id = older.id;
+            this.marketId = older.marketId;
+            this.category = older.category;
+            this.location = location;
+            this.name = older.name;
+            this.price = older.price;
+            this.representingImageUrl = older.representingImageUrl;
+            this.listImageUrl = older.listImageUrl;
+            this.hitCurrent = hitCurrent;
+            this.hitPast = hitPast;
+            this.score = score(hitCurrent, hitPast);
+        }
+
+        private ProductListViewEntity toListViewEntity() {
+            ProductListViewEntity entity = new ProductListViewEntity();
+            entity.setId(id);
+            entity.setName(name);
+            entity.setPrice(price);
+            entity.setRepresentingImage(listImageUrl == null ? representingImageUrl : listImageUrl);
+            return entity;
+        }
+    }
+
+    /**
+     * (카테고리, 지하상가, 마켓) 조합을 나타내는 랭킹의 key 이다. 마켓이 지정된 경우 지하상가는 null이다.
+     */
+    private static final class RankingKey {
+
+        private final String category;
+        private final String location;
+        private final Integer marketId;
+
+        private RankingKey(String category, String location, Integer marketId) {
+            this.category = category;
+            this.location = location;
+            this.marketId = marketId;
+        }
+
+        private static RankingKey of(String category, String mallLocation, Integer marketId) {
+            if (marketId != null) {
+                return new RankingKey(category, null, marketId);
+            }
+            if (mallLocation == null || mallLocation.isEmpty()) {
+                return new RankingKey(category, ENTIRE_LOCATION.getCode(), null);
+            }
+            return new RankingKey(category, mallLocation, null);
+        }
+
+        private boolean matches(RankedProduct ranked) {
+            if (!ALL.getCode().equals(category) && !category.equals(ranked.category)) {
+                return false;
+            }
+            if (marketId != null) {
+                return marketId == ranked.marketId;
+            }
+            return ENTIRE_LOCATION.getCode().equals(location) || location.equals(ranked.location);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof RankingKey)) {
+                return false;
+            }
+            RankingKey other = (RankingKey) obj;
+            return Objects.equals(category, other.category) && Objects.equals(location, other.location)
+                    && Objects.equals(marketId, other.marketId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(category, location, marketId);
+        }
+    }
+}
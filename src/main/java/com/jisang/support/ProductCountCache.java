@@ -0,0 +1,152 @@
+package com.jisang.support;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.jisang.dto.product.ProductListViewConfigData;
+import com.jisang.persistence.ProductDAO;
+
+/**
+ *
+ * 페이지 뷰의 마지막 페이지 번호 계산에 필요한 상품 수를 반환한다.
+ *
+ * 이전 구현은 페이지 뷰 요청마다 {@code ProductDAO#readProductTotalCount}를 호출하여 {@code tbl_products}
+ * 전체에 대한 {@code COUNT(*)} 쿼리를 수행하였으며, 검색어가 있을 경우에는 {@code tbl_hashtags}에 대한 LIKE 서브쿼리까지
+ * 포함되어 상품 목록 조회 쿼리보다 상품 수 조회 쿼리가 더 오래 걸리는 경우가 많았다.
+ *
+ * 검색어가 없을 경우 (카테고리, 지하상가, 마켓) 조합 별 상품 수는 {@link ProductBestRanking}이 상품 등록/수정/삭제 시 함께
+ * 갱신하고 있으므로 이를 그대로 사용한다. 검색어가 있을 경우에는 {@link HashTagSearchIndex}의 검색 결과 중 조건에 맞는 상품의
+ * 수를 메모리 상에서 센다. 둘 중 하나라도 아직 구성되지 않았을 경우에는 데이터베이스로부터 조회한 값을 일정 시간 동안 캐싱한다. 검색 결과
+ * 상품 수는 페이지 번호 표시에만 사용되므로 캐싱 기간 동안 약간 어긋나는 것은 허용하기로 하였다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class ProductCountCache {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ProductCountCache.class);
+
+    @Autowired
+    private ProductDAO productDAO;
+    @Autowired
+    private ProductBestRanking productBestRanking;
+    @Autowired
+    private HashTagSearchIndex hashTagSearchIndex;
+
+    @Value("${view.page.keyword-count.ttl-seconds:60}")
+    private long keywordCountTtlSeconds;
+    @Value("${view.page.keyword-count.max-size:10000}")
+    private long keywordCountMaxSize;
+
+    private Cache<KeywordCountKey, Integer> keywordCounts;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        keywordCounts = CacheBuilder.newBuilder()
+                                    .expireAfterWrite(keywordCountTtlSeconds, TimeUnit.SECONDS)
+                                    .maximumSize(keywordCountMaxSize)
+                                    .build();
+    }
+
+    /**
+     * 전달 받은 상품 목록 화면 설정에 해당하는 상품 수를 반환한다. 베스트 상품 랭킹이 아직 구성되지 않았을 경우에는 데이터베이스로부터
+     * 조회한다.
+     */
+    public int count(ProductListViewConfigData viewConfig) {
+        Objects.requireNonNull(viewConfig, "Null value argument viewConfig detected.");
+
+        String keyword = viewConfig.getSearchCriteria().getKeyword();
+
+        if (keyword == null) {
+            if (productBestRanking.isReady()) {
+                return productBestRanking.count(viewConfig.getCategory(), viewConfig.getMallLocation(),
+                                                viewConfig.getMarketId());
+            }
+
+            return productDAO.readProductTotalCount(viewConfig);
+        }
+
+        Set<Integer> searchProductIds = hashTagSearchIndex.search(keyword);
+
+        if (searchProductIds != null && productBestRanking.isReady()) {
+            return productBestRanking.count(viewConfig.getCategory(), viewConfig.getMallLocation(),
+                                            viewConfig.getMarketId(), searchProductIds);
+        }
+
+        KeywordCountKey key = new KeywordCountKey(keyword, viewConfig.getCategory(), viewConfig.getMallLocation(),
+                                                  viewConfig.getMarketId());
+        try {
+            return keywordCounts.get(key, () -> productDAO.readProductTotalCount(viewConfig));
+        } catch (ExecutionException e) {
+            logger.error("Loading product count for {} failed.", key);
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    private static final class KeywordCountKey {
+
+        private final String keyword;
+        private final String category;
+        private final String mallLocation;
+        private final Integer marketId;
+
+        private KeywordCountKey(String keyword, String category, String mallLocation, Integer marketId) {
+            this.keyword = keyword;
+            this.category = category;
+            // marketId가 지정되었을 경우 mallLocation은 조건에 사용되지 않는다.
+            this.mallLocation = marketId == null ? mallLocation : null;
+            this.marketId = marketId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof KeywordCountKey)) {
+                return false;
+            }
+            KeywordCountKey other = (KeywordCountKey) obj;
+            return Objects.equals(keyword, other.keyword) && Objects.equals(category, other.category)
+                    && Objects.equals(mallLocation, other.mallLocation) && Objects.equals(marketId, other.marketId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(keyword, category, mallLocation, marketId);
+        }
+
+        @Override
+        public String toString() {
+            return "KeywordCountKey [keyword=" + keyword + ", category=" + category + ", mallLocation="
+                    + mallLocation + ", marketId=" + marketId + "]";
+        }
+    }
+}
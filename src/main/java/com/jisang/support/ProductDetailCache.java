@@ -0,0 +1,177 @@
+package com.jisang.support;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jisang.dto.product.ProductShoppingDetailedViewDTO;
+
+/**
+ *
+ * 상품 상세 화면 응답에 대한 read-through 캐시이다.
+ *
+ * 상품 정보는 {@code modifyProduct}, {@code deleteProduct}에 의해서만, 마켓 정보는 {@code modifyMarket}에 의해서만
+ * 변경되지만 이전 구현은 상품 상세 조회 요청마다 데이터베이스로부터 상품, 이미지, 마켓 정보를 다시 읽었다. 이 클래스는 상품 id 별로
+ * 상세 화면 정보를 캐싱하며 크기와 TTL로 제한된다. 조회수는 {@link ProductHitCounter}가 따로 누적하므로 캐싱되는 정보에는
+ * 포함되지 않는다.
+ *
+ * 같은 상품에 대한 캐시 miss가 동시에 일어나더라도 데이터베이스 조회는 한 스레드만 수행하며 나머지 스레드는 그 결과를 기다린다(Guava
+ * {@link Cache#get(Object, java.util.concurrent.Callable)}의 동작이다). 인기 상품의 항목이 만료되거나 제거되는 순간
+ * 요청이 한꺼번에 데이터베이스로 몰리는 것을 막기 위함이다.
+ *
+ * 제거는 트랜잭션 커밋 이후에 수행된다. 데이터베이스로부터 읽는 도중에 제거가 일어나면 읽은 정보는 이미 이전 정보일 수 있으므로
+ * {@link ProductListCache}와 마찬가지로 읽은 정보를 반환만 하고 캐시에는 남겨두지 않는다.
+ *
+ * 캐싱된 DTO는 여러 요청이 공유하므로 호출자에게는 복사본을 반환한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=ProductDetailCache", description = "Product detail response cache")
+public class ProductDetailCache {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final long NOT_LOADED = -1;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ProductDetailCache.class);
+
+    @Value("${view.detail-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    @Value("${view.detail-cache.max-size:10000}")
+    private long maxSize;
+
+    private Cache<Integer, ProductShoppingDetailedViewDTO> cache;
+
+    /** 제거가 일어날 때마다 증가한다. 읽기 도중 제거가 일어났는지 확인하기 위해 사용한다. */
+    private final AtomicLong generation = new AtomicLong();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                            .maximumSize(maxSize)
+                            .recordStats()
+                            .build();
+    }
+
+    /**
+     * 캐싱된 상품 상세 화면 정보의 복사본을 반환한다. 캐싱된 정보가 없을 경우 {@code loader}로부터 정보를 얻어 캐싱하며, 같은 상품에
+     * 대한 {@code loader} 호출은 동시에 하나만 수행된다.
+     *
+     * @param loader
+     *            상품 id를 전달 받아 상세 화면 정보를 반환한다. 예외를 던질 경우 예외는 그대로 호출자에게 전달되며 아무것도 캐싱되지
+     *            않는다.
+     */
+    public ProductShoppingDetailedViewDTO get(int productId, IntFunction<ProductShoppingDetailedViewDTO> loader) {
+        Objects.requireNonNull(loader, "Null value argument loader detected.");
+
+        // 이 호출에서 loader가 수행되었을 경우 수행 직전의 generation 값을 담는다.
+        long[] loadingGeneration = { NOT_LOADED };
+
+        ProductShoppingDetailedViewDTO cached;
+
+        try {
+            cached = cache.get(productId, () -> {
+                loadingGeneration[0] = generation.get();
+                return loader.apply(productId);
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+
+        if (loadingGeneration[0] != NOT_LOADED && loadingGeneration[0] != generation.get()) {
+            cache.asMap().remove(productId, cached);
+            logger.debug("Product detail changed while loading product {}. Skipping caching.", productId);
+        }
+
+        return copyOf(cached);
+    }
+
+    public void evictProduct(int productId) {
+        generation.incrementAndGet();
+        cache.invalidate(productId);
+    }
+
+    /**
+     * 마켓 이름 등 상품 상세 화면에 포함되는 마켓 정보가 변경되었을 경우 해당 마켓의 모든 상품 항목을 제거한다.
+     */
+    public void evictMarket(int marketId) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(detail -> detail.getMarketId() == marketId);
+    }
+
+    @ManagedOperation(description = "Evicts every cached product detail")
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private ProductShoppingDetailedViewDTO copyOf(ProductShoppingDetailedViewDTO detail) {
+        ProductShoppingDetailedViewDTO copy = new ProductShoppingDetailedViewDTO();
+        copy.setMarketId(detail.getMarketId());
+        copy.setMarketName(detail.getMarketName());
+        copy.setProductId(detail.getProductId());
+        copy.setProductName(detail.getProductName());
+        copy.setPrice(detail.getPrice());
+        copy.setDetail(detail.getDetail());
+        copy.setRepresentingImageUrl(detail.getRepresentingImageUrl());
+        copy.setOriginalRepresentingImageUrl(detail.getOriginalRepresentingImageUrl());
+        copy.setImageUrls(detail.getImageUrls() == null ? null : new ArrayList<>(detail.getImageUrls()));
+
+        return copy;
+    }
+
+    @ManagedAttribute(description = "Number of cached product details")
+    public long getSize() {
+        return cache.size();
+    }
+
+    @ManagedAttribute(description = "Number of cache hits")
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of cache misses")
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of cache hits to requests")
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Average time spent loading a product detail in nanoseconds")
+    public double getAverageLoadPenalty() {
+        return cache.stats().averageLoadPenalty();
+    }
+}
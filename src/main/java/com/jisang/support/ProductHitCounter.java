@@ -0,0 +1,203 @@
+package com.jisang.support;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.jisang.persistence.ProductDAO;
+
+/**
+ *
+ * 상품 조회수를 메모리 상에 누적해 두었다가 {@link Scheduler}에 의해 주기적으로 데이터베이스에 일괄 반영하는 write-behind
+ * 카운터이다.
+ *
+ * 이전 구현은 상품 상세 화면이 조회될 때마다 {@code ProductDAO#addHit(int)}를 호출하여 요청 스레드에서 바로
+ * UPDATE 쿼리를 수행하였다. 세일 기간 등에는 몇몇 인기 상품에 초당 수천 건의 조회가 몰리는데 이 경우 모든 요청이 같은 row의 락을
+ * 기다리게 된다. 조회수는 정확한 실시간 값이 필요한 정보가 아니므로 메모리에 모아 두었다가 한 번의 multi-row UPDATE로 반영하기로
+ * 하였다.
+ *
+ * 카운터는 상품 id를 기준으로 여러 개의 stripe로 나뉘어 있으며 각 stripe는 자신만의 {@link ReadWriteLock}을 갖는다.
+ * 조회수 증가는 read lock 하에서 {@link LongAdder}를 증가시키므로 서로 다른 요청 스레드끼리는 경합하지 않으며, flush 시에는
+ * write lock 하에서 stripe의 맵을 새 맵으로 교체만 하므로 요청 스레드가 대기하는 시간은 매우 짧다. 맵을 교체한 이후에 누적 값을
+ * 읽기 때문에 flush 도중의 조회수 증가가 유실되는 일은 없다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class ProductHitCounter {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final int STRIPE_COUNT = 16;
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ProductHitCounter.class);
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    @Autowired
+    private ProductDAO productDAO;
+    @Autowired
+    private ProductBestRanking productBestRanking;
+
+    @Value("${schedule.product-hit-flush.batch-size:500}")
+    private int flushBatchSize;
+
+    // Constructors
+    // ==========================================================================================================================
+
+    public ProductHitCounter() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Methods
+    // ==========================================================================================================================
+
+    /**
+     * 전달 받은 {@code productId}에 해당하는 상품의 조회수를 1 증가시킨다. 데이터베이스 접근은 일어나지 않는다.
+     */
+    public void increment(int productId) {
+        add(productId, 1);
+    }
+
+    private void add(int productId, long hit) {
+        Stripe stripe = stripes[Math.floorMod(productId, STRIPE_COUNT)];
+
+        stripe.lock.readLock().lock();
+        try {
+            LongAdder adder = stripe.hits.get(productId);
+            if (adder == null) {
+                adder = stripe.hits.computeIfAbsent(productId, id -> new LongAdder());
+            }
+            adder.add(hit);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     *
+     * 누적된 조회수를 데이터베이스에 반영한다. {@code flushBatchSize}개의 상품 단위로 나누어 하나의 multi-row UPDATE
+     * 쿼리를 수행한다.
+     *
+     * 데이터베이스에 반영된 조회수는 {@link ProductBestRanking}에도 반영된다. 반영에 실패한 조회수는 버리지 않고 다시
+     * 카운터에 더해 두어 다음 flush 때 재시도 되도록 하였다. 이 메서드와 {@link #refreshHit()}은 같은 모니터로 동기화
+     * 되어 있어 동시에 두 번 flush 되거나 조회수 리프레시 도중에 flush 되는 일은 없다.
+     *
+     */
+    public synchronized void flush() {
+        Map<Integer, Long> drained = drain();
+
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Starting to flush hits of {} products.", drained.size());
+
+        for (Map<Integer, Long> batch : partition(drained)) {
+            try {
+                productDAO.addHits(batch);
+                productBestRanking.addHits(batch);
+            } catch (DataAccessException e) {
+                logger.error("Flushing product hits failed. Restoring {} products' hits to counter.", batch.size());
+                logger.error("Exception : ", e);
+
+                batch.forEach(this::add);
+            }
+        }
+
+        logger.debug("Flushing product hits succeeded.");
+    }
+
+    /**
+     *
+     * {@link Scheduler#refreshProductHit()}로부터 호출된다. 리프레시 이전에 누적된 조회수는 이전 기간의 조회수에 속하므로
+     * 먼저 flush를 수행한 후 {@code product_hit_past = product_hit_current} 리프레시를 수행한다. 그렇지 않을 경우
+     * 리프레시 직전까지 누적된 조회수가 새로운 기간의 조회수로 집계된다.
+     *
+     */
+    public synchronized void refreshHit() {
+        flush();
+
+        productDAO.refreshHit();
+        productBestRanking.refreshHit();
+    }
+
+    /**
+     * 어플리케이션 종료 시 아직 반영되지 않은 조회수를 데이터베이스에 반영한다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Flushing remaining product hits before shutdown.");
+
+        flush();
+    }
+
+    private Map<Integer, Long> drain() {
+        Map<Integer, Long> drained = new HashMap<>();
+
+        for (Stripe stripe : stripes) {
+            Map<Integer, LongAdder> hits;
+
+            stripe.lock.writeLock().lock();
+            try {
+                hits = stripe.hits;
+                stripe.hits = new ConcurrentHashMap<>();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+
+            hits.forEach((productId, adder) -> drained.merge(productId, adder.sum(), Long::sum));
+        }
+
+        return drained;
+    }
+
+    private List<Map<Integer, Long>> partition(Map<Integer, Long> drained) {
+        List<Map<Integer, Long>> batches = new ArrayList<>();
+        Map<Integer, Long> batch = new LinkedHashMap<>();
+
+        for (Map.Entry<Integer, Long> entry : drained.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+
+            if (batch.size() >= flushBatchSize) {
+                batches.add(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+
+        return batches;
+    }
+
+    private static class Stripe {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private ConcurrentHashMap<Integer, LongAdder> hits = new ConcurrentHashMap<>();
+    }
+}
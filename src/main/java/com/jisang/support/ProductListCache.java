@@ -0,0 +1,307 @@
+package com.jisang.support;
+
+import static com.jisang.config.code.CodeBook.MallLocation.ENTIRE_LOCATION;
+import static com.jisang.config.code.CodeBook.ProductCategory.ALL;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.jisang.config.code.CodeBook.ProductListViewType;
+import com.jisang.dto.product.ProductListViewConfigData;
+import com.jisang.dto.product.ProductListViewDTO.PagenationProductListView;
+import com.jisang.dto.product.ProductListViewDTO.ProductListView;
+import com.jisang.dto.product.ProductListViewDTO.ProductListViewEntity;
+
+/**
+ *
+ * 상품 목록 화면 응답에 대한 캐시이다.
+ *
+ * 상품 목록 정보는 마켓 관리자가 상품을 등록/수정/삭제할 때에만 변경되지만 이전 구현은 상품 목록 요청마다 데이터베이스로부터 목록을 다시
+ * 구성하였다. 대부분의 요청은 몇몇 지하상가, 카테고리의 첫 페이지에 몰리므로 {@link ProductListViewConfigData}를 정규화한
+ * key로 응답을 캐싱한다. 캐시는 크기와 TTL로 제한되며, 베스트 상품 목록과 같이 조회수에 따라 변하는 정보는 TTL 동안만 이전 값이
+ * 유지된다.
+ *
+ * 상품 또는 마켓 정보가 변경될 경우 서비스 계층은 트랜잭션 커밋 이후 변경된 상품의 (카테고리, 마켓, 지하상가)에 해당하는 항목만
+ * 제거한다. 검색어가 포함된 항목은 검색어와 관계 없이 (카테고리, 마켓, 지하상가)가 일치하면 제거한다. 데이터베이스로부터 목록을 읽는
+ * 도중에 제거가 일어나면 읽은 목록은 이미 이전 정보일 수 있으므로 캐시에 저장하지 않는다.
+ *
+ * 캐시된 응답은 여러 요청이 공유하므로 호출자에게는 항상 복사본이 반환된다. 호출자가 반환된 목록을 정렬하거나 수정하더라도 캐시는
+ * 바뀌지 않는다.
+ *
+ * 캐시 적중률 등의 통계는 JMX를 통해 확인할 수 있다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+@Component
+@ManagedResource(objectName = "com.jisang:type=ProductListCache", description = "Product list response cache")
+public class ProductListCache {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private final Logger logger = LoggerFactory.getLogger(ProductListCache.class);
+
+    @Value("${view.list-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+    @Value("${view.list-cache.max-size:5000}")
+    private long maxSize;
+
+    private Cache<ListCacheKey, ProductListView> cache;
+
+    /** 제거가 일어날 때마다 증가한다. 읽기 도중 제거가 일어났는지 확인하기 위해 사용한다. */
+    private final AtomicLong generation = new AtomicLong();
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                            .maximumSize(maxSize)
+                            .recordStats()
+                            .build();
+    }
+
+    /**
+     * 캐싱된 상품 목록 화면 정보의 복사본을 반환한다. 캐싱된 정보가 없을 경우 {@code loader}로부터 정보를 얻어 캐싱한다.
+     */
+    public ProductListView get(ProductListViewConfigData viewConfig, Supplier<ProductListView> loader) {
+        ListCacheKey key = ListCacheKey.of(viewConfig);
+
+        ProductListView cached = cache.getIfPresent(key);
+
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long loadingGeneration = generation.get();
+
+        ProductListView loaded = loader.get();
+
+        if (loadingGeneration == generation.get()) {
+            cache.put(key, loaded);
+        } else {
+            logger.debug("Product list changed while loading {}. Skipping caching.", key);
+        }
+
+        return copyOf(loaded);
+    }
+
+    /**
+     * 전달 받은 카테고리와 마켓의 상품 변경에 영향을 받는 항목을 제거한다. 제거 대상은 해당 마켓의 목록, 마켓이 속한 지하상가의 목록,
+     * 전체 지역 목록 각각의 전달 받은 카테고리와 전체 카테고리 목록이다.
+     *
+     * @param location
+     *            마켓의 지하상가 코드. null일 경우 모든 지하상가의 목록을 제거한다.
+     */
+    public void evictProduct(int marketId, String location, String... categories) {
+        Collection<String> categoryList = Arrays.asList(categories);
+
+        evictIf(key -> (ALL.getCode().equals(key.category) || categoryList.contains(key.category))
+                && key.isAffectedBy(marketId, location));
+    }
+
+    /**
+     * 마켓의 지하상가가 변경되었을 경우 해당 마켓의 목록과 이전, 이후 지하상가의 모든 카테고리 목록을 제거한다.
+     */
+    public void evictMarket(int marketId, String olderLocation, String newLocation) {
+        evictIf(key -> key.isAffectedBy(marketId, olderLocation) || key.isAffectedBy(marketId, newLocation));
+    }
+
+    @ManagedOperation(description = "Evicts every cached product list")
+    public void evictAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private void evictIf(Predicate<ListCacheKey> predicate) {
+        generation.incrementAndGet();
+
+        int before = (int) cache.size();
+        cache.asMap().keySet().removeIf(predicate);
+
+        logger.debug("Evicted {} product list cache entries.", before - cache.size());
+    }
+
+    private ProductListView copyOf(ProductListView view) {
+        ProductListView copy;
+
+        if (view instanceof PagenationProductListView) {
+            PagenationProductListView page = (PagenationProductListView) view;
+            PagenationProductListView pageCopy = new PagenationProductListView();
+            pageCopy.setCurrentPageIdx(page.getCurrentPageIdx());
+            pageCopy.setEndPageIdx(page.getEndPageIdx());
+            pageCopy.setNextCursor(page.getNextCursor());
+
+            copy = pageCopy;
+        } else {
+            copy = new ProductListView();
+        }
+
+        if (view.getProductEntityList() != null) {
+            view.getProductEntityList().forEach(entity -> copy.addProductEntity(copyOf(entity)));
+        } else {
+            copy.setProductEntityList(null);
+        }
+
+        return copy;
+    }
+
+    private ProductListViewEntity copyOf(ProductListViewEntity entity) {
+        ProductListViewEntity copy = new ProductListViewEntity();
+        copy.setId(entity.getId());
+        copy.setRepresentingImage(entity.getRepresentingImage());
+        copy.setName(entity.getName());
+        copy.setPrice(entity.getPrice());
+
+        return copy;
+    }
+
+    @ManagedAttribute(description = "Number of cached product lists")
+    public long getSize() {
+        return cache.size();
+    }
+
+    @ManagedAttribute(description = "Number of cache hits")
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @ManagedAttribute(description = "Number of cache misses")
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @ManagedAttribute(description = "Ratio of cache hits to requests")
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @ManagedAttribute(description = "Number of entries evicted by size or TTL")
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public String toString() {
+        CacheStats stats = cache.stats();
+        return getClass().getName() + "[size=" + cache.size() + ", hitCount=" + stats.hitCount() + ", missCount="
+                + stats.missCount() + "]";
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    /**
+     * {@link ProductListViewConfigData}를 정규화한 캐시 key 이다. 뷰 타입과 관계 없는 프로퍼티는 key에 포함하지 않으며,
+     * {@code ProductDAO.xml}의 'readProductListCommonSql'과 같이 마켓이 지정된 경우 지하상가는 무시하고 지하상가가 지정되지
+     * 않은 경우는 전체 지역으로 취급한다.
+     */
+    private static final class ListCacheKey {
+
+        private final String viewType;
+        private final String category;
+        private final String location;
+        private final Integer marketId;
+        private final String keyword;
+        private final Integer count;
+        private final Integer pageIndex;
+        private final String cursor;
+
+        private ListCacheKey(String viewType, String category, String location, Integer marketId, String keyword,
+                Integer count, Integer pageIndex, String cursor) {
+            this.viewType = viewType;
+            this.category = category;
+            this.location = location;
+            this.marketId = marketId;
+            this.keyword = keyword;
+            this.count = count;
+            this.pageIndex = pageIndex;
+            this.cursor = cursor;
+        }
+
+        private static ListCacheKey of(ProductListViewConfigData viewConfig) {
+            String viewType = viewConfig.getViewType();
+            Integer marketId = viewConfig.getMarketId();
+
+            String location = null;
+            if (marketId == null) {
+                location = viewConfig.getMallLocation() == null || viewConfig.getMallLocation().isEmpty()
+                        ? ENTIRE_LOCATION.getCode() : viewConfig.getMallLocation();
+            }
+
+            Integer count = null;
+            Integer pageIndex = null;
+            String cursor = null;
+
+            if (ProductListViewType.BEST.equalsByCode(viewType)) {
+                count = viewConfig.getBestViewCnt();
+            } else if (ProductListViewType.RECOMMENDED.equalsByCode(viewType)) {
+                count = viewConfig.getRecommendedViewCnt();
+            } else if (ProductListViewType.PAGE.equalsByCode(viewType)) {
+                count = viewConfig.getPerPageCnt();
+                cursor = viewConfig.getCursor();
+                pageIndex = cursor == null ? viewConfig.getPageIndex() : null;
+            }
+
+            return new ListCacheKey(viewType, viewConfig.getCategory(), location, marketId,
+                                    viewConfig.getSearchCriteria().getKeyword(), count, pageIndex, cursor);
+        }
+
+        private boolean isAffectedBy(int productMarketId, String productLocation) {
+            if (marketId != null) {
+                return marketId == productMarketId;
+            }
+            return productLocation == null || ENTIRE_LOCATION.getCode().equals(location)
+                    || location.equals(productLocation);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ListCacheKey)) {
+                return false;
+            }
+            ListCacheKey other = (ListCacheKey) obj;
+            return Objects.equals(viewType, other.viewType) && Objects.equals(category, other.category)
+                    && Objects.equals(location, other.location) && Objects.equals(marketId, other.marketId)
+                    && Objects.equals(keyword, other.keyword) && Objects.equals(count, other.count)
+                    && Objects.equals(pageIndex, other.pageIndex) && Objects.equals(cursor, other.cursor);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(viewType, category, location, marketId, keyword, count, pageIndex, cursor);
+        }
+
+        @Override
+        public String toString() {
+            return "ListCacheKey [viewType=" + viewType + ", category=" + category + ", location=" + location
+                    + ", marketId=" + marketId + ", keyword=" + keyword + ", count=" + count + ", pageIndex="
+                    + pageIndex + ", cursor=" + cursor + "]";
+        }
+    }
+}
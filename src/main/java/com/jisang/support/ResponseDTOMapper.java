@@ -0,0 +1,165 @@
+package com.jisang.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.modelmapper.ModelMapper;
+
+import com.jisang.domain.Address;
+import com.jisang.domain.Comment;
+import com.jisang.domain.Location;
+import com.jisang.domain.Market;
+import com.jisang.domain.Product;
+import com.jisang.domain.User;
+import com.jisang.dto.MallMapResponseDTO;
+import com.jisang.dto.MallMapResponseDTO.MapAddressResponseDTO;
+import com.jisang.dto.MallMapResponseDTO.MapMarketResponseDTO;
+import com.jisang.dto.comment.CommentResponseDTO;
+import com.jisang.dto.market.MarketManagementDTO.MarketModifyResponseDTO;
+import com.jisang.dto.product.ProductListViewDTO.ProductListViewEntity;
+import com.jisang.dto.product.ProductShoppingDetailedViewDTO;
+
+/**
+ *
+ * 조회 요청마다 수행되는 도메인 오브젝트 -> 응답 DTO 변환을 직접 작성한 클래스이다.
+ *
+ * 이전 구현은 상품 목록의 각 상품, 댓글 목록의 각 댓글, 지도 및 마켓 정보 응답마다 {@link ModelMapper}를 이용하였다.
+ * {@link ModelMapper}는 변환마다 리플렉션을 통해 프로퍼티를 읽고 쓰며, 처음 보는 타입 쌍에 대해서는 프로퍼티 이름을 토큰 단위로
+ * 비교하여 매핑을 찾는다. 상품 목록 응답에서는 이 비용이 상품 수만큼 반복되어 프로파일링 결과에서도 눈에 띄는 비중을 차지하였다.
+ *
+ * 아래의 메서드들은 {@link ModelMapper}의 standard 매칭 전략과 {@code ModelMapperConfig}의 설정이 만들어내던 매핑을
+ * 그대로 getter, setter 호출로 옮긴 것이다. 예를 들어 {@code ProductShoppingDetailedViewDTO#productName}은
+ * {@link ModelMapper}가 소스 클래스 이름의 토큰("product")을 이용해 {@code Product#name}과 매칭하던 것이다. 도메인이나
+ * DTO 클래스에 프로퍼티가 추가되면 이 클래스도 함께 수정해야 한다.
+ *
+ * 대표 이미지는 {@link ImageDerivativePipeline}이 생성한 화면 크기의 이미지가 있을 경우 그 이미지를 사용하며 아직 생성되지
+ * 않았을 경우 원본을 사용한다.
+ *
+ * 요청 DTO -> 도메인 오브젝트 변환과 같이 쓰기 요청에서만 일어나는 변환은 여전히 {@link ModelMapper}를 이용한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class ResponseDTOMapper {
+
+    private ResponseDTOMapper() {
+    }
+
+    public static ProductListViewEntity toListViewEntity(Product product) {
+        Objects.requireNonNull(product, "Received null value source.");
+
+        ProductListViewEntity entity = new ProductListViewEntity();
+        entity.setId(product.getId());
+        entity.setName(product.getName());
+        entity.setPrice(product.getPrice());
+        entity.setRepresentingImage(
+                product.getListImageUrl() == null ? product.getRepresentingImageUrl() : product.getListImageUrl());
+
+        return entity;
+    }
+
+    public static List<ProductListViewEntity> toListViewEntities(List<Product> products) {
+        List<ProductListViewEntity> entities = new ArrayList<>(products.size());
+
+        for (Product product : products) {
+            entities.add(toListViewEntity(product));
+        }
+
+        return entities;
+    }
+
+    public static ProductShoppingDetailedViewDTO toShoppingDetailedView(Product product, Market market) {
+        Objects.requireNonNull(product, "Received null value source product.");
+        Objects.requireNonNull(market, "Received null value source market.");
+
+        ProductShoppingDetailedViewDTO productDTO = new ProductShoppingDetailedViewDTO();
+        productDTO.setProductId(product.getId());
+        productDTO.setProductName(product.getName());
+        productDTO.setPrice(product.getPrice());
+        productDTO.setDetail(product.getDetail());
+        productDTO.setRepresentingImageUrl(
+                product.getDetailImageUrl() == null ? product.getRepresentingImageUrl() : product.getDetailImageUrl());
+        productDTO.setOriginalRepresentingImageUrl(product.getRepresentingImageUrl());
+        productDTO.setImageUrls(product.getImageUrls() == null ? null : new ArrayList<>(product.getImageUrls()));
+
+        productDTO.setMarketId(market.getId());
+        productDTO.setMarketName(market.getName());
+
+        return productDTO;
+    }
+
+    public static CommentResponseDTO toCommentResponse(Comment comment, User user) {
+        Objects.requireNonNull(comment, "Received null value source comment.");
+        Objects.requireNonNull(user, "Received null value source user.");
+
+        CommentResponseDTO commentDTO = new CommentResponseDTO();
+        commentDTO.setCommentId(comment.getId());
+        commentDTO.setContent(comment.getContent());
+        commentDTO.setUploadTime(comment.getUploadTime());
+        commentDTO.setUserName(user.getName());
+
+        return commentDTO;
+    }
+
+    public static MallMapResponseDTO toMallMapResponse(Location location) {
+        Objects.requireNonNull(location, "Received null value source.");
+
+        MallMapResponseDTO mapDTO = new MallMapResponseDTO();
+        mapDTO.setTopLeftLAT(location.getTopLeftLAT());
+        mapDTO.setTopLeftLNG(location.getTopLeftLNG());
+        mapDTO.setBottomRightLAT(location.getBottomRightLAT());
+        mapDTO.setBottomRightLNG(location.getBottomRightLNG());
+
+        if (location.getAddressList() != null) {
+            List<MapAddressResponseDTO> addressDTOList = new ArrayList<>(location.getAddressList().size());
+
+            for (Address address : location.getAddressList()) {
+                addressDTOList.add(toMapAddressResponse(address));
+            }
+
+            mapDTO.setAddressList(addressDTOList);
+        }
+
+        return mapDTO;
+    }
+
+    private static MapAddressResponseDTO toMapAddressResponse(Address address) {
+        MapAddressResponseDTO addressDTO = new MapAddressResponseDTO();
+        addressDTO.setId(address.getId());
+        addressDTO.setTopLeftLAT(address.getTopLeftLAT());
+        addressDTO.setTopLeftLNG(address.getTopLeftLNG());
+        addressDTO.setBottomRightLAT(address.getBottomRightLAT());
+        addressDTO.setBottomRightLNG(address.getBottomRightLNG());
+
+        Market market = address.getMarket();
+
+        if (market != null) {
+            MapMarketResponseDTO marketDTO = new MapMarketResponseDTO();
+            marketDTO.setId(market.getId());
+            marketDTO.setName(market.getName());
+
+            addressDTO.setMarket(marketDTO);
+        }
+
+        return addressDTO;
+    }
+
+    /**
+     * {@code ModelMapperConfig}에서 {@code Address#id}를 {@code address} 프로퍼티에 매핑하도록 설정되어 있었다. 지역
+     * 정보는 마켓 정보 이후에 점포 정보로부터 다시 설정되던 것을 그대로 따랐다.
+     */
+    public static MarketModifyResponseDTO toMarketModifyResponse(Market market, Address address) {
+        Objects.requireNonNull(market, "Received null value source market.");
+        Objects.requireNonNull(address, "Received null value source address.");
+
+        MarketModifyResponseDTO resDTO = new MarketModifyResponseDTO();
+        resDTO.setName(market.getName());
+        resDTO.setImageUrl(market.getImageUrl());
+        resDTO.setAddress(address.getId());
+        resDTO.setLocation(address.getLocation());
+
+        return resDTO;
+    }
+}
@@ -6,6 +6,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.elasticsearch.ElasticsearchException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -13,14 +15,16 @@ import org.springframework.stereotype.Component;
 import com.amazonaws.AmazonClientException;
 import com.jisang.persistence.HashTagDAO;
 import com.jisang.persistence.MultipartDAO;
-import com.jisang.persistence.ProductDAO;
+import com.jisang.security.persistence.RedisUserDAO;
 
 /**
  * 
  * 지상 어플리케이션에 필요한 스케줄링 관련 메서드는 다 이 클래스 아래에 두려고 한다. 현재 구현으로는 아래
- * {@link #refreshProductHit()}와 AWS S3 상의 이미지와 elasticsearch에 저장된 (검색어 미리보기로
- * 사용되는) 해시태그 정보 중 예외 발생 등의 이유로 삭제되지 않은 정보를 주기적으로 삭제하는 메서드
- * {@link #deleteImages(), #deleteHashTags()}가 존재한다.
+ * {@link #refreshProductHit()}, {@link #flushProductHit()}, {@link #reloadBestRanking()},
+ * {@link #reloadHashTagSearchIndex()}, {@link #expireLegacyTokenRecords()}, {@link #processMailOutbox()},
+ * {@link #cleanUpMailOutbox()}, {@link #collectImageBlobs()}와 AWS S3
+ * 상의 이미지와 elasticsearch에 저장된 (검색어 미리보기로 사용되는) 해시태그 정보 중 예외 발생 등의 이유로 삭제되지 않은 정보를
+ * 주기적으로 삭제하는 메서드 {@link #deleteImages(), #deleteHashTags()}가 존재한다.
  * 
  * 
  * @author leeseunghyun
@@ -32,11 +36,26 @@ public class Scheduler {
     private final Logger logger = LoggerFactory.getLogger(Scheduler.class);
 
     @Autowired
-    private ProductDAO productDAO;
+    private ProductHitCounter productHitCounter;
+    @Autowired
+    private ProductBestRanking productBestRanking;
+    @Autowired
+    private HashTagSearchIndex hashTagSearchIndex;
     @Autowired
     private MultipartDAO multipartDAO;
     @Autowired
     private HashTagDAO hashTagDAO;
+    @Autowired
+    private RedisUserDAO redisUserDAO;
+    @Autowired
+    private MailOutbox mailOutbox;
+    @Autowired
+    private ImageDerivativePipeline imageDerivativePipeline;
+    @Autowired
+    private ImageBlobStore imageBlobStore;
+
+    @Value("${schedule.legacy-token-expire.batch-size:500}")
+    private int legacyTokenScanBatchSize;
 
     @Autowired
     @Qualifier("imageTrashCan")
@@ -48,27 +67,131 @@ public class Scheduler {
     /**
      * 특정 기간마다 상품 조회수 정보를 업데이트 해줄 필요가 있다. 지상 어플리케이션에는 베스트 상품 목록 화면이 존재하는데, 상품 조회수를
      * 업데이트 해주지 않을 경우 17FW의 인기 제품이 18SS의 베스트 상품 뷰에 여전히 남아있을 수 있다.
+     * 
+     * 리프레시 이전까지 {@link ProductHitCounter}에 누적된 조회수가 먼저 반영되어야 하므로 리프레시는
+     * {@link ProductHitCounter#refreshHit()}에 맡긴다.
      */
     @Scheduled(cron = "${schedule.product-hit-refresh.cron-expression}")
     public void refreshProductHit() {
         logger.info("Starting to refresh product hit.");
 
-        productDAO.refreshHit();
+        productHitCounter.refreshHit();
 
         logger.info("Refreshing product hit succeeded.");
     }
 
+    /**
+     * {@link ProductHitCounter}에 누적된 상품 조회수를 주기적으로 데이터베이스에 반영한다.
+     */
+    @Scheduled(fixedDelayString = "${schedule.product-hit-flush.fixed-delay:1000}")
+    public void flushProductHit() {
+        productHitCounter.flush();
+    }
+
+    /**
+     * 메모리 상의 베스트 상품 랭킹을 데이터베이스로부터 다시 구성한다. 다른 서버에서 반영된 조회수는 이 때 반영된다.
+     */
+    @Scheduled(cron = "${schedule.best-ranking-reload.cron-expression:0 */10 * * * *}")
+    public void reloadBestRanking() {
+        logger.info("Starting to reload best product ranking.");
+
+        productBestRanking.reload();
+
+        logger.info("Reloading best product ranking succeeded.");
+    }
+
+    /**
+     * 메모리 상의 해시태그 검색 색인을 데이터베이스로부터 다시 구성한다. 다른 서버에서 등록/수정/삭제된 상품의 해시태그는 이 때 반영된다.
+     */
+    @Scheduled(cron = "${schedule.hashtag-index-reload.cron-expression:0 */10 * * * *}")
+    public void reloadHashTagSearchIndex() {
+        logger.info("Starting to reload hashtag search index.");
+
+        hashTagSearchIndex.reload();
+
+        logger.info("Reloading hashtag search index succeeded.");
+    }
+
+    /**
+     * 다시 인증하지 않아 새 형식으로 옮겨지지 않은 기존 Hash 형식의 토큰 정보에 만료 기한을 설정한다.
+     * {@link RedisUserDAO#expireLegacyRecords(int)} 참고.
+     */
+    @Scheduled(cron = "${schedule.legacy-token-expire.cron-expression:0 30 4 * * *}")
+    public void expireLegacyTokenRecords() {
+        logger.info("Starting to expire legacy token records.");
+
+        try {
+            int expired = redisUserDAO.expireLegacyRecords(legacyTokenScanBatchSize);
+
+            logger.info("Expiring legacy token records succeeded. {} records expired.", expired);
+        } catch (DataAccessException e) {
+            logger.error("Expiring legacy token records failed.");
+            logger.error("Exception : {}", e);
+        }
+    }
+
+    /**
+     * 다시 시도할 시각이 된 메일과 다른 서버 인스턴스에서 저장된 메일을 전송한다. {@link MailOutbox} 참고.
+     */
+    @Scheduled(fixedDelayString = "${schedule.mail-outbox.fixed-delay:5000}")
+    public void processMailOutbox() {
+        mailOutbox.wakeUp();
+    }
+
+    @Scheduled(cron = "${schedule.mail-outbox-clean-up.cron-expression:0 */10 * * * *}")
+    public void cleanUpMailOutbox() {
+        try {
+            mailOutbox.failStaleClaims();
+        } catch (DataAccessException e) {
+            logger.error("Cleaning up mail outbox failed.");
+            logger.error("Exception : {}", e);
+        }
+    }
+
+    /**
+     * 대표 이미지의 목록 화면용, 상세 화면용 이미지가 없는 상품의 이미지 생성 작업을 {@link ImageDerivativePipeline}에 추가한다.
+     */
+    @Scheduled(cron = "${schedule.image-derivative-backfill.cron-expression:0 */10 * * * *}")
+    public void backfillImageDerivatives() {
+        try {
+            imageDerivativePipeline.backfill();
+        } catch (DataAccessException e) {
+            logger.error("Finding products without image derivatives failed.");
+            logger.error("Exception : {}", e);
+        }
+    }
+
+    /**
+     * 더 이상 어떤 상품도 참조하지 않는 상품 이미지를 스토리지에서 일괄 삭제한다. {@link ImageBlobStore} 참고.
+     */
+    @Scheduled(cron = "${schedule.image-blob-gc.cron-expression:0 */10 * * * *}")
+    public void collectImageBlobs() {
+        try {
+            int collected = imageBlobStore.collectGarbage();
+
+            logger.info("Collecting orphaned image blobs succeeded. {} blobs deleted.", collected);
+        } catch (DataAccessException | AmazonClientException e) {
+            logger.error("Collecting orphaned image blobs failed. They will be collected by next run.");
+            logger.error("Exception : {}", e);
+        }
+    }
+
     /**
      * S3 등의 스토리지로부터 이미지 파일 삭제에 실패하였을 경우 삭제 실패 된 이미지들은 {@code imageTrashCan}에 담긴다.
-     * 아래 메서드는 정해진 시간마다 {@code imageTrashCan}에 담긴 이미지 url에 해당하는 이미지를 삭제한다.
+     * 아래 메서드는 정해진 시간마다 {@code imageTrashCan}에 담긴 이미지 url에 해당하는 이미지를 삭제한다. 스토리지 삭제 연산은
+     * key를 인자로 받으므로 url로부터 key를 얻어 전달한다.
      */
     @Scheduled(cron = "${schedule.delete-images.cron-expression}")
     public void deleteImages() {
         logger.info("Starting to delete images from cloud storage");
 
         synchronized (imageTrashCan) {
+            if (imageTrashCan.isEmpty()) {
+                return;
+            }
+
             try {
-                multipartDAO.delete(imageTrashCan.toArray(new String[imageTrashCan.size()]));
+                multipartDAO.delete(imageTrashCan.stream().map(multipartDAO::keyOf).toArray(String[]::new));
             } catch (AmazonClientException e) {
                 logger.error("Despite of retried call, Deleting images from cloud storage failed...");
                 logger.error("Manual deletion required. Manual deletion required images : {}", imageTrashCan);
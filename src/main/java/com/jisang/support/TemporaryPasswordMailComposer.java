@@ -0,0 +1,118 @@
+package com.jisang.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URLConnection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+import javax.mail.MessagingException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring4.SpringTemplateEngine;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.jisang.domain.OutboxMail;
+
+/**
+ * 
+ * 임시 비밀번호 메일을 구성하는 {@link MailComposer} 구현이다. {@link OutboxMail#getPayload()}는 임시 비밀번호이다.
+ * 
+ * 이전 구현은 메일을 보낼 때마다 메일에 포함되는 대표 이미지를 {@link ResourceLoader}로 다시 읽었다. 대표 이미지는 바뀌지 않으므로
+ * 처음 사용될 때 한 번만 읽어 메모리에 두고 이후에는 같은 바이트 배열을 사용한다. 읽기에 실패한 경우는 캐싱되지 않으며 다음 메일에서
+ * 다시 시도된다. 템플릿은 {@link SpringTemplateEngine}의 템플릿 캐시에 의해 한 번만 파싱된다.
+ * 
+ * @author leeseunghyun
+ *
+ */
+@Component
+public class TemporaryPasswordMailComposer implements MailComposer {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    public static final String MAIL_TYPE = "temporary-password";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    @Autowired
+    private SpringTemplateEngine templateEngine;
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${thymeleaf.template.temporary-password.password-key}")
+    private String passwordKey;
+    @Value("${thymeleaf.template.temporary-password.img-cid-key}")
+    private String imgCidKey;
+    @Value("${thymeleaf.template.temporary-password.img-cid-value}")
+    private String imgCidValue;
+    @Value("${thymeleaf.template.temporary-password.representing-image.servlet-context-location}")
+    private String representingImgLocation;
+    @Value("${thymeleaf.template.temporary-password.template-location}")
+    private String templateLocation;
+    @Value("${spring.mail.default-sender-id}")
+    private String mailFromId;
+
+    private Supplier<ByteArrayResource> representingImage;
+    private String representingImageContentType;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @PostConstruct
+    public void init() {
+        representingImage = Suppliers.memoize(this::loadRepresentingImage);
+        representingImageContentType = Optional.ofNullable(URLConnection.guessContentTypeFromName(representingImgLocation))
+                                               .orElse(DEFAULT_CONTENT_TYPE);
+    }
+
+    @Override
+    public String getMailType() {
+        return MAIL_TYPE;
+    }
+
+    @Override
+    public void compose(MimeMessageHelper helper, OutboxMail mail) throws MessagingException {
+        helper.setFrom(mailFromId);
+        helper.setTo(mail.getRecipient());
+        helper.setText(getMailMessage(mail.getPayload()), true);
+        helper.addInline(imgCidValue, representingImage.get(), representingImageContentType);
+    }
+
+    private String getMailMessage(String temporaryPassword) {
+
+        Map<String, Object> parameterMap = new HashMap<>();
+        parameterMap.put(imgCidKey, imgCidValue);
+        parameterMap.put(passwordKey, temporaryPassword);
+
+        Context context = new Context();
+        context.setVariables(parameterMap);
+
+        return templateEngine.process(templateLocation, context);
+    }
+
+    private ByteArrayResource loadRepresentingImage() {
+        Resource resource = resourceLoader.getResource(representingImgLocation);
+
+        try (InputStream in = resource.getInputStream()) {
+            return new ByteArrayResource(StreamUtils.copyToByteArray(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Loading representing image failed. location : " + representingImgLocation, e);
+        }
+    }
+}
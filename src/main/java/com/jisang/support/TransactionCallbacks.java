@@ -0,0 +1,39 @@
+package com.jisang.support;
+
+import java.util.Objects;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ *
+ * 메모리 상에 유지되는 상품 관련 정보(베스트 상품 랭킹 등)는 데이터베이스 변경이 실제로 커밋된 이후에 갱신되어야 한다. 커밋 이전에
+ * 갱신할 경우 롤백된 상품 정보가 메모리 상에 남아 사용자에게 전달될 수 있기 때문이다. 이 클래스는 현재 스레드에 트랜잭션이 진행중일
+ * 경우 전달 받은 작업을 커밋 이후로 미루고, 트랜잭션이 없을 경우에는 바로 수행한다.
+ *
+ *
+ * @author leeseunghyun
+ *
+ */
+public class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable task) {
+        Objects.requireNonNull(task, "Null value argument task detected.");
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+}
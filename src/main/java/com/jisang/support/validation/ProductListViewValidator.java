@@ -13,12 +13,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanWrapperImpl;
 
 import com.jisang.dto.product.ProductListViewConfigData;
+import com.jisang.dto.product.criteria.PageCursor;
 
 import static com.jisang.config.code.CodeBook.ProductListViewType.BEST;
 import static com.jisang.config.code.CodeBook.ProductListViewType.PAGE;
 import static com.jisang.config.code.CodeBook.ProductListViewType.RECOMMENDED;
 import static com.jisang.dto.product.ProductListViewConfigData.VIEW_TYPE_PROPERTY_NAME;
 import static com.jisang.dto.product.ProductListViewConfigData.BEST_VIEW_CNT_PROPERTY_NAME;
+import static com.jisang.dto.product.ProductListViewConfigData.CURSOR_PROPERTY_NAME;
 import static com.jisang.dto.product.ProductListViewConfigData.PAGE_INDEX_PROPERTY_NAME;
 import static com.jisang.dto.product.ProductListViewConfigData.PER_PAGE_CNT_PROPERTY_NAME;
 import static com.jisang.dto.product.ProductListViewConfigData.RECOMMENDED_VIEW_CNT_PROPERTY_NAME;
@@ -142,6 +144,13 @@ public class ProductListViewValidator
             return false;
         }
 
+        // 커서 방식 페이지 뷰일 경우 pageIndex 대신 cursor 값을 검사한다.
+        String cursor = (String) viewTypeArgValues.get(CURSOR_PROPERTY_NAME);
+
+        if (cursor != null) {
+            return cursorPageViewValidation(cursor, perPageCnt, criteria, context);
+        }
+
         Integer pageIndex = (Integer) viewTypeArgValues.get(PAGE_INDEX_PROPERTY_NAME);
 
         if (pageIndex == null) {
@@ -163,6 +172,29 @@ public class ProductListViewValidator
         return true;
     }
 
+    private boolean cursorPageViewValidation(String cursor, Integer perPageCnt, ProductListViewConfigData criteria,
+            ConstraintValidatorContext context) {
+
+        if (perPageCnt == null) {
+            logger.info("Validating {} failed due to missing properties {}", criteria, PER_PAGE_CNT_PROPERTY_NAME);
+            context.buildConstraintViolationWithTemplate("{ProductListViewConstraint.page.association.invalid}")
+                    .addPropertyNode(PER_PAGE_CNT_PROPERTY_NAME).addConstraintViolation();
+            return false;
+        }
+
+        if (!cursor.isEmpty() && !PageCursor.isDecodable(cursor)) {
+            logger.info("Validating {} failed due to invalid property value.", criteria);
+            logger.info("Invalid value of property name {} : {}", CURSOR_PROPERTY_NAME, cursor);
+
+            context.buildConstraintViolationWithTemplate("{ProductListViewConstraint.page.cursor.invalid}")
+                    .addPropertyNode(CURSOR_PROPERTY_NAME).addConstraintViolation();
+            return false;
+        }
+
+        logger.info("Validating {} succeeded.", criteria);
+        return true;
+    }
+
     private boolean recommendedViewValidation(Map<String, Object> viewTypeArgValues, ProductListViewConfigData criteria,
             ConstraintValidatorContext context) {
 
@@ -23,6 +23,7 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.jisang.dto.ErrorDTO;
+import com.jisang.persistence.InvalidStagedImageException;
 import com.jisang.support.NoSuchMarketException;
 import com.jisang.support.NoSuchProductException;
 import com.jisang.support.UnsupportedImageFormatException;
@@ -248,6 +249,21 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errDTO, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * 
+     * 상품 등록 및 수정 요청에 포함된 업로드 슬롯 key의 임시 이미지를 사용할 수 없을 경우 발생하는 예외를 처리한다. 클라이언트가 슬롯
+     * 만료 전에 이미지를 업로드하지 않았거나 허용되지 않은 이미지를 업로드한 경우이므로 400 응답을 보낸다.
+     */
+    @ExceptionHandler(InvalidStagedImageException.class)
+    public ResponseEntity<ErrorDTO> onInvalidStagedImage(InvalidStagedImageException ex, WebRequest request) {
+        logger.error("An exception occurred associated with invalid staged image. key : " + ex.getStagingKey(), ex);
+
+        ErrorDTO errDTO = new ErrorDTO(HttpStatus.BAD_REQUEST.value(), msgSource
+                .getMessage("response.exception.InvalidStagedImageException", null, request.getLocale()));
+
+        return new ResponseEntity<>(errDTO, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * 
      * 마켓 정보가 이용되는 여러 로직에서 foreign key 제약 조건이 설정되어 있는 테이블로의 데이터 삽입 과정 중
@@ -17,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.WebRequest;
 
+import com.jisang.dto.product.ImageUploadSlotDTO.ImageUploadSlotRequestDTO;
+import com.jisang.dto.product.ImageUploadSlotDTO.ImageUploadSlotResponseDTO;
 import com.jisang.dto.product.ProductListViewDTO.ManagementProductListView;
 import com.jisang.dto.product.ProductListViewDTO.ProductListView;
 import com.jisang.dto.product.ProductManagementViewDTO.ProductModifyRequestDTO;
@@ -140,7 +142,9 @@ public class ProductController {
 
     /**
      * 
-     * 마켓 관리자 화면에서의 상품 등록시 호출되는 핸들러 메서드이다.
+     * 마켓 관리자 화면에서의 상품 등록시 호출되는 핸들러 메서드이다. 상품 이미지는 요청에 포함되지 않으며 클라이언트는
+     * {@link #postImageUploadSlots(ImageUploadSlotRequestDTO, UserID)}로 발급 받은 슬롯에 이미지를 업로드한 후 슬롯의
+     * key를 전달한다.
      * 
      * 파라미터 {@code userId}는 seucirty 단과 {@link UserIDArgumentResolver}를 통해
      * {@link Authentication} 타입 오브젝트에 대한 유효성 검사가 수행된 후 전달되기 때문에 안전하다고 판단하고 여기선 따로
@@ -170,6 +174,35 @@ public class ProductController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    /**
+     * 
+     * 상품 등록 및 수정 전에 호출되어 상품 이미지 업로드 슬롯을 발급하는 핸들러 메서드이다. 클라이언트는 응답의 {@code uploadUrl}로
+     * 이미지를 직접 업로드한 후 {@code key}를 상품 등록 및 수정 요청에 포함시킨다.
+     * 
+     * 
+     * @param userId
+     *            - {@link UserID}, {@link UserIDArgumentResolver}
+     * 
+     */
+    @ApiOperation(value = "상품 이미지 업로드 슬롯 발급", response = ImageUploadSlotResponseDTO.class, responseContainer = "List")
+    @ApiImplicitParam(name = "Authorization", value = "JWT 토큰이 담길 헤더. 접두어로 'Bearer : '가 붙는 형식.", dataType = "string", paramType = "header", required = true)
+    @ApiResponses({ @ApiResponse(code = 201, message = "Created"), @ApiResponse(code = 401, message = "Unauthorized"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 400, message = "Bad Request", response = ErrorDTO.class) })
+    @PostMapping("/auth/product/image-upload-slots")
+    public ResponseEntity<List<ImageUploadSlotResponseDTO>> postImageUploadSlots(
+            @Validated ImageUploadSlotRequestDTO slotDTO, UserID userId) {
+
+        logger.debug("Starting to call {} for issuing image upload slots.", productService);
+
+        List<ImageUploadSlotResponseDTO> slots = productService.issueImageUploadSlots(userId.getUserId(),
+                slotDTO.getFilenames());
+
+        logger.debug("Issuing image upload slots succeeded.");
+
+        return new ResponseEntity<>(slots, HttpStatus.CREATED);
+    }
+
     /**
      * 
      * 상품 정보 관리(수정)을 위한 상품 정보 조회
@@ -208,7 +241,8 @@ public class ProductController {
      * 
      * 일반적으로 수정 요청에는 PUT 메서드가 이용되나 {@link MultipartFile}를 다른 정보와 함께 form 데이터로 전달되도록
      * POST 요청을 받도록 정하였다. 찾아보기로는 {@link MultipartResolver}를 custom하는 방법도 있는듯하나 간단히
-     * {@link @PostMapping}로 처리하였다.
+     * {@link @PostMapping}로 처리하였다. 지금은 이미지를 업로드 슬롯으로 직접 업로드한 후 key만 전달하지만 기존 클라이언트와의
+     * 호환을 위해 POST 요청을 유지한다.
      *
      *
      * 파라미터 {@code userId}는 seucirty 단과 {@link UserIDArgumentResolver}를 통해
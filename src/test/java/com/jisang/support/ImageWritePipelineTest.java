@@ -0,0 +1,133 @@
+package com.jisang.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import com.amazonaws.AmazonClientException;
+import com.jisang.persistence.S3MultipartDAO;
+
+/**
+ *
+ * {@link ImageWritePipeline}이 스토리지 삭제 연산에 url이 아닌 key를 전달하는지 확인한다. key 변환은 실제
+ * {@link S3MultipartDAO#keyOf(String)}를 사용하고 삭제 연산만 기록하도록 바꾼다.
+ *
+ * @author leeseunghyun
+ *
+ */
+public class ImageWritePipelineTest {
+
+    // Static Fields
+    // ==========================================================================================================================
+
+    private static final String BUCKET_URL = "https://jisang-images.s3.ap-northeast-2.amazonaws.com/";
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private ImageWritePipeline pipeline;
+    private RecordingMultipartDAO multipartDAO;
+    private List<String> imageTrashCan;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Before
+    public void setUp() {
+        multipartDAO = new RecordingMultipartDAO();
+        imageTrashCan = Collections.synchronizedList(new ArrayList<>());
+
+        pipeline = new ImageWritePipeline();
+        ReflectionTestUtils.setField(pipeline, "multipartDAO", multipartDAO);
+        ReflectionTestUtils.setField(pipeline, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(pipeline, "imageTrashCan", imageTrashCan);
+        pipeline.init();
+    }
+
+    @Test
+    public void discardDeletesKeysOfImageUrls() {
+        pipeline.discard(Arrays.asList(BUCKET_URL + "1528353256000_market.jpg",
+                BUCKET_URL + "1528353256001_%ED%95%9C%EA%B8%80.png"));
+
+        assertEquals(Collections.singletonList(Arrays.asList("1528353256000_market.jpg", "1528353256001_한글.png")),
+                multipartDAO.deleted);
+    }
+
+    @Test
+    public void failedDatabaseStageDeletesKeysOfUploadedImages() {
+        RuntimeException failure = new IllegalStateException("database stage failed");
+
+        try {
+            pipeline.write(Collections.singletonList(BUCKET_URL + "1528353256000_market.jpg"), status -> {
+                throw failure;
+            });
+            fail("Exception of database stage must be rethrown.");
+        } catch (IllegalStateException e) {
+            assertEquals(failure, e);
+        }
+
+        assertEquals(Collections.singletonList(Collections.singletonList("1528353256000_market.jpg")),
+                multipartDAO.deleted);
+        assertEquals(1, pipeline.getCompensatedCount());
+    }
+
+    @Test
+    public void failedDiscardPutsUrlsIntoTrashCan() {
+        multipartDAO.failure = new AmazonClientException("S3 unavailable");
+
+        pipeline.discard(Collections.singletonList(BUCKET_URL + "1528353256000_market.jpg"));
+
+        assertEquals(Collections.singletonList(BUCKET_URL + "1528353256000_market.jpg"), imageTrashCan);
+        assertTrue(multipartDAO.deleted.isEmpty());
+    }
+
+    // Nested Classes
+    // ==========================================================================================================================
+
+    private static class RecordingMultipartDAO extends S3MultipartDAO {
+
+        private final List<List<String>> deleted = new ArrayList<>();
+        private RuntimeException failure;
+
+        @Override
+        public void delete(String... fileNames) {
+            if (failure != null) {
+                throw failure;
+            }
+            deleted.add(Arrays.asList(fileNames));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.jisang.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.jisang.dto.product.ProductShoppingDetailedViewDTO;
+
+/**
+ *
+ * {@link ProductDetailCache}가 반환하는 복사본이 캐싱된 상세 화면 정보의 모든 프로퍼티를 유지하는지 확인한다.
+ *
+ * @author leeseunghyun
+ *
+ */
+public class ProductDetailCacheTest {
+
+    // Instance Fields
+    // ==========================================================================================================================
+
+    private ProductDetailCache cache;
+
+    // Methods
+    // ==========================================================================================================================
+
+    @Before
+    public void setUp() {
+        cache = new ProductDetailCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        cache.init();
+    }
+
+    @Test
+    public void cachedDetailKeepsEveryProperty() {
+        cache.get(1, this::detailOf);
+
+        ProductShoppingDetailedViewDTO cached = cache.get(1, productId -> {
+            throw new AssertionError("Cached detail must be returned without loading.");
+        });
+
+        ProductShoppingDetailedViewDTO expected = detailOf(1);
+
+        assertEquals(expected.getMarketId(), cached.getMarketId());
+        assertEquals(expected.getMarketName(), cached.getMarketName());
+        assertEquals(expected.getProductId(), cached.getProductId());
+        assertEquals(expected.getProductName(), cached.getProductName());
+        assertEquals(expected.getPrice(), cached.getPrice());
+        assertEquals(expected.getDetail(), cached.getDetail());
+        assertEquals(expected.getRepresentingImageUrl(), cached.getRepresentingImageUrl());
+        assertEquals(expected.getOriginalRepresentingImageUrl(), cached.getOriginalRepresentingImageUrl());
+        assertEquals(expected.getImageUrls(), cached.getImageUrls());
+    }
+
+    @Test
+    public void returnedDetailIsNotSharedWithCache() {
+        ProductShoppingDetailedViewDTO first = cache.get(1, this::detailOf);
+        first.setOriginalRepresentingImageUrl(null);
+        first.getImageUrls().clear();
+
+        ProductShoppingDetailedViewDTO second = cache.get(1, this::detailOf);
+
+        assertNotSame(first, second);
+        assertEquals("https://images.example.com/1.jpg", second.getOriginalRepresentingImageUrl());
+        assertEquals(2, second.getImageUrls().size());
+    }
+
+    private ProductShoppingDetailedViewDTO detailOf(int productId) {
+        ProductShoppingDetailedViewDTO detail = new ProductShoppingDetailedViewDTO();
+        detail.setMarketId(10);
+        detail.setMarketName("market");
+        detail.setProductId(productId);
+        detail.setProductName("product");
+        detail.setPrice("10000");
+        detail.setDetail("detail");
+        detail.setRepresentingImageUrl("https://images.example.com/" + productId + "_detail.jpg");
+        detail.setOriginalRepresentingImageUrl("https://images.example.com/" + productId + ".jpg");
+        detail.setImageUrls(Arrays.asList("https://images.example.com/a.jpg", "https://images.example.com/b.jpg"));
+
+        return detail;
+    }
+}